@@ -0,0 +1,82 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The inputs shared by the benchmarks. Everything here is deterministic, so that runs on different machines
+ * or releases measure exactly the same work.
+ */
+public final class BenchmarkData {
+    public static final Path MISSIONS = Path.of("files", "all-missions-from-1957.csv");
+    public static final Path ROCKETS = Path.of("files", "all-rockets-from-1957.csv");
+    public static final Path SCALED_DATA_DIRECTORY =
+        Path.of(System.getProperty("java.io.tmpdir"), "mjt-space-benchmark");
+    public static final int BUNDLED_MISSIONS_COUNT = 4324;
+    public static final long SEED = 1957L;
+
+    private static final String ENCRYPTION_ALGORITHM = "AES";
+    private static final byte[] KEY_BYTES = {
+        0x4d, 0x4a, 0x54, 0x2d, 0x53, 0x70, 0x61, 0x63, 0x65, 0x2d, 0x53, 0x63, 0x61, 0x6e, 0x6e, 0x72
+    };
+    private static final char DELIMITER = ',';
+    private static final char LINE_BREAK = '\n';
+
+    private BenchmarkData() {
+    }
+
+    public static SecretKey secretKey() {
+        return new SecretKeySpec(KEY_BYTES, ENCRYPTION_ALGORITHM);
+    }
+
+    /**
+     * Returns a missions dataset with the given number of rows, creating it in SCALED_DATA_DIRECTORY
+     * if it does not exist yet. The bundled records are repeated in their order with new consecutive ids,
+     * so the distribution of companies, locations, dates, costs and statuses is the bundled one.
+     *
+     * @param rows the number of missions of the dataset
+     * @throws IOException if the bundled dataset cannot be read or the scaled one cannot be written
+     */
+    public static Path scaledMissions(int rows) throws IOException {
+        Path target = SCALED_DATA_DIRECTORY.resolve("missions-" + rows + ".csv");
+        if (Files.exists(target)) {
+            return target;
+        }
+
+        List<String> lines = Files.readAllLines(MISSIONS, StandardCharsets.UTF_8);
+        List<String> records = lines.subList(1, lines.size());
+
+        Files.createDirectories(SCALED_DATA_DIRECTORY);
+        Path partial = Files.createTempFile(SCALED_DATA_DIRECTORY, "missions-", ".partial");
+        try (Writer writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+            writer.write(lines.get(0));
+            writer.write(LINE_BREAK);
+
+            for (int row = 0; row < rows; row++) {
+                String record = records.get(row % records.size());
+                int idEnd = record.indexOf(DELIMITER);
+
+                writer.write(Integer.toString(row));
+                writer.write(record, idEnd, record.length() - idEnd);
+                writer.write(LINE_BREAK);
+            }
+        }
+
+        return Files.move(partial, target);
+    }
+
+    /**
+     * Creates a scaled missions dataset ahead of a benchmark run.
+     *
+     * @param args the number of rows of the dataset
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println(scaledMissions(Integer.parseInt(args[0])));
+    }
+}
@@ -0,0 +1,36 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so that every result also reports the allocation rate
+ * and the bytes allocated per operation, and writes the results as JSON for comparison between releases.
+ * Must be started from the project directory, where the bundled datasets are in files/.
+ */
+public final class BenchmarkRunner {
+    private static final String RESULTS_FILE = "benchmark-results.json";
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * @param args an optional regular expression selecting the benchmarks to run, all of them by default
+     */
+    public static void main(String[] args) throws RunnerException {
+        String benchmarks = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*";
+
+        Options options = new OptionsBuilder()
+            .include(benchmarks)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(RESULTS_FILE)
+            .build();
+
+        new Runner(options).run();
+    }
+}
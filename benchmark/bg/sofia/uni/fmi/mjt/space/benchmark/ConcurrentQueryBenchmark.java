@@ -0,0 +1,81 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of queries running on several threads against one shared scanner,
+ * alone and while another thread keeps appending missions to it. The readers never wait for each other
+ * or for the writer, so their throughput is expected to be the same in both groups.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Group)
+public class ConcurrentQueryBenchmark {
+    private static final LocalDate FROM = LocalDate.of(1990, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2020, 12, 31);
+    private static final int READERS_COUNT = 4;
+    private static final int N = 10;
+
+    private MJTSpaceScanner scanner;
+    private List<Mission> newMissions;
+    private int nextMission;
+
+    @Setup(Level.Iteration)
+    public void load() {
+        scanner = MJTSpaceScanner.load(BenchmarkData.MISSIONS, BenchmarkData.ROCKETS, BenchmarkData.secretKey());
+        newMissions = List.copyOf(scanner.getAllMissions());
+        nextMission = 0;
+    }
+
+    @Benchmark
+    @Group("readOnly")
+    @GroupThreads(READERS_COUNT)
+    public String readOnly() {
+        return query();
+    }
+
+    @Benchmark
+    @Group("readWhileAppending")
+    @GroupThreads(READERS_COUNT)
+    public String readWhileAppending() {
+        return query();
+    }
+
+    @Benchmark
+    @Group("readWhileAppending")
+    @GroupThreads(1)
+    public long append() {
+        scanner.addMission(newMissions.get(nextMission++ % newMissions.size()));
+
+        return scanner.epoch();
+    }
+
+    private String query() {
+        MJTSpaceScanner snapshot = scanner.snapshot();
+        return snapshot.getCompanyWithMostSuccessfulMissions(FROM, TO)
+            + snapshot.getTopNLeastExpensiveMissions(N, MissionStatus.SUCCESS, RocketStatus.STATUS_ACTIVE).size();
+    }
+}
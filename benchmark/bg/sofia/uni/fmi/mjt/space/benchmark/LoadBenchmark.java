@@ -0,0 +1,61 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of the scanner, from readers and from memory-mapped files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 2, jvmArgsAppend = {"-Xms8g", "-Xmx8g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+    @Param({"4324", "1000000", "10000000"})
+    private int rows;
+
+    private Path missions;
+    private SecretKey secretKey;
+
+    @Setup(Level.Trial)
+    public void createDataset() throws IOException {
+        missions = rows == BenchmarkData.BUNDLED_MISSIONS_COUNT ?
+            BenchmarkData.MISSIONS : BenchmarkData.scaledMissions(rows);
+        secretKey = BenchmarkData.secretKey();
+    }
+
+    @Benchmark
+    public SpaceScannerAPI fromReaders() throws IOException {
+        try (Reader missionsReader = Files.newBufferedReader(missions, StandardCharsets.UTF_8);
+             Reader rocketsReader = Files.newBufferedReader(BenchmarkData.ROCKETS, StandardCharsets.UTF_8)) {
+            return new MJTSpaceScanner(missionsReader, rocketsReader, secretKey);
+        }
+    }
+
+    @Benchmark
+    public SpaceScannerAPI fromMappedFiles() {
+        return MJTSpaceScanner.load(missions, BenchmarkData.ROCKETS, secretKey);
+    }
+}
@@ -0,0 +1,89 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.store.MaterializedViews;
+import bg.sofia.uni.fmi.mjt.space.store.MissionStore;
+import bg.sofia.uni.fmi.mjt.space.store.QueryParallelism;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the queries over all missions on pools of growing parallelism, where 0 stands for sequential
+ * execution. The materialized views are computed again on every invocation, since a scanner computes them
+ * only once per epoch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms8g", "-Xmx8g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class ParallelQueryBenchmark {
+    private static final LocalDate FROM = LocalDate.of(1957, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2020, 12, 31);
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    @Param({"0", "1", "2", "4", "8"})
+    private int threads;
+
+    private ForkJoinPool pool;
+    private QueryParallelism parallelism;
+    private MissionStore missions;
+    private MJTSpaceScanner scanner;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        pool = new ForkJoinPool(Math.max(1, threads));
+        parallelism = threads == 0 ? QueryParallelism.sequential() : QueryParallelism.parallel(pool);
+        scanner = MJTSpaceScanner.load(BenchmarkData.scaledMissions(rows), BenchmarkData.ROCKETS,
+            BenchmarkData.secretKey(), pool, MaterializedViews.Mode.LAZY, parallelism);
+
+        MissionStore.Builder builder = MissionStore.builder();
+        for (Mission mission : scanner.getAllMissions()) {
+            builder.add(mission);
+        }
+        missions = builder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Collection<Mission>> missionsPerCountry() {
+        return MaterializedViews.of(missions, MaterializedViews.Mode.LAZY, parallelism).missionsPerCountry();
+    }
+
+    @Benchmark
+    public Map<String, String> mostDesiredLocationPerCompany() {
+        return MaterializedViews.of(missions, MaterializedViews.Mode.LAZY, parallelism)
+            .mostDesiredLocationPerCompany();
+    }
+
+    @Benchmark
+    public Map<String, String> getLocationWithMostSuccessfulMissionsPerCompany() {
+        return scanner.getLocationWithMostSuccessfulMissionsPerCompany(FROM, TO);
+    }
+}
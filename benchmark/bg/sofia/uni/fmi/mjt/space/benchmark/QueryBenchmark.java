@@ -0,0 +1,132 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every query of SpaceScannerAPI on a loaded scanner.
+ * Queries returning lazy views are also measured with their missions consumed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms8g", "-Xmx8g", "-XX:+AlwaysPreTouch"})
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+    private static final LocalDate FROM = LocalDate.of(1957, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2020, 12, 31);
+    private static final int N = 10;
+
+    @Param({"4324", "1000000", "10000000"})
+    private int rows;
+
+    private SpaceScannerAPI scanner;
+    private ByteArrayOutputStream encrypted;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        scanner = MJTSpaceScanner.load(rows == BenchmarkData.BUNDLED_MISSIONS_COUNT ?
+            BenchmarkData.MISSIONS : BenchmarkData.scaledMissions(rows), BenchmarkData.ROCKETS,
+            BenchmarkData.secretKey());
+        encrypted = new ByteArrayOutputStream();
+    }
+
+    @Benchmark
+    public Collection<Mission> getAllMissions() {
+        return scanner.getAllMissions();
+    }
+
+    @Benchmark
+    public void getAllMissionsConsumed(Blackhole blackhole) {
+        for (Mission mission : scanner.getAllMissions()) {
+            blackhole.consume(mission);
+        }
+    }
+
+    @Benchmark
+    public Collection<Mission> getAllMissionsWithStatus() {
+        return scanner.getAllMissions(MissionStatus.SUCCESS);
+    }
+
+    @Benchmark
+    public String getCompanyWithMostSuccessfulMissions() {
+        return scanner.getCompanyWithMostSuccessfulMissions(FROM, TO);
+    }
+
+    @Benchmark
+    public Map<String, Collection<Mission>> getMissionsPerCountry() {
+        return scanner.getMissionsPerCountry();
+    }
+
+    @Benchmark
+    public List<Mission> getTopNLeastExpensiveMissions() {
+        return scanner.getTopNLeastExpensiveMissions(N, MissionStatus.SUCCESS, RocketStatus.STATUS_ACTIVE);
+    }
+
+    @Benchmark
+    public Map<String, String> getMostDesiredLocationForMissionsPerCompany() {
+        return scanner.getMostDesiredLocationForMissionsPerCompany();
+    }
+
+    @Benchmark
+    public Map<String, String> getLocationWithMostSuccessfulMissionsPerCompany() {
+        return scanner.getLocationWithMostSuccessfulMissionsPerCompany(FROM, TO);
+    }
+
+    @Benchmark
+    public Collection<Rocket> getAllRockets() {
+        return scanner.getAllRockets();
+    }
+
+    @Benchmark
+    public List<Rocket> getTopNTallestRockets() {
+        return scanner.getTopNTallestRockets(N);
+    }
+
+    @Benchmark
+    public Map<String, Optional<String>> getWikiPageForRocket() {
+        return scanner.getWikiPageForRocket();
+    }
+
+    @Benchmark
+    public List<String> getWikiPagesForRocketsUsedInMostExpensiveMissions() {
+        return scanner.getWikiPagesForRocketsUsedInMostExpensiveMissions(N, MissionStatus.SUCCESS,
+            RocketStatus.STATUS_ACTIVE);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream saveMostReliableRocket() throws CipherException {
+        encrypted.reset();
+        scanner.saveMostReliableRocket(encrypted, FROM, TO);
+
+        return encrypted;
+    }
+}
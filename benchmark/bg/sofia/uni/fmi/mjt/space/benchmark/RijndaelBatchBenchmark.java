@@ -0,0 +1,84 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import bg.sofia.uni.fmi.mjt.space.algorithm.CipherMode;
+import bg.sofia.uni.fmi.mjt.space.algorithm.Rijndael;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encrypting many short records, like the names of rockets, one stream at a time
+ * with encrypting all of them in a single batch. The results are in records per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class RijndaelBatchBenchmark {
+    private static final int RECORDS_COUNT = 1000;
+
+    @Param({"ECB", "GCM", "CTR"})
+    private CipherMode mode;
+
+    @Param({"16", "64"})
+    private int recordSize;
+
+    private Rijndael cipher;
+    private List<byte[]> records;
+    private ByteArrayOutputStream streamOutput;
+    private ByteBuffer batchOutput;
+
+    @Setup(Level.Trial)
+    public void createRecords() {
+        cipher = new Rijndael(BenchmarkData.secretKey(), mode);
+        Random random = new Random(BenchmarkData.SEED);
+        records = new ArrayList<>(RECORDS_COUNT);
+        for (int i = 0; i < RECORDS_COUNT; i++) {
+            byte[] record = new byte[recordSize];
+            random.nextBytes(record);
+            records.add(record);
+        }
+
+        streamOutput = new ByteArrayOutputStream();
+        batchOutput = ByteBuffer.allocateDirect(RECORDS_COUNT * cipher.encryptedLength(recordSize));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_COUNT)
+    public ByteArrayOutputStream encryptStreams() throws CipherException {
+        for (byte[] record : records) {
+            streamOutput.reset();
+            cipher.encrypt(new ByteArrayInputStream(record), streamOutput);
+        }
+
+        return streamOutput;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_COUNT)
+    public int[] encryptBatch() throws CipherException {
+        batchOutput.clear();
+        return cipher.encrypt(records, batchOutput);
+    }
+}
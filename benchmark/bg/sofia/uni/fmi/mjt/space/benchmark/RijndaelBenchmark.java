@@ -0,0 +1,75 @@
+package bg.sofia.uni.fmi.mjt.space.benchmark;
+
+import bg.sofia.uni.fmi.mjt.space.algorithm.CipherMode;
+import bg.sofia.uni.fmi.mjt.space.algorithm.Rijndael;
+import bg.sofia.uni.fmi.mjt.space.algorithm.SymmetricBlockCipher;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of Rijndael in every mode for payloads from a single block up to a megabyte.
+ * Multiplying the operations per second by payloadSize gives the throughput in bytes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class RijndaelBenchmark {
+    private static final int MAX_OVERHEAD = 32;
+
+    @Param({"ECB", "GCM", "CTR"})
+    private CipherMode mode;
+
+    @Param({"16", "1024", "65536", "1048576"})
+    private int payloadSize;
+
+    private SymmetricBlockCipher cipher;
+    private byte[] payload;
+    private byte[] encryptedPayload;
+    private ByteArrayOutputStream output;
+
+    @Setup(Level.Trial)
+    public void createPayload() throws CipherException {
+        cipher = new Rijndael(BenchmarkData.secretKey(), mode);
+        payload = new byte[payloadSize];
+        new Random(BenchmarkData.SEED).nextBytes(payload);
+
+        output = new ByteArrayOutputStream(payloadSize + MAX_OVERHEAD);
+        cipher.encrypt(new ByteArrayInputStream(payload), output);
+        encryptedPayload = output.toByteArray();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream encrypt() throws CipherException {
+        output.reset();
+        cipher.encrypt(new ByteArrayInputStream(payload), output);
+
+        return output;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream decrypt() throws CipherException {
+        output.reset();
+        cipher.decrypt(new ByteArrayInputStream(encryptedPayload), output);
+
+        return output;
+    }
+}
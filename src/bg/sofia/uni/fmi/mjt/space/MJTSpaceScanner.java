@@ -1,59 +1,547 @@
 package bg.sofia.uni.fmi.mjt.space;
 
 import bg.sofia.uni.fmi.mjt.space.algorithm.Rijndael;
-import bg.sofia.uni.fmi.mjt.space.algorithm.SymmetricBlockCipher;
+import bg.sofia.uni.fmi.mjt.space.csv.CsvFieldScanner;
+import bg.sofia.uni.fmi.mjt.space.csv.CsvLineReader;
+import bg.sofia.uni.fmi.mjt.space.csv.LaunchDateParser;
+import bg.sofia.uni.fmi.mjt.space.csv.ParallelCsvReader;
+import bg.sofia.uni.fmi.mjt.space.dictionary.DatasetDictionary;
+import bg.sofia.uni.fmi.mjt.space.dictionary.StringDictionary;
 import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.exception.SnapshotException;
 import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
 import bg.sofia.uni.fmi.mjt.space.mission.Mission;
 import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
 import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
 import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotWriter;
+import bg.sofia.uni.fmi.mjt.space.store.MaterializedViews;
+import bg.sofia.uni.fmi.mjt.space.store.MissionIndexes;
+import bg.sofia.uni.fmi.mjt.space.store.MissionStore;
+import bg.sofia.uni.fmi.mjt.space.store.MissionTable;
+import bg.sofia.uni.fmi.mjt.space.store.QueryParallelism;
+import bg.sofia.uni.fmi.mjt.space.store.RocketStore;
 
 import javax.crypto.SecretKey;
-import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
-import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-
+import java.util.stream.LongStream;
+
+/**
+ * Answers the queries of SpaceScannerAPI from dictionary-encoded columns and indexes built when the datasets
+ * are loaded.
+ * A scanner is thread-safe and can be shared by any number of threads. Its missions, their indexes and the rockets
+ * are kept in an immutable epoch, which every query reads once, so queries never lock, never wait for each other
+ * or for writers and always answer from a single consistent epoch. Writers build the next epoch from the current
+ * one next to the readers and publish it atomically once it is complete. To run several queries against the same
+ * epoch, take a snapshot of the scanner.
+ * Queries over many missions can be executed in parallel on a fork-join pool, which is off by default.
+ */
 public class MJTSpaceScanner implements SpaceScannerAPI {
     private static final String IO_EXCEPTION_MESSAGE = "a problem occurred while reading from the file";
+    private static final String SNAPSHOT_WRITE_EXCEPTION_MESSAGE = "a problem occurred while writing the snapshot";
+    private static final String SNAPSHOT_READ_EXCEPTION_MESSAGE = "a problem occurred while reading the snapshot";
+    private static final String SNAPSHOT_TRAILING_DATA_EXCEPTION_MESSAGE = "the snapshot has unexpected trailing data";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_SNAPSHOT_MESSAGE = "snapshotFile is null";
+    private static final String SNAPSHOT_TEMPORARY_FILE_SUFFIX = ".tmp";
     private static final String ILLEGAL_ARGUMENT_EXCEPTION_MISSION_STATUS_MESSAGE = "missionStatus is null";
     private static final String ILLEGAL_ARGUMENT_EXCEPTION_ROCKET_STATUS_MESSAGE = "rocketStatus is null";
     private static final String ILLEGAL_ARGUMENT_EXCEPTION_TIME_PERIOD_MESSAGE = "from or to is null";
     private static final String ILLEGAL_ARGUMENT_EXCEPTION_OUTPUT_MESSAGE = "outputStream is null";
     private static final String ILLEGAL_ARGUMENT_EXCEPTION_N_MESSAGE = "n is less than or equal to 0";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_TIME_FRAMES_MESSAGE = "timeFrames or one of them is null";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_NEW_MISSIONS_MESSAGE = "newMissions is null";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_MISSION_MESSAGE = "mission is null";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_PARALLELISM_MESSAGE = "parallelism is null";
+    private static final String OUTPUT_EXCEPTION_MESSAGE = "a problem occurred while writing the encrypted results";
     private static final String TIME_FRAME_MISMATCH_EXCEPTION_MESSAGE = "to is before from";
-    private final Set<Mission> missions;
-    private final Set<Rocket> rockets;
-    private final SymmetricBlockCipher rijndael;
+    private static final int NOT_FOUND = -1;
+    private final Rijndael rijndael;
+    private final QueryParallelism parallelism;
+    private final Object appendLock = new Object();
+    private volatile Epoch epoch;
+    // appends missions after the last row of the table of the epoch, guarded by appendLock
+    private MissionStore.Builder appendBuilder;
+
+    /**
+     * The data every query is answered from, which is never changed once it is published.
+     *
+     * @param number            the number of the epoch, starting from 0 and incremented by every publication
+     * @param table             the missions and their indexes
+     * @param rockets           the rockets, with their heights sorted
+     * @param wikiPagePerRocket the wiki pages of the rockets by rocket name, unmodifiable
+     * @param views             the answers of the queries over all missions of the table
+     */
+    private record Epoch(long number, MissionTable table, RocketStore rockets,
+                         Map<String, Optional<String>> wikiPagePerRocket, MaterializedViews views) {
+        private static Epoch first(MissionTable table, Set<Rocket> rockets, MaterializedViews.Mode viewsMode,
+                                   QueryParallelism parallelism) {
+            return new Epoch(0, table, RocketStore.of(rockets), rockets.stream()
+                .collect(Collectors.toUnmodifiableMap(Rocket::name, Rocket::wiki, (first, second) -> first)),
+                MaterializedViews.of(table.missions(), viewsMode, parallelism));
+        }
+
+        private Epoch next(MissionTable nextTable) {
+            return new Epoch(number + 1, nextTable, rockets, wikiPagePerRocket, views.of(nextTable.missions()));
+        }
+    }
+
+    /**
+     * The missions of a chunk of a missions file, parsed on a thread of their own.
+     *
+     * @param missions the columns of the missions, with a dictionary of the chunk
+     * @param fields   the scanner of the lines of the chunk
+     */
+    private record MissionChunk(MissionStore.Builder missions, CsvFieldScanner fields) {
+        private MissionChunk() {
+            this(MissionStore.builder(), new CsvFieldScanner());
+        }
+
+        private void add(String line) {
+            missions.add(fields.scan(line), LaunchDateParser.lenient());
+        }
+    }
 
     public MJTSpaceScanner(Reader missionsReader, Reader rocketsReader, SecretKey secretKey) {
-        missions = readLines(missionsReader, Mission::of);
-        rockets = readLines(rocketsReader, Rocket::of);
+        this(missionsReader, rocketsReader, secretKey, MaterializedViews.Mode.LAZY);
+    }
+
+    /**
+     * Creates a scanner of the missions and rockets datasets.
+     *
+     * @param missionsReader the missions dataset
+     * @param rocketsReader  the rockets dataset
+     * @param secretKey      the key used to encrypt the most reliable rocket
+     * @param viewsMode      when the answers of the queries over all missions, which take no arguments,
+     *                       are computed
+     */
+    public MJTSpaceScanner(Reader missionsReader, Reader rocketsReader, SecretKey secretKey,
+                           MaterializedViews.Mode viewsMode) {
+        this(missionsReader, rocketsReader, secretKey, viewsMode, QueryParallelism.sequential());
+    }
+
+    /**
+     * Creates a scanner of the missions and rockets datasets.
+     *
+     * @param missionsReader the missions dataset
+     * @param rocketsReader  the rockets dataset
+     * @param secretKey      the key used to encrypt the most reliable rocket
+     * @param viewsMode      when the answers of the queries over all missions, which take no arguments,
+     *                       are computed
+     * @param parallelism    how the queries over many missions are executed
+     * @throws IllegalArgumentException if parallelism is null
+     */
+    public MJTSpaceScanner(Reader missionsReader, Reader rocketsReader, SecretKey secretKey,
+                           MaterializedViews.Mode viewsMode, QueryParallelism parallelism) {
+        this(new DatasetDictionary(), missionsReader, rocketsReader, secretKey, viewsMode,
+            validateParallelism(parallelism));
+    }
+
+    private MJTSpaceScanner(DatasetDictionary dictionary, Reader missionsReader, Reader rocketsReader,
+                            SecretKey secretKey, MaterializedViews.Mode viewsMode, QueryParallelism parallelism) {
+        this(readMissions(dictionary, missionsReader), readRockets(dictionary, rocketsReader), secretKey, viewsMode,
+            parallelism);
+    }
+
+    private MJTSpaceScanner(MissionStore missions, Set<Rocket> rockets, SecretKey secretKey,
+                            MaterializedViews.Mode viewsMode, QueryParallelism parallelism) {
+        this(missions, MissionIndexes.of(missions), rockets, secretKey, viewsMode, parallelism);
+    }
+
+    private MJTSpaceScanner(MissionStore missions, MissionIndexes indexes, Set<Rocket> rockets,
+                            SecretKey secretKey, MaterializedViews.Mode viewsMode, QueryParallelism parallelism) {
+        this(Epoch.first(MissionTable.of(missions, indexes), rockets, viewsMode, parallelism),
+            new Rijndael(secretKey), parallelism);
+    }
+
+    private MJTSpaceScanner(Epoch epoch, Rijndael rijndael, QueryParallelism parallelism) {
+        this.epoch = epoch;
+        this.rijndael = rijndael;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Loads the missions and rockets datasets from files, reading both files at the same time
+     * and parsing chunks of each of them in parallel on the common fork-join pool. Files larger than 2 GB are mapped
+     * in several regions, so they are loaded like smaller ones, as long as their missions fit in memory.
+     *
+     * @param missionsFile the missions dataset, encoded in UTF-8
+     * @param rocketsFile  the rockets dataset, encoded in UTF-8
+     * @param secretKey    the key used to encrypt the most reliable rocket
+     * @throws UncheckedIOException if any of the files cannot be read
+     */
+    public static MJTSpaceScanner load(Path missionsFile, Path rocketsFile, SecretKey secretKey) {
+        return load(missionsFile, rocketsFile, secretKey, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads the missions and rockets datasets from files, reading both files at the same time
+     * and parsing chunks of each of them in parallel on the given pool. Files larger than 2 GB are mapped
+     * in several regions, so they are loaded like smaller ones, as long as their missions fit in memory.
+     *
+     * @param missionsFile the missions dataset, encoded in UTF-8
+     * @param rocketsFile  the rockets dataset, encoded in UTF-8
+     * @param secretKey    the key used to encrypt the most reliable rocket
+     * @param pool         the pool the files are parsed on
+     * @throws UncheckedIOException if any of the files cannot be read
+     */
+    public static MJTSpaceScanner load(Path missionsFile, Path rocketsFile, SecretKey secretKey, ForkJoinPool pool) {
+        return load(missionsFile, rocketsFile, secretKey, pool, MaterializedViews.Mode.LAZY,
+            QueryParallelism.sequential());
+    }
+
+    /**
+     * Loads the missions and rockets datasets from files, reading both files at the same time
+     * and parsing chunks of each of them in parallel on the given pool. Files larger than 2 GB are mapped
+     * in several regions, so they are loaded like smaller ones, as long as their missions fit in memory.
+     *
+     * @param missionsFile the missions dataset, encoded in UTF-8
+     * @param rocketsFile  the rockets dataset, encoded in UTF-8
+     * @param secretKey    the key used to encrypt the most reliable rocket
+     * @param pool         the pool the files are parsed on
+     * @param viewsMode    when the answers of the queries over all missions, which take no arguments,
+     *                     are computed
+     * @param parallelism  how the queries over many missions are executed
+     * @throws IllegalArgumentException if parallelism is null
+     * @throws UncheckedIOException     if any of the files cannot be read
+     */
+    public static MJTSpaceScanner load(Path missionsFile, Path rocketsFile, SecretKey secretKey, ForkJoinPool pool,
+                                       MaterializedViews.Mode viewsMode, QueryParallelism parallelism) {
+        validateParallelism(parallelism);
+
+        ParallelCsvReader reader = new ParallelCsvReader(pool);
+        // every chunk is parsed straight into columns of its own, which are then merged in file order
+        ForkJoinTask<List<MissionChunk>> missionsRead = pool.submit(() ->
+            readFile(reader, missionsFile, MissionChunk::new, MissionChunk::add));
+        List<Rocket> rocketsRead = readFile(reader, rocketsFile, Rocket::of);
+
+        DatasetDictionary dictionary = new DatasetDictionary();
+        MissionStore.Builder missionsBuilder = MissionStore.builder(dictionary);
+        for (MissionChunk chunk : missionsRead.join()) {
+            missionsBuilder.addAll(chunk.missions().snapshot());
+        }
+
+        Set<Rocket> rockets = new HashSet<>();
+        for (Rocket rocket : rocketsRead) {
+            rockets.add(new Rocket(rocket.id(), dictionary.rocket(rocket.name()), rocket.wiki(), rocket.height()));
+        }
+
+        return new MJTSpaceScanner(missionsBuilder.build(), rockets, secretKey, viewsMode, parallelism);
+    }
+
+    /**
+     * Loads a scanner from a snapshot written by saveSnapshot. The snapshot is memory-mapped and its missions,
+     * rockets and indexes are copied out of it in bulk, so nothing is parsed or indexed again.
+     *
+     * @param snapshotFile the snapshot
+     * @param secretKey    the key used to encrypt the most reliable rocket
+     * @throws IllegalArgumentException if snapshotFile is null
+     * @throws SnapshotException        if the snapshot cannot be read, is corrupt or has another format version
+     */
+    public static MJTSpaceScanner loadSnapshot(Path snapshotFile, SecretKey secretKey) throws SnapshotException {
+        return loadSnapshot(snapshotFile, secretKey, MaterializedViews.Mode.LAZY, QueryParallelism.sequential());
+    }
+
+    /**
+     * Loads a scanner from a snapshot written by saveSnapshot, like loadSnapshot does.
+     *
+     * @param snapshotFile the snapshot
+     * @param secretKey    the key used to encrypt the most reliable rocket
+     * @param viewsMode    when the answers of the queries over all missions, which take no arguments,
+     *                     are computed
+     * @param parallelism  how the queries over many missions are executed
+     * @throws IllegalArgumentException if snapshotFile or parallelism is null
+     * @throws SnapshotException        if the snapshot cannot be read, is corrupt or has another format version
+     */
+    public static MJTSpaceScanner loadSnapshot(Path snapshotFile, SecretKey secretKey,
+                                               MaterializedViews.Mode viewsMode, QueryParallelism parallelism)
+        throws SnapshotException {
+        if (snapshotFile == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_SNAPSHOT_MESSAGE);
+        }
+        validateParallelism(parallelism);
+
+        try {
+            return readSnapshot(SnapshotReader.open(snapshotFile), secretKey, viewsMode, parallelism);
+        } catch (IOException e) {
+            throw new SnapshotException(SNAPSHOT_READ_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    /**
+     * Loads a scanner from an encrypted snapshot written by saveEncryptedSnapshot.
+     * The segments of the snapshot are decrypted and authenticated in parallel on the common fork-join pool.
+     *
+     * @param snapshotFile the encrypted snapshot
+     * @param secretKey    the key the snapshot was encrypted with, also used to encrypt the most reliable rocket
+     * @throws IllegalArgumentException if snapshotFile is null
+     * @throws SnapshotException        if the snapshot cannot be read or decrypted with the key, was modified
+     *                                  or has another format version
+     */
+    public static MJTSpaceScanner loadEncryptedSnapshot(Path snapshotFile, SecretKey secretKey)
+        throws SnapshotException {
+        return loadEncryptedSnapshot(snapshotFile, secretKey, MaterializedViews.Mode.LAZY,
+            QueryParallelism.sequential());
+    }
+
+    /**
+     * Loads a scanner from an encrypted snapshot written by saveEncryptedSnapshot, like loadEncryptedSnapshot does.
+     *
+     * @param snapshotFile the encrypted snapshot
+     * @param secretKey    the key the snapshot was encrypted with, also used to encrypt the most reliable rocket
+     * @param viewsMode    when the answers of the queries over all missions, which take no arguments,
+     *                     are computed
+     * @param parallelism  how the queries over many missions are executed
+     * @throws IllegalArgumentException if snapshotFile or parallelism is null
+     * @throws SnapshotException        if the snapshot cannot be read or decrypted with the key, was modified
+     *                                  or has another format version
+     */
+    public static MJTSpaceScanner loadEncryptedSnapshot(Path snapshotFile, SecretKey secretKey,
+                                                        MaterializedViews.Mode viewsMode,
+                                                        QueryParallelism parallelism) throws SnapshotException {
+        if (snapshotFile == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_SNAPSHOT_MESSAGE);
+        }
+        validateParallelism(parallelism);
+
+        try {
+            return readSnapshot(SnapshotReader.openEncrypted(snapshotFile, new Rijndael(secretKey)), secretKey,
+                viewsMode, parallelism);
+        } catch (IOException e) {
+            throw new SnapshotException(SNAPSHOT_READ_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    private static MJTSpaceScanner readSnapshot(SnapshotReader in, SecretKey secretKey,
+                                                MaterializedViews.Mode viewsMode, QueryParallelism parallelism)
+        throws SnapshotException {
+        MissionStore missions = MissionStore.readFrom(in);
+        MissionIndexes indexes = MissionIndexes.readFrom(in);
+        Set<Rocket> rockets = readRockets(in, missions.dictionary());
+        if (!in.isFullyRead()) {
+            throw new SnapshotException(SNAPSHOT_TRAILING_DATA_EXCEPTION_MESSAGE);
+        }
+
+        return new MJTSpaceScanner(missions, indexes, rockets, secretKey, viewsMode, parallelism);
+    }
+
+    /**
+     * Saves the missions, the rockets and the indexes of the scanner to a snapshot, which loadSnapshot reads
+     * back much faster than the datasets are parsed. The snapshot is written to a temporary file first
+     * and then moved in place, so an existing snapshot is never left half written.
+     *
+     * @param snapshotFile the snapshot, replaced if it exists
+     * @throws IllegalArgumentException if snapshotFile is null
+     * @throws SnapshotException        if the snapshot cannot be written
+     */
+    public void saveSnapshot(Path snapshotFile) throws SnapshotException {
+        writeSnapshot(snapshotFile, false);
+    }
+
+    /**
+     * Saves the scanner like saveSnapshot, but encrypted with the key of the scanner as it is written.
+     * The snapshot is encrypted in segments, each of them authenticated on its own,
+     * so that loadEncryptedSnapshot decrypts them in parallel and detects any modification.
+     *
+     * @param snapshotFile the encrypted snapshot, replaced if it exists
+     * @throws IllegalArgumentException if snapshotFile is null
+     * @throws SnapshotException        if the snapshot cannot be encrypted or written
+     */
+    public void saveEncryptedSnapshot(Path snapshotFile) throws SnapshotException {
+        writeSnapshot(snapshotFile, true);
+    }
+
+    private void writeSnapshot(Path snapshotFile, boolean encrypted) throws SnapshotException {
+        if (snapshotFile == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_SNAPSHOT_MESSAGE);
+        }
+
+        Epoch epoch = this.epoch;
+        Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + SNAPSHOT_TEMPORARY_FILE_SUFFIX);
+        try {
+            try (SnapshotWriter out = encrypted ?
+                SnapshotWriter.encrypted(temporaryFile, rijndael) : new SnapshotWriter(temporaryFile)) {
+                epoch.table().missions().writeTo(out);
+                epoch.table().indexes().writeTo(out);
+                writeRockets(out, epoch.rockets().rockets());
+                out.finish();
+            }
+
+            Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException deleteException) {
+                e.addSuppressed(deleteException);
+            }
+
+            throw new SnapshotException(SNAPSHOT_WRITE_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    private static void writeRockets(SnapshotWriter out, Set<Rocket> rockets) throws IOException {
+        out.writeInt(rockets.size());
+        for (Rocket rocket : rockets) {
+            out.writeString(rocket.id());
+            out.writeString(rocket.name());
+            out.writeString(rocket.wiki().orElse(null));
+            out.writeDouble(rocket.heightOrNaN());
+        }
+    }
+
+    private static Set<Rocket> readRockets(SnapshotReader in, DatasetDictionary dictionary) {
+        int rocketsCount = in.readInt();
+        Set<Rocket> rockets = new HashSet<>();
+        for (int i = 0; i < rocketsCount; i++) {
+            String id = in.readString();
+            String name = dictionary.rocket(in.readString());
+            Optional<String> wiki = Optional.ofNullable(in.readString());
+            double height = in.readDouble();
+
+            rockets.add(new Rocket(id, name, wiki, Double.isNaN(height) ? Optional.empty() : Optional.of(height)));
+        }
+
+        return rockets;
+    }
+
+    private static MissionStore readMissions(DatasetDictionary dictionary, Reader missionsReader) {
+        MissionStore.Builder missionsBuilder = MissionStore.builder(dictionary);
+        CsvFieldScanner fields = new CsvFieldScanner();
+        readRecords(missionsReader, line -> missionsBuilder.add(fields.scan(line), LaunchDateParser.lenient()));
+
+        return missionsBuilder.build();
+    }
+
+    private static Set<Rocket> readRockets(DatasetDictionary dictionary, Reader rocketsReader) {
+        Set<Rocket> rockets = new HashSet<>();
+        readRecords(rocketsReader, line -> rockets.add(Rocket.of(line.toString(), dictionary)));
+
+        return rockets;
+    }
+
+    private static void readRecords(Reader entitiesReader, Consumer<CharSequence> consumer) {
+        try (var reader = new CsvLineReader(entitiesReader)) {
+            reader.next();
+            while (reader.next()) {
+                consumer.accept(reader.line());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(IO_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    /**
+     * Appends the missions of a dataset with the same format as the one the scanner was created from.
+     * Only the new missions are indexed, the indexes of the existing ones are merged with theirs
+     * in amortized O(log n) linear passes per mission. The missions are published together as the next epoch,
+     * so queries which run while they are appended keep answering from the current epoch and see none of them.
+     *
+     * @param newMissions the new missions, starting with a header line
+     * @throws IllegalArgumentException if newMissions is null
+     * @throws UncheckedIOException     if newMissions cannot be read, in which case no mission is appended
+     */
+    public void append(Reader newMissions) {
+        if (newMissions == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_NEW_MISSIONS_MESSAGE);
+        }
+
+        synchronized (appendLock) {
+            MissionStore.Builder builder = takeAppendBuilder();
+            CsvFieldScanner fields = new CsvFieldScanner();
+            readRecords(newMissions, line -> builder.add(fields.scan(line), LaunchDateParser.lenient()));
+            publish(builder);
+        }
+    }
+
+    /**
+     * Appends a single mission, like append does.
+     *
+     * @param mission the new mission
+     * @throws IllegalArgumentException if mission is null
+     */
+    public void addMission(Mission mission) {
+        if (mission == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_MISSION_MESSAGE);
+        }
+
+        synchronized (appendLock) {
+            MissionStore.Builder builder = takeAppendBuilder();
+            builder.add(mission);
+            publish(builder);
+        }
+    }
+
+    /**
+     * Returns the number of the epoch the queries are currently answered from. It starts from 0
+     * and is incremented every time appended missions are published.
+     */
+    public long epoch() {
+        return epoch.number();
+    }
 
-        this.rijndael = new Rijndael(secretKey);
+    /**
+     * Returns a scanner which answers every query from the current epoch of this one, so that the results
+     * of several queries are consistent with each other even while missions are appended to this scanner.
+     * Taking a snapshot copies nothing. Missions appended to the snapshot are not appended to this scanner,
+     * nor the other way round.
+     */
+    public MJTSpaceScanner snapshot() {
+        return new MJTSpaceScanner(epoch, rijndael, parallelism);
     }
 
-    private <T> Set<T> readLines(Reader entitiesReader, Function<String, T> func) {
-        try (var reader = new BufferedReader(entitiesReader)) {
-            return reader.lines()
-                .skip(1)
-                .map(func)
-                .collect(Collectors.toSet());
+    // the builder is given back only once its rows are published, so a failed append never leaves rows
+    // or names in it which are not in the table
+    private MissionStore.Builder takeAppendBuilder() {
+        MissionStore.Builder builder = appendBuilder != null ? appendBuilder : epoch.table().missions().toBuilder();
+        appendBuilder = null;
+
+        return builder;
+    }
+
+    private void publish(MissionStore.Builder builder) {
+        epoch = epoch.next(epoch.table().append(builder.snapshot()));
+        appendBuilder = builder;
+    }
+
+    private static <T> List<T> readFile(ParallelCsvReader reader, Path file, Function<String, T> func) {
+        try {
+            return reader.read(file, func);
+        } catch (IOException e) {
+            throw new UncheckedIOException(IO_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    private static <A> List<A> readFile(ParallelCsvReader reader, Path file, Supplier<A> container,
+                                        BiConsumer<A, String> accumulator) {
+        try {
+            return reader.read(file, container, accumulator);
         } catch (IOException e) {
             throw new UncheckedIOException(IO_EXCEPTION_MESSAGE, e);
         }
@@ -61,7 +549,7 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
 
     @Override
     public Collection<Mission> getAllMissions() {
-        return Collections.unmodifiableSet(missions);
+        return epoch.table().missions().missions();
     }
 
     @Override
@@ -70,42 +558,36 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
             throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_MISSION_STATUS_MESSAGE);
         }
 
-        return missions.stream()
-            .filter(m -> m.missionStatus().equals(missionStatus))
-            .collect(Collectors.toUnmodifiableSet());
+        return epoch.table().missions(missionStatus);
     }
 
     @Override
     public String getCompanyWithMostSuccessfulMissions(LocalDate from, LocalDate to) {
-        if (from == null || to == null) {
-            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_TIME_PERIOD_MESSAGE);
-        }
-
-        if (from.isAfter(to)) {
-            throw new TimeFrameMismatchException(TIME_FRAME_MISMATCH_EXCEPTION_MESSAGE);
+        validateTimeFrame(from, to);
+
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+
+        MissionTable table = epoch.table();
+        StringDictionary companyNames = table.missions().companyNames();
+        int companyWithMostSuccessfulMissions = NOT_FOUND;
+        int mostSuccessfulMissions = 0;
+        for (int company = 0; company < companyNames.size(); company++) {
+            int successfulMissions =
+                table.count(MissionIndexes::successfulMissionsPerCompany, company, fromDay, toDay);
+            if (successfulMissions > mostSuccessfulMissions) {
+                companyWithMostSuccessfulMissions = company;
+                mostSuccessfulMissions = successfulMissions;
+            }
         }
 
-        Map<String, Long> successfulMissionsCountPerCompany = missions.stream()
-            .filter(m -> !m.date().isBefore(from))
-            .filter(m -> !m.date().isAfter(to))
-            .filter(m -> m.missionStatus().equals(MissionStatus.SUCCESS))
-            .collect(Collectors.groupingBy(Mission::company, Collectors.counting()));
-
-        return successfulMissionsCountPerCompany.entrySet().stream()
-            .max(Comparator.comparingLong(Map.Entry::getValue))
-            .map(Map.Entry::getKey)
-            .orElse("");
+        return companyWithMostSuccessfulMissions == NOT_FOUND ?
+            "" : companyNames.decode(companyWithMostSuccessfulMissions);
     }
 
     @Override
     public Map<String, Collection<Mission>> getMissionsPerCountry() {
-        return missions.stream()
-            .collect(Collectors.groupingBy(m -> getCountry(m.location()),
-                Collectors.toCollection(HashSet<Mission>::new)));
-    }
-
-    private String getCountry(String str) {
-        return str.substring(str.lastIndexOf(',') + 2);
+        return epoch.views().missionsPerCountry();
     }
 
     @Override
@@ -121,61 +603,30 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
             throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_ROCKET_STATUS_MESSAGE);
         }
 
-        return missions.stream()
-            .filter(m -> m.cost().isPresent())
-            .filter(m -> m.missionStatus().equals(missionStatus))
-            .filter(m -> m.rocketStatus().equals(rocketStatus))
-            .sorted((m1, m2) -> (int) (m1.cost().orElse(0.0) - m2.cost().orElse(0.0)))
-            .limit(n)
-            .toList();
+        return epoch.table().cheapest(MissionIndexes.statusesPartition(missionStatus, rocketStatus), n);
     }
 
     @Override
     public Map<String, String> getMostDesiredLocationForMissionsPerCompany() {
-        return getMostDesiredLocationForMissionsPerCompany(missions);
-    }
-
-    private Map<String, String> getMostDesiredLocationForMissionsPerCompany(Collection<Mission> missions) {
-        Map<String, List<String>> locationsPerCompany = missions.stream()
-            .collect(Collectors.groupingBy(Mission::company,
-                Collectors.mapping(Mission::location, Collectors.toList())));
-
-        return locationsPerCompany.entrySet().stream()
-            .map(e -> new AbstractMap.SimpleEntry<>(e.getKey(), getMostDesiredLocation(e.getValue())))
-            .collect(Collectors.toUnmodifiableMap(AbstractMap.SimpleEntry::getKey, AbstractMap.SimpleEntry::getValue));
-    }
-
-    private String getMostDesiredLocation(Collection<String> locations) {
-        return locations.stream()
-            .collect(Collectors.groupingBy(String::valueOf, Collectors.counting()))
-            .entrySet().stream()
-            .max(Comparator.comparingLong(Map.Entry::getValue))
-            .map(Map.Entry::getKey)
-            .get();
+        return epoch.views().mostDesiredLocationPerCompany();
     }
 
     @Override
     public Map<String, String> getLocationWithMostSuccessfulMissionsPerCompany(LocalDate from, LocalDate to) {
-        if (from == null || to == null) {
-            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_TIME_PERIOD_MESSAGE);
-        }
-
-        if (from.isAfter(to)) {
-            throw new TimeFrameMismatchException(TIME_FRAME_MISMATCH_EXCEPTION_MESSAGE);
-        }
+        validateTimeFrame(from, to);
 
-        Set<Mission> validMissions = missions.stream()
-            .filter(m -> !m.date().isBefore(from))
-            .filter(m -> !m.date().isAfter(to))
-            .filter(m -> m.missionStatus().equals(MissionStatus.SUCCESS))
-            .collect(Collectors.toSet());
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
 
-        return getMostDesiredLocationForMissionsPerCompany(validMissions);
+        MissionTable table = epoch.table();
+        return MaterializedViews.mostDesiredLocationPerCompany(table.missions(),
+            table.rows(MissionStatus.SUCCESS, fromDay, toDay), table.rowsCount(MissionStatus.SUCCESS, fromDay, toDay),
+            parallelism);
     }
 
     @Override
     public Collection<Rocket> getAllRockets() {
-        return Collections.unmodifiableSet(rockets);
+        return epoch.rockets().rockets();
     }
 
     @Override
@@ -184,17 +635,12 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
             throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_N_MESSAGE);
         }
 
-        return rockets.stream()
-            .filter(r -> r.height().isPresent())
-            .sorted((r1, r2) -> Double.compare(r2.height().get(), r1.height().get()))
-            .limit(n)
-            .toList();
+        return epoch.rockets().tallest(n);
     }
 
     @Override
     public Map<String, Optional<String>> getWikiPageForRocket() {
-        return rockets.stream()
-            .collect(Collectors.toUnmodifiableMap(Rocket::name, Rocket::wiki));
+        return epoch.wikiPagePerRocket();
     }
 
     @Override
@@ -211,15 +657,17 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
             throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_ROCKET_STATUS_MESSAGE);
         }
 
-        Map<String, Optional<String>> wikisByRocketName = rockets.stream()
-            .collect(Collectors.toMap(Rocket::name, Rocket::wiki));
-
-        return missions.stream()
-            .filter(m -> m.cost().isPresent())
-            .sorted((m1, m2) -> Double.compare(m2.cost().get(), m1.cost().get()))
-            .limit(n)
-            .filter(m -> wikisByRocketName.get(m.detail().rocketName()).isPresent())
-            .map(m -> wikisByRocketName.get(m.detail().rocketName()).get())
+        Epoch epoch = this.epoch;
+        Map<String, Optional<String>> wikisByRocketName = epoch.wikiPagePerRocket();
+        MissionTable table = epoch.table();
+        MissionStore missions = table.missions();
+        int[] mostExpensiveMissions =
+            table.mostExpensive(MissionIndexes.statusesPartition(missionStatus, rocketStatus), n);
+
+        return Arrays.stream(mostExpensiveMissions)
+            .mapToObj(row -> wikisByRocketName.getOrDefault(missions.rocketNames().decode(missions.rocket(row)),
+                Optional.empty()))
+            .flatMap(Optional::stream)
             .distinct()
             .toList();
     }
@@ -229,22 +677,31 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
         if (outputStream == null) {
             throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_OUTPUT_MESSAGE);
         }
-        if (from == null || to == null) {
-            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_TIME_PERIOD_MESSAGE);
-        }
+        validateTimeFrame(from, to);
+
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+
+        MissionTable table = epoch.table();
+        StringDictionary rocketNames = table.missions().rocketNames();
+        int mostReliableRocket = NOT_FOUND;
+        double highestReliability = 0.0;
+        for (int rocket = 0; rocket < rocketNames.size(); rocket++) {
+            int allMissions = table.count(MissionIndexes::missionsPerRocket, rocket, fromDay, toDay);
+            if (allMissions == 0) {
+                continue;
+            }
 
-        if (from.isAfter(to)) {
-            throw new TimeFrameMismatchException(TIME_FRAME_MISMATCH_EXCEPTION_MESSAGE);
+            int successfulMissions = table.count(MissionIndexes::successfulMissionsPerRocket, rocket, fromDay, toDay);
+            double reliability = calculateReliability(successfulMissions, allMissions);
+            if (mostReliableRocket == NOT_FOUND || reliability > highestReliability) {
+                mostReliableRocket = rocket;
+                highestReliability = reliability;
+            }
         }
 
-        Map<String, List<Mission>> missionsByRocket = missions.stream()
-            .collect(Collectors.groupingBy(m -> m.detail().rocketName()));
-
-        String mostReliableRocketName = missionsByRocket.entrySet().stream()
-            .map(e -> new AbstractMap.SimpleEntry<>(e.getKey(), calculateReliability(e.getValue())))
-            .max(Comparator.comparingDouble(AbstractMap.SimpleEntry::getValue))
-            .orElse(new AbstractMap.SimpleEntry<>("", 0.0))
-            .getKey();
+        String mostReliableRocketName = mostReliableRocket == NOT_FOUND ?
+            "" : rocketNames.decode(mostReliableRocket);
 
         byte[] byteArray = mostReliableRocketName.getBytes();
         ByteArrayInputStream inputStream = new ByteArrayInputStream(byteArray);
@@ -252,15 +709,112 @@ public class MJTSpaceScanner implements SpaceScannerAPI {
         rijndael.encrypt(inputStream, outputStream);
     }
 
-    private double calculateReliability(List<Mission> missions) {
-        int successfulMissions = 0;
-        for (Mission mission : missions) {
-            if (mission.missionStatus().equals(MissionStatus.SUCCESS)) {
-                successfulMissions++;
+    @Override
+    public void saveMostReliableRockets(OutputStream outputStream, List<TimeFrame> timeFrames)
+        throws CipherException {
+        if (outputStream == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_OUTPUT_MESSAGE);
+        }
+        if (timeFrames == null || timeFrames.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_TIME_FRAMES_MESSAGE);
+        }
+
+        MissionTable table = epoch.table();
+        StringDictionary rocketNames = table.missions().rocketNames();
+        List<byte[]> mostReliableRocketNames = Arrays.stream(mostReliableRockets(table, timeFrames))
+            .mapToObj(rocket -> rocket == NOT_FOUND ? "" : rocketNames.decode(rocket))
+            .map(String::getBytes)
+            .toList();
+        ByteBuffer encryptedNames = ByteBuffer.allocate(mostReliableRocketNames.stream()
+            .mapToInt(name -> rijndael.encryptedLength(name.length))
+            .sum());
+        int[] encryptedLengths = rijndael.encrypt(mostReliableRocketNames, encryptedNames);
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+            int offset = 0;
+            for (int encryptedLength : encryptedLengths) {
+                output.writeInt(encryptedLength);
+                output.write(encryptedNames.array(), offset, encryptedLength);
+                offset += encryptedLength;
+            }
+        } catch (IOException e) {
+            throw new CipherException(OUTPUT_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    /**
+     * Finds the most reliable rocket of every time frame, or NOT_FOUND if it has no missions.
+     * The sorted launch dates of every rocket are merged once with the sorted boundaries of all time frames,
+     * which takes O(missions + rockets * time frames) instead of searching the dates once per time frame.
+     */
+    private int[] mostReliableRockets(MissionTable table, List<TimeFrame> timeFrames) {
+        long[] boundaries = timeFrames.stream()
+            .flatMapToLong(timeFrame -> LongStream.of(timeFrame.from().toEpochDay(), timeFrame.to().toEpochDay() + 1))
+            .sorted()
+            .distinct()
+            .toArray();
+
+        int[] fromBoundaries = new int[timeFrames.size()];
+        int[] toBoundaries = new int[timeFrames.size()];
+        for (int frame = 0; frame < timeFrames.size(); frame++) {
+            fromBoundaries[frame] = Arrays.binarySearch(boundaries, timeFrames.get(frame).from().toEpochDay());
+            toBoundaries[frame] = Arrays.binarySearch(boundaries, timeFrames.get(frame).to().toEpochDay() + 1);
+        }
+
+        int rocketsCount = table.missions().rocketNames().size();
+        int[] missionsBefore = new int[boundaries.length];
+        int[] successfulMissionsBefore = new int[boundaries.length];
+        int[] mostReliableRockets = new int[timeFrames.size()];
+        double[] highestReliabilities = new double[timeFrames.size()];
+        Arrays.fill(mostReliableRockets, NOT_FOUND);
+
+        for (int rocket = 0; rocket < rocketsCount; rocket++) {
+            if (table.count(MissionIndexes::missionsPerRocket, rocket) == 0) {
+                continue;
             }
+
+            table.countBefore(MissionIndexes::missionsPerRocket, rocket, boundaries, missionsBefore);
+            table.countBefore(MissionIndexes::successfulMissionsPerRocket, rocket, boundaries,
+                successfulMissionsBefore);
+            for (int frame = 0; frame < mostReliableRockets.length; frame++) {
+                int allMissions = missionsBefore[toBoundaries[frame]] - missionsBefore[fromBoundaries[frame]];
+                if (allMissions == 0) {
+                    continue;
+                }
+
+                int successfulMissions = successfulMissionsBefore[toBoundaries[frame]]
+                    - successfulMissionsBefore[fromBoundaries[frame]];
+                double reliability = calculateReliability(successfulMissions, allMissions);
+                if (mostReliableRockets[frame] == NOT_FOUND || reliability > highestReliabilities[frame]) {
+                    mostReliableRockets[frame] = rocket;
+                    highestReliabilities[frame] = reliability;
+                }
+            }
+        }
+
+        return mostReliableRockets;
+    }
+
+    private double calculateReliability(int successfulMissions, int allMissions) {
+        int unsuccessfulMissions = allMissions - successfulMissions;
+        return (double) (2 * successfulMissions + unsuccessfulMissions) / (2 * allMissions);
+    }
+
+    private static QueryParallelism validateParallelism(QueryParallelism parallelism) {
+        if (parallelism == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_PARALLELISM_MESSAGE);
         }
 
-        int unsuccessfulMissions = missions.size() - successfulMissions;
-        return (double) (2 * successfulMissions + unsuccessfulMissions) / (2 * missions.size());
+        return parallelism;
+    }
+
+    private void validateTimeFrame(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_TIME_PERIOD_MESSAGE);
+        }
+
+        if (from.isAfter(to)) {
+            throw new TimeFrameMismatchException(TIME_FRAME_MISMATCH_EXCEPTION_MESSAGE);
+        }
     }
 }
@@ -119,4 +119,17 @@ public interface SpaceScannerAPI {
      * @throws TimeFrameMismatchException if to is before from
      */
     void saveMostReliableRocket(OutputStream outputStream, LocalDate from, LocalDate to) throws CipherException;
+
+    /**
+     * Saves the names of the most reliable rockets in each of the given time periods in an encrypted format.
+     * The names are written in the order of the time frames, each of them as the length of its encrypted form,
+     * a 4-byte big-endian int, followed by the encrypted name, which decrypts to what saveMostReliableRocket
+     * saves for its time frame.
+     *
+     * @param outputStream the output stream where the encrypted results are written into
+     * @param timeFrames   the time frames
+     * @throws IllegalArgumentException if outputStream, timeFrames or any of them is null
+     * @throws CipherException if the encrypt operation or writing the results cannot be completed successfully
+     */
+    void saveMostReliableRockets(OutputStream outputStream, List<TimeFrame> timeFrames) throws CipherException;
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package bg.sofia.uni.fmi.mjt.space;
+
+import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * A time frame from one day to another, both inclusive.
+ *
+ * @param from the inclusive beginning of the time frame
+ * @param to   the inclusive end of the time frame
+ */
+public record TimeFrame(LocalDate from, LocalDate to) {
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_TIME_PERIOD_MESSAGE = "from or to is null";
+    private static final String TIME_FRAME_MISMATCH_EXCEPTION_MESSAGE = "to is before from";
+
+    /**
+     * @throws IllegalArgumentException   if from or to is null
+     * @throws TimeFrameMismatchException if to is before from
+     */
+    public TimeFrame {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_TIME_PERIOD_MESSAGE);
+        }
+
+        if (from.isAfter(to)) {
+            throw new TimeFrameMismatchException(TIME_FRAME_MISMATCH_EXCEPTION_MESSAGE);
+        }
+    }
+
+    /**
+     * Returns the time frame of a whole year.
+     */
+    public static TimeFrame ofYear(int year) {
+        Year wholeYear = Year.of(year);
+        return new TimeFrame(wholeYear.atDay(1), wholeYear.atMonth(Month.DECEMBER).atEndOfMonth());
+    }
+}
@@ -0,0 +1,31 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Encrypts many small payloads at once, each of them exactly as a stream of it would be encrypted.
+ */
+public interface BatchCipher {
+    /**
+     * Encrypts every payload on its own and puts the encrypted payloads one after another into output,
+     * without creating a stream for any of them
+     *
+     * @param payloads the payloads to be encrypted
+     * @param output the buffer the encrypted payloads are put into, with encryptedLength(payload.length) bytes
+     *               remaining for every payload
+     * @return the lengths of the encrypted payloads, in the order of the payloads
+     * @throws IllegalArgumentException if payloads, any of them or output is null or output has too few bytes remaining
+     * @throws CipherException if the encrypt operation cannot be completed successfully
+     */
+    int[] encrypt(List<byte[]> payloads, ByteBuffer output) throws CipherException;
+
+    /**
+     * Returns the length of a payload of the given length after it is encrypted by encrypt
+     *
+     * @param length the length of the payload
+     */
+    int encryptedLength(int length);
+}
@@ -0,0 +1,71 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of direct buffers of one capacity, with the same slots as a CipherPool.
+ * Allocating a direct buffer of a megabyte costs much more than encrypting a short input, so the buffers
+ * are allocated only when all slots are empty, and buffers returned to a full pool are dropped.
+ */
+class BufferPool {
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_CAPACITY_MESSAGE =
+        "capacity is less than or equal to 0";
+
+    private final int bufferCapacity;
+    private final AtomicReferenceArray<ByteBuffer> slots;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param bufferCapacity the capacity of the buffers
+     * @param capacity       the maximal number of buffers kept in the pool
+     * @throws IllegalArgumentException if bufferCapacity or capacity is less than or equal to 0
+     */
+    BufferPool(int bufferCapacity, int capacity) {
+        if (bufferCapacity <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_CAPACITY_MESSAGE);
+        }
+
+        this.bufferCapacity = bufferCapacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Takes a buffer out of the pool or allocates a new one if the pool is empty.
+     *
+     * @return a cleared buffer of the capacity of the pool
+     */
+    ByteBuffer acquire() {
+        int start = firstSlot();
+        for (int i = 0; i < slots.length(); i++) {
+            int slot = (start + i) % slots.length();
+            if (slots.get(slot) != null) {
+                ByteBuffer buffer = slots.getAndSet(slot, null);
+                if (buffer != null) {
+                    return buffer.clear();
+                }
+            }
+        }
+
+        return ByteBuffer.allocateDirect(bufferCapacity);
+    }
+
+    /**
+     * Returns a buffer acquired from the pool, dropping it if the pool is full.
+     *
+     * @param buffer the buffer, which must not be used by the caller any more
+     */
+    void release(ByteBuffer buffer) {
+        int start = firstSlot();
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.compareAndSet((start + i) % slots.length(), null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    private int firstSlot() {
+        return (int) (Thread.currentThread().getId() % slots.length());
+    }
+}
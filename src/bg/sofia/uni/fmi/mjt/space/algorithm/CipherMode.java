@@ -0,0 +1,43 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+/**
+ * The modes Rijndael encrypts with. Data encrypted in a mode with an IV starts with its random IV.
+ */
+public enum CipherMode {
+    /**
+     * Electronic codebook with PKCS5 padding, the bare "AES" transformation.
+     */
+    ECB("AES", 0),
+    /**
+     * Galois/counter mode, the encrypted data ends with a tag which authenticates it.
+     */
+    GCM("AES/GCM/NoPadding", 12),
+    /**
+     * Counter mode, any part of the encrypted data can be decrypted without decrypting what precedes it.
+     */
+    CTR("AES/CTR/NoPadding", 16);
+
+    private final String transformation;
+    private final int ivLength;
+
+    CipherMode(String transformation, int ivLength) {
+        this.transformation = transformation;
+        this.ivLength = ivLength;
+    }
+
+    public String transformation() {
+        return transformation;
+    }
+
+    /**
+     * Returns the length of the IV the encrypted data starts with, 0 if the mode has no IV.
+     */
+    public int ivLength() {
+        return ivLength;
+    }
+
+    @Override
+    public String toString() {
+        return transformation;
+    }
+}
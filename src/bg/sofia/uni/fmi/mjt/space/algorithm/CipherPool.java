@@ -0,0 +1,90 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of initialized Cipher instances of one transformation.
+ * Ciphers are taken out of and put back into a fixed number of slots with atomic operations, starting from a slot
+ * chosen by the id of the calling thread, so neither platform nor virtual threads ever block on the pool
+ * and each of them usually finds a cipher in its own slot. A cipher is created only when all slots are empty,
+ * and ciphers returned to a full pool are dropped.
+ */
+class CipherPool {
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_CAPACITY_MESSAGE =
+        "capacity is less than or equal to 0";
+
+    private final String transformation;
+    private final Initializer initializer;
+    private final AtomicReferenceArray<Cipher> slots;
+
+    /**
+     * Initializes the new ciphers of the pool, for example with a mode and a key.
+     */
+    @FunctionalInterface
+    interface Initializer {
+        void initialize(Cipher cipher) throws GeneralSecurityException;
+    }
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param transformation the transformation of the ciphers
+     * @param initializer    initializes every new cipher before it is acquired for the first time
+     * @param capacity       the maximal number of ciphers kept in the pool
+     * @throws IllegalArgumentException if capacity is less than or equal to 0
+     */
+    CipherPool(String transformation, Initializer initializer, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_CAPACITY_MESSAGE);
+        }
+
+        this.transformation = transformation;
+        this.initializer = initializer;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Takes a cipher out of the pool or creates and initializes a new one if the pool is empty.
+     * The cipher must be returned with release only if it is in its initialized state again,
+     * that is after doFinal completed, so that the next caller gets the same state as from a new cipher.
+     *
+     * @throws GeneralSecurityException if a new cipher cannot be created or initialized
+     */
+    Cipher acquire() throws GeneralSecurityException {
+        int start = firstSlot();
+        for (int i = 0; i < slots.length(); i++) {
+            int slot = (start + i) % slots.length();
+            if (slots.get(slot) != null) {
+                Cipher cipher = slots.getAndSet(slot, null);
+                if (cipher != null) {
+                    return cipher;
+                }
+            }
+        }
+
+        Cipher cipher = Cipher.getInstance(transformation);
+        initializer.initialize(cipher);
+
+        return cipher;
+    }
+
+    /**
+     * Returns a cipher acquired from the pool, dropping it if the pool is full.
+     *
+     * @param cipher the cipher, in its initialized state
+     */
+    void release(Cipher cipher) {
+        int start = firstSlot();
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.compareAndSet((start + i) % slots.length(), null, cipher)) {
+                return;
+            }
+        }
+    }
+
+    private int firstSlot() {
+        return (int) (Thread.currentThread().getId() % slots.length());
+    }
+}
@@ -0,0 +1,54 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * The HMAC-based key derivation function of RFC 5869 with SHA-256.
+ */
+final class Hkdf {
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int HASH_LENGTH = 32;
+    private static final int MAX_BLOCKS = 255;
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_LENGTH_MESSAGE =
+        "length is less than or equal to 0 or greater than 255 hash lengths";
+
+    private Hkdf() {
+    }
+
+    /**
+     * Derives key material from the input key material, the salt and the info.
+     *
+     * @param inputKey the input key material
+     * @param salt     the salt, an empty salt is replaced by a hash length of zeros
+     * @param info     the context the key material is derived for
+     * @param length   the number of bytes derived
+     * @throws IllegalArgumentException if length is less than or equal to 0 or greater than 255 hash lengths
+     * @throws GeneralSecurityException if HMAC-SHA256 is not available
+     */
+    static byte[] derive(byte[] inputKey, byte[] salt, byte[] info, int length) throws GeneralSecurityException {
+        if (length <= 0 || length > MAX_BLOCKS * HASH_LENGTH) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_LENGTH_MESSAGE);
+        }
+
+        Mac mac = Mac.getInstance(MAC_ALGORITHM);
+        mac.init(new SecretKeySpec(salt.length == 0 ? new byte[HASH_LENGTH] : salt, MAC_ALGORITHM));
+        byte[] pseudorandomKey = mac.doFinal(inputKey);
+
+        mac.init(new SecretKeySpec(pseudorandomKey, MAC_ALGORITHM));
+        byte[] derived = new byte[length];
+        byte[] block = new byte[0];
+        for (int offset = 0, counter = 1; offset < length; offset += HASH_LENGTH, counter++) {
+            mac.update(block);
+            mac.update(info);
+            mac.update((byte) counter);
+            block = mac.doFinal();
+            System.arraycopy(block, 0, derived, offset, Math.min(HASH_LENGTH, length - offset));
+        }
+
+        Arrays.fill(pseudorandomKey, (byte) 0);
+        return derived;
+    }
+}
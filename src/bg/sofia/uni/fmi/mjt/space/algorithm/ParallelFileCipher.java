@@ -0,0 +1,359 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * Encrypts and decrypts files in parallel, split into fixed-size segments which are encrypted independently
+ * of each other with the segment operations of a SegmentCipher, so any segment can also be decrypted alone.
+ * The encrypted file starts with a plaintext header describing the layout of the segments, which is authenticated
+ * together with every segment. The segments of every file are encrypted under a key of their own, derived from
+ * the key of the cipher and a random salt in the header, so no nonce is ever reused under a key across files.
+ * The nonce of a segment is made of a random prefix chosen once per file, the index of the segment and a flag
+ * marking the last segment, so reordered, dropped or truncated segments fail authentication. As every segment
+ * but the last one has the same size, each segment is read from and written to its own position in the files,
+ * so batches of consecutive segments are processed on a fork-join pool and the segments still end up in order.
+ */
+public class ParallelFileCipher {
+    static final int MAGIC = 0x4D4A5046;
+    static final int FORMAT_VERSION = 2;
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+    static final int FIXED_HEADER_SIZE = 3 * Integer.BYTES + Long.BYTES;
+    static final int SALT_LENGTH = 32;
+
+    private static final int SEGMENT_INDEX_AND_FLAG_LENGTH = Integer.BYTES + Byte.BYTES;
+    private static final byte[] KEY_INFO = "MJT parallel file segments".getBytes(StandardCharsets.US_ASCII);
+    private static final byte LAST_SEGMENT = 1;
+    private static final byte NOT_LAST_SEGMENT = 0;
+    private static final int BATCHES_PER_THREAD = 4;
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_CIPHER_MESSAGE = "cipher is null";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_POOL_MESSAGE = "pool is null";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_SEGMENT_SIZE_MESSAGE =
+        "segment size is less than or equal to 0 or an encrypted segment would be larger than 2^31 - 1 bytes";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_SEGMENT_INDEX_MESSAGE =
+        "segment index is not the index of a segment of the file";
+    private static final String ENCRYPT_EXCEPTION_MESSAGE = "the file cannot be encrypted";
+    private static final String DECRYPT_EXCEPTION_MESSAGE = "the file cannot be decrypted";
+    private static final String NOT_ENCRYPTED_MESSAGE = "the file is not a segmented encrypted file";
+    private static final String UNSUPPORTED_VERSION_MESSAGE = "the format version %d is not supported";
+    private static final String TRUNCATED_MESSAGE = "the size of the encrypted file does not match its header";
+    private static final String TOO_MANY_SEGMENTS_MESSAGE = "the file has more than 2^31 - 1 segments";
+
+    private final SegmentCipher cipher;
+    private final ForkJoinPool pool;
+    private final int segmentSize;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Creates a cipher for files which encrypts them in segments of a megabyte.
+     *
+     * @param cipher the cipher the segments are encrypted with
+     * @param pool   the pool the segments are encrypted and decrypted on
+     * @throws IllegalArgumentException if cipher or pool is null
+     */
+    public ParallelFileCipher(SegmentCipher cipher, ForkJoinPool pool) {
+        this(cipher, pool, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a cipher for files which encrypts them in segments of the given size.
+     * The segment size of an encrypted file is stored in its header, so it is decrypted with any segment size.
+     *
+     * @param cipher      the cipher the segments are encrypted with
+     * @param pool        the pool the segments are encrypted and decrypted on
+     * @param segmentSize the number of bytes of the file in every segment but the last one
+     * @throws IllegalArgumentException if cipher or pool is null, segmentSize is less than or equal to 0
+     *                                  or an encrypted segment would be larger than Integer.MAX_VALUE bytes
+     */
+    public ParallelFileCipher(SegmentCipher cipher, ForkJoinPool pool, int segmentSize) {
+        if (cipher == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_CIPHER_MESSAGE);
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_POOL_MESSAGE);
+        }
+        if (!isValidSegmentSize(segmentSize, cipher)) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_SEGMENT_SIZE_MESSAGE);
+        }
+
+        this.cipher = cipher;
+        this.pool = pool;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Encrypts the input file into the output file, replacing it if it exists.
+     *
+     * @param input  the file to be encrypted
+     * @param output the file the encrypted segments are written into
+     * @throws CipherException if the file cannot be read, encrypted or written
+     */
+    public void encrypt(Path input, Path output) throws CipherException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                 StandardOpenOption.TRUNCATE_EXISTING)) {
+            byte[] salt = new byte[SALT_LENGTH];
+            random.nextBytes(salt);
+            byte[] noncePrefix = new byte[cipher.segmentNonceLength() - SEGMENT_INDEX_AND_FLAG_LENGTH];
+            random.nextBytes(noncePrefix);
+            Layout layout = Layout.of(segmentSize, in.size(), cipher.segmentOverhead(), salt, noncePrefix);
+            SegmentCipher fileCipher = fileCipher(layout);
+
+            writeFully(out, ByteBuffer.wrap(layout.header()), 0);
+            inParallel(layout, (segment, encryptedSegment, index) -> {
+                readFully(in, segment.limit(layout.segmentLength(index)), layout.position(index));
+                fileCipher.encryptSegment(segment.flip(), encryptedSegment, layout.nonce(index), layout.header());
+                writeFully(out, encryptedSegment.flip(), layout.encryptedPosition(index));
+            });
+        } catch (IOException e) {
+            throw new CipherException(ENCRYPT_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    /**
+     * Decrypts a file encrypted by encrypt into the output file, replacing it if it exists.
+     * If a segment cannot be decrypted or is not authentic, the output file is deleted.
+     *
+     * @param input  the encrypted file
+     * @param output the file the decrypted data is written into
+     * @throws CipherException if the file cannot be read, decrypted or written or it was modified
+     */
+    public void decrypt(Path input, Path output) throws CipherException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            Layout layout = readLayout(in);
+            decryptSegments(in, layout, fileCipher(layout), output);
+        } catch (IOException e) {
+            throw new CipherException(DECRYPT_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    private void decryptSegments(FileChannel in, Layout layout, SegmentCipher fileCipher, Path output)
+        throws IOException, CipherException {
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            inParallel(layout, (segment, encryptedSegment, index) -> {
+                decryptSegment(in, layout, fileCipher, index, encryptedSegment, segment);
+                writeFully(out, segment.flip(), layout.position(index));
+            });
+        } catch (IOException | CipherException e) {
+            try {
+                Files.deleteIfExists(output);
+            } catch (IOException deleteException) {
+                e.addSuppressed(deleteException);
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of segments of a file encrypted by encrypt, at least 1 as even an empty file has a segment.
+     *
+     * @param input the encrypted file
+     * @throws CipherException if the file cannot be read or it is not an encrypted file
+     */
+    public int segmentsCount(Path input) throws CipherException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            return readLayout(in).segmentsCount();
+        } catch (IOException e) {
+            throw new CipherException(DECRYPT_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    /**
+     * Decrypts a single segment of a file encrypted by encrypt, without reading any other segment.
+     * The segment holds the bytes of the file from segmentIndex * segment size on.
+     *
+     * @param input        the encrypted file
+     * @param segmentIndex the index of the segment, from 0 to segmentsCount(input) - 1
+     * @throws IllegalArgumentException if segmentIndex is not the index of a segment of the file
+     * @throws CipherException          if the segment cannot be read or decrypted or it was modified
+     */
+    public byte[] decryptSegment(Path input, int segmentIndex) throws CipherException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            Layout layout = readLayout(in);
+            if (segmentIndex < 0 || segmentIndex >= layout.segmentsCount()) {
+                throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_SEGMENT_INDEX_MESSAGE);
+            }
+
+            ByteBuffer segment = ByteBuffer.allocate(layout.segmentLength(segmentIndex));
+            ByteBuffer encryptedSegment = ByteBuffer.allocate(segment.capacity() + cipher.segmentOverhead());
+            decryptSegment(in, layout, fileCipher(layout), segmentIndex, encryptedSegment, segment);
+
+            return segment.array();
+        } catch (IOException e) {
+            throw new CipherException(DECRYPT_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    private SegmentCipher fileCipher(Layout layout) throws CipherException {
+        return cipher.deriveSegmentCipher(layout.salt(), KEY_INFO);
+    }
+
+    private void decryptSegment(FileChannel in, Layout layout, SegmentCipher fileCipher, int index,
+                                ByteBuffer encryptedSegment, ByteBuffer segment) throws IOException, CipherException {
+        encryptedSegment.limit(layout.segmentLength(index) + cipher.segmentOverhead());
+        readFully(in, encryptedSegment, layout.encryptedPosition(index));
+        fileCipher.decryptSegment(encryptedSegment.flip(), segment, layout.nonce(index), layout.header());
+    }
+
+    private static boolean isValidSegmentSize(int segmentSize, SegmentCipher cipher) {
+        return segmentSize > 0 && segmentSize <= Integer.MAX_VALUE - cipher.segmentOverhead();
+    }
+
+    private Layout readLayout(FileChannel in) throws IOException, CipherException {
+        int noncePrefixLength = cipher.segmentNonceLength() - SEGMENT_INDEX_AND_FLAG_LENGTH;
+        if (in.size() < FIXED_HEADER_SIZE + SALT_LENGTH + noncePrefixLength) {
+            throw new CipherException(NOT_ENCRYPTED_MESSAGE);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE + SALT_LENGTH + noncePrefixLength);
+        readFully(in, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new CipherException(NOT_ENCRYPTED_MESSAGE);
+        }
+
+        int version = header.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new CipherException(String.format(UNSUPPORTED_VERSION_MESSAGE, version));
+        }
+
+        int fileSegmentSize = header.getInt();
+        long length = header.getLong();
+        byte[] salt = new byte[SALT_LENGTH];
+        header.get(salt);
+        byte[] noncePrefix = new byte[noncePrefixLength];
+        header.get(noncePrefix);
+        // the header is not authenticated yet, so the segment size must not be trusted with allocations
+        if (!isValidSegmentSize(fileSegmentSize, cipher) || length < 0) {
+            throw new CipherException(NOT_ENCRYPTED_MESSAGE);
+        }
+
+        Layout layout = Layout.of(fileSegmentSize, length, cipher.segmentOverhead(), salt, noncePrefix);
+        if (in.size() != layout.encryptedSize()) {
+            throw new CipherException(TRUNCATED_MESSAGE);
+        }
+
+        return layout;
+    }
+
+    /**
+     * Processes the segments in batches of consecutive segments, each batch with its own pair of buffers,
+     * and stops at the first segment which fails.
+     */
+    private void inParallel(Layout layout, SegmentTask task) throws IOException, CipherException {
+        int segmentsCount = layout.segmentsCount();
+        int batchesCount = Math.min(segmentsCount, pool.getParallelism() * BATCHES_PER_THREAD);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        pool.submit(() -> IntStream.range(0, batchesCount).parallel().forEach(batch -> {
+            // the first segment is the longest one, and shorter than the segment size if it is the only one
+            ByteBuffer segment = ByteBuffer.allocateDirect(layout.segmentLength(0));
+            ByteBuffer encryptedSegment = ByteBuffer.allocateDirect(segment.capacity() + cipher.segmentOverhead());
+            int from = (int) ((long) segmentsCount * batch / batchesCount);
+            int to = (int) ((long) segmentsCount * (batch + 1) / batchesCount);
+
+            for (int index = from; index < to && failure.get() == null; index++) {
+                try {
+                    task.process(segment.clear(), encryptedSegment.clear(), index);
+                } catch (IOException | CipherException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        })).join();
+
+        if (failure.get() instanceof IOException e) {
+            throw e;
+        }
+        if (failure.get() instanceof CipherException e) {
+            throw e;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long next = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, next);
+            if (read == -1) {
+                throw new EOFException(TRUNCATED_MESSAGE);
+            }
+
+            next += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long next = position;
+        while (buffer.hasRemaining()) {
+            next += channel.write(buffer, next);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SegmentTask {
+        void process(ByteBuffer segment, ByteBuffer encryptedSegment, int index) throws IOException, CipherException;
+    }
+
+    /**
+     * The layout of the segments of a file, in which every segment but the last one is full and the last one
+     * is empty only if the whole file is.
+     */
+    private record Layout(int segmentSize, long length, int segmentOverhead, byte[] salt, byte[] noncePrefix,
+                          int segmentsCount, byte[] header) {
+        private static Layout of(int segmentSize, long length, int segmentOverhead, byte[] salt, byte[] noncePrefix)
+            throws CipherException {
+            long segmentsCount = Math.max(1, (length - 1) / segmentSize + 1);
+            if (segmentsCount > Integer.MAX_VALUE) {
+                throw new CipherException(TOO_MANY_SEGMENTS_MESSAGE);
+            }
+
+            byte[] header = ByteBuffer.allocate(FIXED_HEADER_SIZE + salt.length + noncePrefix.length)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(segmentSize)
+                .putLong(length)
+                .put(salt)
+                .put(noncePrefix)
+                .array();
+
+            return new Layout(segmentSize, length, segmentOverhead, salt, noncePrefix, (int) segmentsCount, header);
+        }
+
+        private long position(int index) {
+            return (long) index * segmentSize;
+        }
+
+        private int segmentLength(int index) {
+            return (int) Math.min(segmentSize, length - position(index));
+        }
+
+        private long encryptedPosition(int index) {
+            return header.length + position(index) + (long) index * segmentOverhead;
+        }
+
+        private long encryptedSize() {
+            return header.length + length + (long) segmentsCount * segmentOverhead;
+        }
+
+        private byte[] nonce(int index) {
+            return ByteBuffer.allocate(noncePrefix.length + SEGMENT_INDEX_AND_FLAG_LENGTH)
+                .put(noncePrefix)
+                .putInt(index)
+                .put(index == segmentsCount - 1 ? LAST_SEGMENT : NOT_LAST_SEGMENT)
+                .array();
+        }
+    }
+}
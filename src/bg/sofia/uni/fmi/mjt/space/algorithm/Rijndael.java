@@ -3,65 +3,445 @@ package bg.sofia.uni.fmi.mjt.space.algorithm;
 import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
 
 import javax.crypto.Cipher;
-import javax.crypto.CipherOutputStream;
-import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Arrays;
+import java.util.List;
 
-public class Rijndael implements SymmetricBlockCipher {
+/**
+ * AES encryption of streams, channels and of the segments of segmented streams, in ECB mode by default
+ * or in one of the other modes of CipherMode.
+ * Initialized ciphers and the direct buffers channels are encrypted through are kept in bounded pools and reused
+ * by later calls from any thread, as looking up and initializing a new cipher or allocating a new direct buffer
+ * costs much more than encrypting a short value.
+ */
+public class Rijndael implements SymmetricBlockCipher, BatchCipher, SegmentCipher {
     private static final String CIPHER_EXCEPTION_MESSAGE = "encrypt operation cannot be completed successfully";
     private static final int KILOBYTE = 1024;
-    private static final String ENCRYPTION_ALGORITHM = "AES";
+    private static final String SEGMENT_CIPHER_EXCEPTION_MESSAGE =
+        "the segment cannot be encrypted or decrypted or it is not authentic";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_MODE_MESSAGE = "mode is null";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_POSITION_MESSAGE = "position is negative";
+    private static final String UNSUPPORTED_OPERATION_EXCEPTION_SEEK_MESSAGE =
+        "only data encrypted in CTR mode can be decrypted from a position";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_PAYLOADS_MESSAGE = "payloads or one of them is null";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_OUTPUT_MESSAGE =
+        "output is null or has too few bytes remaining for the encrypted payloads";
+    private static final String IO_EXCEPTION_IV_MESSAGE = "the encrypted data is shorter than its IV";
+    private static final String KEY_DERIVATION_EXCEPTION_MESSAGE = "a key cannot be derived from the secret key";
+    private static final String KEY_ALGORITHM = "AES";
+    private static final String SEGMENT_ENCRYPTION_ALGORITHM = "AES/GCM/NoPadding";
+    private static final int GCM_TAG_LENGTH = 16;
+    private static final int GCM_NONCE_LENGTH = 12;
+    private static final int AES_BLOCK_SIZE = 16;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int CHANNEL_BUFFER_SIZE = 1 << 20;
+    private static final int POOLED_CIPHERS_PER_PROCESSOR = 2;
     private final SecretKey secretKey;
+    private final CipherMode mode;
+    private final SecureRandom random = new SecureRandom();
+    private final CipherPool encryptCiphers;
+    private final CipherPool decryptCiphers;
+    private final CipherPool segmentCiphers;
+    private final BufferPool channelBuffers;
 
     public Rijndael(SecretKey secretKey) {
+        this(secretKey, CipherMode.ECB);
+    }
+
+    /**
+     * Creates a cipher which encrypts streams and channels in the given mode.
+     * Segments are always encrypted in GCM mode.
+     *
+     * @param secretKey the key of the cipher
+     * @param mode      the mode of the cipher
+     * @throws IllegalArgumentException if mode is null
+     */
+    public Rijndael(SecretKey secretKey, CipherMode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_MODE_MESSAGE);
+        }
+
         this.secretKey = secretKey;
+        this.mode = mode;
+
+        int poolCapacity = POOLED_CIPHERS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors();
+        encryptCiphers = new CipherPool(mode.transformation(), initializer(Cipher.ENCRYPT_MODE), poolCapacity);
+        decryptCiphers = new CipherPool(mode.transformation(), initializer(Cipher.DECRYPT_MODE), poolCapacity);
+        // segment ciphers are initialized with the nonce of every segment, so new ones are left uninitialized
+        segmentCiphers = new CipherPool(SEGMENT_ENCRYPTION_ALGORITHM, c -> { }, poolCapacity);
+        // a block more than is read at once, as much as a single update or doFinal writes but in GCM decryption
+        channelBuffers = new BufferPool(CHANNEL_BUFFER_SIZE + AES_BLOCK_SIZE, poolCapacity);
+    }
+
+    // ciphers of modes with an IV are initialized with a new IV on every use, so new ones are left uninitialized
+    private CipherPool.Initializer initializer(int opmode) {
+        return mode.ivLength() == 0 ? c -> c.init(opmode, secretKey) : c -> { };
+    }
+
+    public CipherMode mode() {
+        return mode;
     }
 
     @Override
     public void encrypt(InputStream inputStream, OutputStream outputStream) throws CipherException {
         try {
             encryptData(inputStream, outputStream);
-        } catch (NoSuchPaddingException | NoSuchAlgorithmException | InvalidKeyException | IOException e) {
+        } catch (GeneralSecurityException | IOException e) {
             throw new CipherException(CIPHER_EXCEPTION_MESSAGE, e);
         }
     }
 
     private void encryptData(InputStream inputStream, OutputStream outputStream)
-        throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidKeyException, IOException {
-        manipulateData(inputStream, outputStream, Cipher.ENCRYPT_MODE);
+        throws GeneralSecurityException, IOException {
+        manipulateData(inputStream, outputStream, Cipher.ENCRYPT_MODE, encryptCiphers);
     }
 
     @Override
     public void decrypt(InputStream inputStream, OutputStream outputStream) throws CipherException {
         try {
             decryptData(inputStream, outputStream);
-        } catch (NoSuchPaddingException | NoSuchAlgorithmException | InvalidKeyException | IOException e) {
+        } catch (GeneralSecurityException | IOException e) {
             throw new CipherException(CIPHER_EXCEPTION_MESSAGE, e);
         }
     }
 
     private void decryptData(InputStream inputStream, OutputStream outputStream)
-        throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidKeyException, IOException {
-        manipulateData(inputStream, outputStream, Cipher.DECRYPT_MODE);
+        throws GeneralSecurityException, IOException {
+        manipulateData(inputStream, outputStream, Cipher.DECRYPT_MODE, decryptCiphers);
     }
 
-    private void manipulateData(InputStream inputStream, OutputStream outputStream, int mode)
-        throws NoSuchPaddingException, NoSuchAlgorithmException, InvalidKeyException, IOException {
-        Cipher cipher = Cipher.getInstance(ENCRYPTION_ALGORITHM);
-        cipher.init(mode, secretKey);
+    private void manipulateData(InputStream inputStream, OutputStream outputStream, int opmode,
+                                CipherPool ciphers) throws GeneralSecurityException, IOException {
+        Cipher cipher = ciphers.acquire();
+
+        try (outputStream) {
+            if (mode.ivLength() > 0) {
+                byte[] iv = opmode == Cipher.ENCRYPT_MODE ? newIv() : readIv(inputStream);
+                if (opmode == Cipher.ENCRYPT_MODE) {
+                    outputStream.write(iv);
+                }
+                cipher.init(opmode, secretKey, parameters(iv));
+            }
 
-        try (var outputStreamCipher = new CipherOutputStream(outputStream, cipher)) {
             byte[] buffer = new byte[KILOBYTE];
             int bytesRead;
 
             while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStreamCipher.write(buffer, 0, bytesRead);
+                byte[] output = cipher.update(buffer, 0, bytesRead);
+                if (output != null) {
+                    outputStream.write(output);
+                }
             }
+            outputStream.write(cipher.doFinal());
+
+            // doFinal reset the cipher to its initialized state, so it can be reused
+            ciphers.release(cipher);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The data is passed to the cipher in pooled direct buffers of a megabyte, so it is never copied through the heap.
+     */
+    @Override
+    public void encrypt(ReadableByteChannel input, WritableByteChannel output) throws CipherException {
+        try {
+            manipulateChannel(input, output, Cipher.ENCRYPT_MODE, encryptCiphers);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new CipherException(CIPHER_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The data is passed to the cipher in pooled direct buffers of a megabyte, so it is never copied through the heap.
+     * As GCM decryption releases no data before all of it is authenticated, in GCM mode all the data is buffered
+     * until it is decrypted, so data of gigabytes should rather be encrypted in segments or in CTR mode.
+     */
+    @Override
+    public void decrypt(ReadableByteChannel input, WritableByteChannel output) throws CipherException {
+        try {
+            manipulateChannel(input, output, Cipher.DECRYPT_MODE, decryptCiphers);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new CipherException(CIPHER_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    private void manipulateChannel(ReadableByteChannel input, WritableByteChannel output, int opmode,
+                                   CipherPool ciphers) throws GeneralSecurityException, IOException {
+        Cipher cipher = ciphers.acquire();
+        ByteBuffer inputBuffer = channelBuffers.acquire().limit(CHANNEL_BUFFER_SIZE);
+        ByteBuffer outputBuffer = channelBuffers.acquire();
+
+        if (mode.ivLength() > 0) {
+            byte[] iv = opmode == Cipher.ENCRYPT_MODE ? newIv() : readIv(input);
+            if (opmode == Cipher.ENCRYPT_MODE) {
+                writeFully(output, ByteBuffer.wrap(iv));
+            }
+            cipher.init(opmode, secretKey, parameters(iv));
+        }
+
+        while (input.read(inputBuffer) != -1) {
+            inputBuffer.flip();
+            outputBuffer.clear();
+            cipher.update(inputBuffer, outputBuffer);
+            writeFully(output, outputBuffer.flip());
+            inputBuffer.clear().limit(CHANNEL_BUFFER_SIZE);
+        }
+
+        inputBuffer.flip();
+        int finalOutputSize = cipher.getOutputSize(inputBuffer.remaining());
+        // only GCM decryption releases more than a block beyond its input, all the data at once, which is
+        // put into a heap buffer of its own rather than a direct one allocated for a single use
+        ByteBuffer finalBuffer = finalOutputSize > outputBuffer.capacity() ?
+            ByteBuffer.allocate(finalOutputSize) : outputBuffer.clear();
+        cipher.doFinal(inputBuffer, finalBuffer);
+        writeFully(output, finalBuffer.flip());
+
+        ciphers.release(cipher);
+        channelBuffers.release(inputBuffer);
+        channelBuffers.release(outputBuffer);
+    }
+
+    /**
+     * {@inheritDoc}
+     * A single cipher is used for all the payloads and the IVs of all of them are generated at once.
+     */
+    @Override
+    public int[] encrypt(List<byte[]> payloads, ByteBuffer output) throws CipherException {
+        if (payloads == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_PAYLOADS_MESSAGE);
+        }
+
+        long encryptedLength = 0;
+        for (byte[] payload : payloads) {
+            if (payload == null) {
+                throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_PAYLOADS_MESSAGE);
+            }
+
+            encryptedLength += encryptedLength(payload.length);
+        }
+        if (output == null || encryptedLength > output.remaining()) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_OUTPUT_MESSAGE);
+        }
+
+        try {
+            return encryptPayloads(payloads, output);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException(CIPHER_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    private int[] encryptPayloads(List<byte[]> payloads, ByteBuffer output) throws GeneralSecurityException {
+        Cipher cipher = encryptCiphers.acquire();
+        byte[] ivs = new byte[payloads.size() * mode.ivLength()];
+        random.nextBytes(ivs);
+
+        int[] encryptedLengths = new int[payloads.size()];
+        for (int i = 0; i < encryptedLengths.length; i++) {
+            int start = output.position();
+            if (mode.ivLength() > 0) {
+                output.put(ivs, i * mode.ivLength(), mode.ivLength());
+                cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameters(ivs, i * mode.ivLength()));
+            }
+
+            cipher.doFinal(ByteBuffer.wrap(payloads.get(i)), output);
+            encryptedLengths[i] = output.position() - start;
+        }
+
+        encryptCiphers.release(cipher);
+        return encryptedLengths;
+    }
+
+    @Override
+    public int encryptedLength(int length) {
+        return switch (mode) {
+            // PKCS5 padding adds from 1 to a whole block of bytes
+            case ECB -> (length / AES_BLOCK_SIZE + 1) * AES_BLOCK_SIZE;
+            case GCM -> mode.ivLength() + length + GCM_TAG_LENGTH;
+            case CTR -> mode.ivLength() + length;
+        };
+    }
+
+    /**
+     * Decrypts data encrypted in CTR mode from the given position of the decrypted data on, without decrypting
+     * what precedes it, until output is full or the data ends.
+     *
+     * @param input    the encrypted data, starting with its IV
+     * @param position the position in the decrypted data the decryption starts from
+     * @param output   the buffer the decrypted data is put into
+     * @return the number of decrypted bytes
+     * @throws IllegalArgumentException      if position is negative
+     * @throws UnsupportedOperationException if the mode of the cipher is not CTR
+     * @throws CipherException               if the decrypt operation cannot be completed successfully
+     */
+    public int decrypt(FileChannel input, long position, ByteBuffer output) throws CipherException {
+        if (position < 0) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_POSITION_MESSAGE);
+        }
+        if (mode != CipherMode.CTR) {
+            throw new UnsupportedOperationException(UNSUPPORTED_OPERATION_EXCEPTION_SEEK_MESSAGE);
+        }
+
+        try {
+            return decryptFrom(input, position, output);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new CipherException(CIPHER_EXCEPTION_MESSAGE, e);
+        }
+    }
+
+    private int decryptFrom(FileChannel input, long position, ByteBuffer output)
+        throws GeneralSecurityException, IOException {
+        ByteBuffer iv = ByteBuffer.allocate(mode.ivLength());
+        while (iv.hasRemaining()) {
+            if (input.read(iv, iv.position()) == -1) {
+                throw new IOException(IO_EXCEPTION_IV_MESSAGE);
+            }
+        }
+
+        // the counter of a block is the IV plus the index of the block, as a big-endian number
+        byte[] counter = iv.array();
+        long carry = position / AES_BLOCK_SIZE;
+        for (int i = counter.length - 1; i >= 0 && carry != 0; i--) {
+            int sum = (counter[i] & BYTE_MASK) + (int) (carry & BYTE_MASK);
+            counter[i] = (byte) sum;
+            carry = (carry >>> Byte.SIZE) + (sum >>> Byte.SIZE);
+        }
+
+        Cipher cipher = decryptCiphers.acquire();
+        cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(counter));
+        cipher.update(new byte[(int) (position % AES_BLOCK_SIZE)]);
+
+        ByteBuffer inputBuffer = channelBuffers.acquire();
+        long inputPosition = mode.ivLength() + position;
+        int decrypted = 0;
+        while (output.hasRemaining()) {
+            inputBuffer.clear().limit(Math.min(CHANNEL_BUFFER_SIZE, output.remaining()));
+            if (input.read(inputBuffer, inputPosition + decrypted) == -1) {
+                break;
+            }
+
+            decrypted += cipher.update(inputBuffer.flip(), output);
+        }
+
+        // the cipher is initialized again by its next user, so it can be reused without doFinal
+        decryptCiphers.release(cipher);
+        channelBuffers.release(inputBuffer);
+        return decrypted;
+    }
+
+    private byte[] newIv() {
+        byte[] iv = new byte[mode.ivLength()];
+        random.nextBytes(iv);
+
+        return iv;
+    }
+
+    private byte[] readIv(InputStream inputStream) throws IOException {
+        byte[] iv = inputStream.readNBytes(mode.ivLength());
+        if (iv.length < mode.ivLength()) {
+            throw new IOException(IO_EXCEPTION_IV_MESSAGE);
+        }
+
+        return iv;
+    }
+
+    private byte[] readIv(ReadableByteChannel input) throws IOException {
+        ByteBuffer iv = ByteBuffer.allocate(mode.ivLength());
+        while (iv.hasRemaining()) {
+            if (input.read(iv) == -1) {
+                throw new IOException(IO_EXCEPTION_IV_MESSAGE);
+            }
+        }
+
+        return iv.array();
+    }
+
+    private AlgorithmParameterSpec parameters(byte[] iv) {
+        return parameters(iv, 0);
+    }
+
+    private AlgorithmParameterSpec parameters(byte[] ivs, int offset) {
+        if (mode == CipherMode.GCM) {
+            return new GCMParameterSpec(Byte.SIZE * GCM_TAG_LENGTH, ivs, offset, mode.ivLength());
+        }
+
+        return new IvParameterSpec(ivs, offset, mode.ivLength());
+    }
+
+    private static void writeFully(WritableByteChannel output, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+    }
+
+    @Override
+    public void encryptSegment(ByteBuffer input, ByteBuffer output, byte[] nonce, byte[] associatedData)
+        throws CipherException {
+        manipulateSegment(input, output, nonce, associatedData, Cipher.ENCRYPT_MODE);
+    }
+
+    @Override
+    public void decryptSegment(ByteBuffer input, ByteBuffer output, byte[] nonce, byte[] associatedData)
+        throws CipherException {
+        manipulateSegment(input, output, nonce, associatedData, Cipher.DECRYPT_MODE);
+    }
+
+    @Override
+    public int segmentOverhead() {
+        return GCM_TAG_LENGTH;
+    }
+
+    @Override
+    public int segmentNonceLength() {
+        return GCM_NONCE_LENGTH;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is derived with HKDF-SHA256 and has the length of the secret key, which must be exportable.
+     */
+    @Override
+    public SegmentCipher deriveSegmentCipher(byte[] salt, byte[] info) throws CipherException {
+        byte[] inputKey = secretKey.getEncoded();
+        if (inputKey == null) {
+            throw new CipherException(KEY_DERIVATION_EXCEPTION_MESSAGE);
+        }
+
+        try {
+            byte[] derivedKey = Hkdf.derive(inputKey, salt, info, inputKey.length);
+            return new Rijndael(new SecretKeySpec(derivedKey, KEY_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new CipherException(KEY_DERIVATION_EXCEPTION_MESSAGE, e);
+        } finally {
+            Arrays.fill(inputKey, (byte) 0);
+        }
+    }
+
+    private void manipulateSegment(ByteBuffer input, ByteBuffer output, byte[] nonce, byte[] associatedData,
+                                   int opmode) throws CipherException {
+        try {
+            Cipher cipher = segmentCiphers.acquire();
+            cipher.init(opmode, secretKey, new GCMParameterSpec(Byte.SIZE * GCM_TAG_LENGTH, nonce));
+            cipher.updateAAD(associatedData);
+            cipher.doFinal(input, output);
+
+            segmentCiphers.release(cipher);
+        } catch (GeneralSecurityException e) {
+            throw new CipherException(SEGMENT_CIPHER_EXCEPTION_MESSAGE, e);
         }
     }
 }
@@ -0,0 +1,56 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encrypts and authenticates the segments of a segmented stream, each of them on its own, so that segments can be
+ * decrypted independently of each other and in any order.
+ */
+public interface SegmentCipher {
+    /**
+     * Encrypts and authenticates one segment of a segmented stream
+     *
+     * @param input the buffer whose remaining bytes are the segment
+     * @param output the buffer the encrypted segment, segmentOverhead() bytes longer than the segment, is put into
+     * @param nonce the nonce of the segment, segmentNonceLength() bytes long and never reused with the same key
+     * @param associatedData data which is authenticated together with the segment but not encrypted
+     * @throws CipherException if the encrypt operation cannot be completed successfully
+     */
+    void encryptSegment(ByteBuffer input, ByteBuffer output, byte[] nonce, byte[] associatedData)
+        throws CipherException;
+
+    /**
+     * Decrypts one segment encrypted by encryptSegment and verifies that neither the segment,
+     * nor its nonce, nor its associated data were modified
+     *
+     * @param input the buffer whose remaining bytes are the encrypted segment
+     * @param output the buffer the decrypted segment is put into
+     * @param nonce the nonce the segment was encrypted with
+     * @param associatedData the data the segment was authenticated together with
+     * @throws CipherException if the decrypt operation cannot be completed successfully or the segment is not authentic
+     */
+    void decryptSegment(ByteBuffer input, ByteBuffer output, byte[] nonce, byte[] associatedData)
+        throws CipherException;
+
+    /**
+     * Returns the number of bytes encryptSegment adds to every segment
+     */
+    int segmentOverhead();
+
+    /**
+     * Returns the length of the nonces of the segments
+     */
+    int segmentNonceLength();
+
+    /**
+     * Returns a cipher of segments whose key is derived from the key of this one, the salt and the info,
+     * so that streams encrypted under salts of their own never share a key and their nonces can never collide
+     *
+     * @param salt a random salt of the stream, stored with it
+     * @param info the context the key is derived for, so that keys derived for different uses differ
+     * @throws CipherException if the key cannot be derived
+     */
+    SegmentCipher deriveSegmentCipher(byte[] salt, byte[] info) throws CipherException;
+}
@@ -2,8 +2,12 @@ package bg.sofia.uni.fmi.mjt.space.algorithm;
 
 import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 public interface SymmetricBlockCipher {
     /**
@@ -23,4 +27,44 @@ public interface SymmetricBlockCipher {
      * @throws CipherException if the encrypt/decrypt operation cannot be completed successfully
      */
     void decrypt(InputStream inputStream, OutputStream outputStream) throws CipherException;
+
+    /**
+     * Encrypts the data from input until its end and writes it into output, which is left open.
+     *
+     * @implSpec the channels are adapted to streams and passed to the stream encrypt
+     * @param input the channel where the data is read from
+     * @param output the channel where the encrypted result is written into
+     * @throws CipherException if the encrypt operation cannot be completed successfully
+     */
+    default void encrypt(ReadableByteChannel input, WritableByteChannel output) throws CipherException {
+        encrypt(Channels.newInputStream(input), unclosable(output));
+    }
+
+    /**
+     * Decrypts the data from input until its end and writes it into output, which is left open.
+     *
+     * @implSpec the channels are adapted to streams and passed to the stream decrypt
+     * @param input the channel where the encrypted data is read from
+     * @param output the channel where the decrypted result is written into
+     * @throws CipherException if the decrypt operation cannot be completed successfully
+     */
+    default void decrypt(ReadableByteChannel input, WritableByteChannel output) throws CipherException {
+        decrypt(Channels.newInputStream(input), unclosable(output));
+    }
+
+    // the stream operations may close their output stream, which must not close the channel
+    private static OutputStream unclosable(WritableByteChannel output) {
+        OutputStream stream = Channels.newOutputStream(output);
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                stream.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                stream.write(b, off, len);
+            }
+        };
+    }
 }
@@ -0,0 +1,22 @@
+package bg.sofia.uni.fmi.mjt.space.cache;
+
+/**
+ * Statistics of a cache at one moment, counted since the cache was created.
+ *
+ * @param hitCount          the number of lookups which found a cached result
+ * @param missCount         the number of lookups which had to compute the result
+ * @param evictionCount     the number of results evicted to keep the cache within its bounds
+ * @param invalidationCount the number of times all results were dropped because the data changed
+ * @param size              the number of cached results
+ * @param weight            the total weight of the cached results
+ */
+public record CacheStats(long hitCount, long missCount, long evictionCount, long invalidationCount, int size,
+                         long weight) {
+    /**
+     * Returns the share of the lookups which found a cached result, or 0 if there were no lookups.
+     */
+    public double hitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+    }
+}
@@ -0,0 +1,314 @@
+package bg.sofia.uni.fmi.mjt.space.cache;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.SpaceScannerAPI;
+import bg.sofia.uni.fmi.mjt.space.TimeFrame;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Decorates a SpaceScannerAPI with a cache of the results of its queries, keyed on the query and its arguments.
+ * The cache keeps at most maximumSize results with a total weight of at most maximumWeight and evicts the least
+ * recently used results first. The weight of a result is the number of elements it holds, counting the elements
+ * of the collections in a map too, so that maximumWeight bounds the memory held by the cache
+ * and not only the number of its results.
+ * All results are dropped as soon as the version of the data of the delegate changes, and a result is cached
+ * only if the version did not change while it was computed, so the cache never answers with outdated data.
+ * Results are returned unmodifiable. The queries which write their results to a stream are not cached.
+ * The cache is thread-safe and its lock is held only to look results up and to store them,
+ * never while a result is computed.
+ */
+public class CachingSpaceScanner implements SpaceScannerAPI {
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_DELEGATE_MESSAGE = "delegate or dataVersion is null";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_BOUNDS_MESSAGE =
+        "maximumSize or maximumWeight is less than or equal to 0";
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final SpaceScannerAPI delegate;
+    private final LongSupplier dataVersion;
+    private final int maximumSize;
+    private final long maximumWeight;
+    private final Object lock = new Object();
+
+    // all fields below are guarded by lock, entries are in access order, the least recently used first
+    private final Map<List<Object>, Entry> entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private long version;
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+
+    private enum Query {
+        ALL_MISSIONS,
+        ALL_MISSIONS_WITH_STATUS,
+        COMPANY_WITH_MOST_SUCCESSFUL_MISSIONS,
+        MISSIONS_PER_COUNTRY,
+        TOP_N_LEAST_EXPENSIVE_MISSIONS,
+        MOST_DESIRED_LOCATION_PER_COMPANY,
+        LOCATION_WITH_MOST_SUCCESSFUL_MISSIONS_PER_COMPANY,
+        ALL_ROCKETS,
+        TOP_N_TALLEST_ROCKETS,
+        WIKI_PAGE_FOR_ROCKET,
+        WIKI_PAGES_FOR_ROCKETS_USED_IN_MOST_EXPENSIVE_MISSIONS
+    }
+
+    private record Entry(Object result, long weight) {
+    }
+
+    /**
+     * Caches the results of a scanner, dropping them whenever missions are appended to it.
+     *
+     * @param scanner       the scanner whose results are cached
+     * @param maximumSize   the maximal number of cached results
+     * @param maximumWeight the maximal total weight of the cached results
+     * @throws IllegalArgumentException if scanner is null or any of the bounds is less than or equal to 0
+     */
+    public CachingSpaceScanner(MJTSpaceScanner scanner, int maximumSize, long maximumWeight) {
+        this(scanner, scanner == null ? null : scanner::epoch, maximumSize, maximumWeight);
+    }
+
+    /**
+     * Caches the results of any implementation of SpaceScannerAPI.
+     *
+     * @param delegate      the scanner whose results are cached
+     * @param dataVersion   returns the version of the data of the delegate, which must grow whenever the data changes
+     * @param maximumSize   the maximal number of cached results
+     * @param maximumWeight the maximal total weight of the cached results
+     * @throws IllegalArgumentException if delegate or dataVersion is null or any of the bounds is less than
+     *                                  or equal to 0
+     */
+    public CachingSpaceScanner(SpaceScannerAPI delegate, LongSupplier dataVersion, int maximumSize,
+                               long maximumWeight) {
+        if (delegate == null || dataVersion == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_DELEGATE_MESSAGE);
+        }
+        if (maximumSize <= 0 || maximumWeight <= 0) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_BOUNDS_MESSAGE);
+        }
+
+        this.delegate = delegate;
+        this.dataVersion = dataVersion;
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.version = dataVersion.getAsLong();
+    }
+
+    /**
+     * Returns the statistics of the cache.
+     */
+    public CacheStats stats() {
+        synchronized (lock) {
+            return new CacheStats(hitCount, missCount, evictionCount, invalidationCount, entries.size(), weight);
+        }
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    public void invalidate() {
+        synchronized (lock) {
+            dropAll();
+        }
+    }
+
+    @Override
+    public Collection<Mission> getAllMissions() {
+        return cached(delegate::getAllMissions, CachingSpaceScanner::unmodifiableCollection, Query.ALL_MISSIONS);
+    }
+
+    @Override
+    public Collection<Mission> getAllMissions(MissionStatus missionStatus) {
+        return cached(() -> delegate.getAllMissions(missionStatus), CachingSpaceScanner::unmodifiableCollection,
+            Query.ALL_MISSIONS_WITH_STATUS, missionStatus);
+    }
+
+    @Override
+    public String getCompanyWithMostSuccessfulMissions(LocalDate from, LocalDate to) {
+        return cached(() -> delegate.getCompanyWithMostSuccessfulMissions(from, to), UnaryOperator.identity(),
+            Query.COMPANY_WITH_MOST_SUCCESSFUL_MISSIONS, from, to);
+    }
+
+    @Override
+    public Map<String, Collection<Mission>> getMissionsPerCountry() {
+        return cached(delegate::getMissionsPerCountry, CachingSpaceScanner::unmodifiableMissionsPerKey,
+            Query.MISSIONS_PER_COUNTRY);
+    }
+
+    @Override
+    public List<Mission> getTopNLeastExpensiveMissions(int n, MissionStatus missionStatus, RocketStatus rocketStatus) {
+        return cached(() -> delegate.getTopNLeastExpensiveMissions(n, missionStatus, rocketStatus),
+            Collections::unmodifiableList, Query.TOP_N_LEAST_EXPENSIVE_MISSIONS, n, missionStatus, rocketStatus);
+    }
+
+    @Override
+    public Map<String, String> getMostDesiredLocationForMissionsPerCompany() {
+        return cached(delegate::getMostDesiredLocationForMissionsPerCompany, Collections::unmodifiableMap,
+            Query.MOST_DESIRED_LOCATION_PER_COMPANY);
+    }
+
+    @Override
+    public Map<String, String> getLocationWithMostSuccessfulMissionsPerCompany(LocalDate from, LocalDate to) {
+        return cached(() -> delegate.getLocationWithMostSuccessfulMissionsPerCompany(from, to),
+            Collections::unmodifiableMap, Query.LOCATION_WITH_MOST_SUCCESSFUL_MISSIONS_PER_COMPANY, from, to);
+    }
+
+    @Override
+    public Collection<Rocket> getAllRockets() {
+        return cached(delegate::getAllRockets, CachingSpaceScanner::unmodifiableCollection, Query.ALL_ROCKETS);
+    }
+
+    @Override
+    public List<Rocket> getTopNTallestRockets(int n) {
+        return cached(() -> delegate.getTopNTallestRockets(n), Collections::unmodifiableList,
+            Query.TOP_N_TALLEST_ROCKETS, n);
+    }
+
+    @Override
+    public Map<String, Optional<String>> getWikiPageForRocket() {
+        return cached(delegate::getWikiPageForRocket, Collections::unmodifiableMap, Query.WIKI_PAGE_FOR_ROCKET);
+    }
+
+    @Override
+    public List<String> getWikiPagesForRocketsUsedInMostExpensiveMissions(int n, MissionStatus missionStatus,
+                                                                          RocketStatus rocketStatus) {
+        return cached(() -> delegate.getWikiPagesForRocketsUsedInMostExpensiveMissions(n, missionStatus,
+                rocketStatus), Collections::unmodifiableList,
+            Query.WIKI_PAGES_FOR_ROCKETS_USED_IN_MOST_EXPENSIVE_MISSIONS, n, missionStatus, rocketStatus);
+    }
+
+    @Override
+    public void saveMostReliableRocket(OutputStream outputStream, LocalDate from, LocalDate to) throws CipherException {
+        delegate.saveMostReliableRocket(outputStream, from, to);
+    }
+
+    @Override
+    public void saveMostReliableRockets(OutputStream outputStream, List<TimeFrame> timeFrames)
+        throws CipherException {
+        delegate.saveMostReliableRockets(outputStream, timeFrames);
+    }
+
+    /**
+     * Returns the cached result of the query with the given arguments or computes and caches it.
+     * Invalid arguments are rejected by the delegate, so its exceptions are never cached.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cached(Supplier<T> computation, UnaryOperator<T> unmodifiable, Query query,
+                         Object... arguments) {
+        List<Object> key = key(query, arguments);
+        long currentVersion = dataVersion.getAsLong();
+        synchronized (lock) {
+            if (currentVersion > version) {
+                dropAll();
+                version = currentVersion;
+            }
+
+            Entry entry = currentVersion == version ? entries.get(key) : null;
+            if (entry != null) {
+                hitCount++;
+                return (T) entry.result();
+            }
+            missCount++;
+        }
+
+        T result = unmodifiable.apply(computation.get());
+        if (dataVersion.getAsLong() == currentVersion) {
+            store(key, currentVersion, result);
+        }
+
+        return result;
+    }
+
+    private void store(List<Object> key, long resultVersion, Object result) {
+        long resultWeight = weigh(result);
+        synchronized (lock) {
+            if (resultVersion != version || resultWeight > maximumWeight) {
+                return;
+            }
+
+            Entry previous = entries.put(key, new Entry(result, resultWeight));
+            weight += resultWeight - (previous == null ? 0 : previous.weight());
+
+            Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+            while (entries.size() > maximumSize || weight > maximumWeight) {
+                weight -= leastRecentlyUsed.next().weight();
+                leastRecentlyUsed.remove();
+                evictionCount++;
+            }
+        }
+    }
+
+    private void dropAll() {
+        if (!entries.isEmpty()) {
+            entries.clear();
+            weight = 0;
+            invalidationCount++;
+        }
+    }
+
+    // unlike List.of, Arrays.asList allows null arguments, which the delegate rejects when the result is computed
+    private static List<Object> key(Query query, Object... arguments) {
+        Object[] key = new Object[arguments.length + 1];
+        key[0] = query;
+        System.arraycopy(arguments, 0, key, 1, arguments.length);
+
+        return Arrays.asList(key);
+    }
+
+    private static long weigh(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return 1L + collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            long mapWeight = 1L + map.size();
+            for (Object value : map.values()) {
+                if (value instanceof Collection<?> collection) {
+                    mapWeight += collection.size();
+                }
+            }
+
+            return mapWeight;
+        }
+
+        return 1L;
+    }
+
+    // keeps the equality of lists and sets, which Collections.unmodifiableCollection would reduce to identity
+    private static <T> Collection<T> unmodifiableCollection(Collection<T> collection) {
+        if (collection instanceof List<T> list) {
+            return Collections.unmodifiableList(list);
+        }
+        if (collection instanceof Set<T> set) {
+            return Collections.unmodifiableSet(set);
+        }
+
+        return Collections.unmodifiableCollection(collection);
+    }
+
+    private static <K> Map<K, Collection<Mission>> unmodifiableMissionsPerKey(Map<K, Collection<Mission>> map) {
+        Map<K, Collection<Mission>> unmodifiableValues = new HashMap<>();
+        map.forEach((key, missions) -> unmodifiableValues.put(key, unmodifiableCollection(missions)));
+
+        return Collections.unmodifiableMap(unmodifiableValues);
+    }
+}
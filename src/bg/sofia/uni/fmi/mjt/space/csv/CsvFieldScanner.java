@@ -0,0 +1,163 @@
+package bg.sofia.uni.fmi.mjt.space.csv;
+
+import java.util.Arrays;
+
+public class CsvFieldScanner {
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+    private static final int INITIAL_FIELDS_CAPACITY = 8;
+    private static final String INDEX_OUT_OF_BOUNDS_EXCEPTION_MESSAGE = "field index is out of bounds";
+
+    private CharSequence line;
+    private int[] starts = new int[INITIAL_FIELDS_CAPACITY];
+    private int[] ends = new int[INITIAL_FIELDS_CAPACITY];
+    private boolean[] escaped = new boolean[INITIAL_FIELDS_CAPACITY];
+    private int fieldsCount;
+
+    /**
+     * Splits the line into fields in a single pass, honouring quoted delimiters and escaped quotes ("").
+     * Only the offsets of the fields are recorded, the line itself is neither copied nor split.
+     * The scanner can be reused for the next line by calling scan again.
+     *
+     * @param line the line to be scanned
+     * @return this scanner, positioned over the fields of line
+     */
+    public CsvFieldScanner scan(CharSequence line) {
+        this.line = line;
+        fieldsCount = 0;
+
+        int length = line.length();
+        int pos = 0;
+        while (true) {
+            pos = pos < length && line.charAt(pos) == QUOTE ?
+                scanQuotedField(pos, length) : scanPlainField(pos, length);
+
+            if (pos >= length) {
+                return this;
+            }
+
+            pos++;
+        }
+    }
+
+    private int scanPlainField(int start, int length) {
+        int pos = start;
+        while (pos < length && line.charAt(pos) != DELIMITER) {
+            pos++;
+        }
+
+        addField(start, pos, false);
+        return pos;
+    }
+
+    private int scanQuotedField(int start, int length) {
+        boolean hasEscapedQuotes = false;
+        int pos = start + 1;
+
+        while (pos < length) {
+            if (line.charAt(pos) == QUOTE) {
+                if (pos + 1 < length && line.charAt(pos + 1) == QUOTE) {
+                    hasEscapedQuotes = true;
+                    pos += 2;
+                    continue;
+                }
+
+                break;
+            }
+
+            pos++;
+        }
+
+        int contentEnd = pos;
+        while (pos < length && line.charAt(pos) != DELIMITER) {
+            pos++;
+        }
+
+        addField(start + 1, contentEnd, hasEscapedQuotes);
+        return pos;
+    }
+
+    private void addField(int start, int end, boolean hasEscapedQuotes) {
+        if (fieldsCount == starts.length) {
+            int newCapacity = starts.length * 2;
+            starts = Arrays.copyOf(starts, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+            escaped = Arrays.copyOf(escaped, newCapacity);
+        }
+
+        starts[fieldsCount] = start;
+        ends[fieldsCount] = end;
+        escaped[fieldsCount] = hasEscapedQuotes;
+        fieldsCount++;
+    }
+
+    public CharSequence line() {
+        return line;
+    }
+
+    public int fieldsCount() {
+        return fieldsCount;
+    }
+
+    /**
+     * Returns the offset in the line where the content of the field begins (after the opening quote, if any).
+     *
+     * @param index the index of the field
+     * @throws IndexOutOfBoundsException if there is no field with the given index
+     */
+    public int start(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    /**
+     * Returns the exclusive offset in the line where the content of the field ends (before the closing quote).
+     *
+     * @param index the index of the field
+     * @throws IndexOutOfBoundsException if there is no field with the given index
+     */
+    public int end(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    /**
+     * Returns whether the field is missing from the line or has no content.
+     *
+     * @param index the index of the field
+     */
+    public boolean isEmpty(int index) {
+        return index >= fieldsCount || starts[index] == ends[index];
+    }
+
+    /**
+     * Returns whether the content of the field contains escaped quotes (""),
+     * in which case it differs from the range between start and end.
+     *
+     * @param index the index of the field
+     * @throws IndexOutOfBoundsException if there is no field with the given index
+     */
+    public boolean isEscaped(int index) {
+        checkIndex(index);
+        return escaped[index];
+    }
+
+    /**
+     * Returns the content of the field without the surrounding quotes and with escaped quotes ("") resolved.
+     *
+     * @param index the index of the field
+     * @throws IndexOutOfBoundsException if there is no field with the given index
+     */
+    public String field(int index) {
+        checkIndex(index);
+
+        String content = line.subSequence(starts[index], ends[index]).toString();
+        return escaped[index] ? content.replace("\"\"", "\"") : content;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldsCount) {
+            throw new IndexOutOfBoundsException(INDEX_OUT_OF_BOUNDS_EXCEPTION_MESSAGE);
+        }
+    }
+}
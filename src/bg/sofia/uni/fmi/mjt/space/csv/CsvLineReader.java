@@ -0,0 +1,126 @@
+package bg.sofia.uni.fmi.mjt.space.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Reads the records of a CSV stream one at a time into a line buffer which is reused for every record,
+ * so unlike BufferedReader.lines() no String is created per line. Line breaks inside quotes are kept
+ * in their record and a trailing carriage return is dropped.
+ */
+public class CsvLineReader implements Closeable {
+    private static final int READ_BUFFER_SIZE = 1 << 14;
+    private static final int INITIAL_LINE_CAPACITY = 256;
+    private static final char QUOTE = '"';
+    private static final char LINE_BREAK = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+
+    private final Reader reader;
+    private final char[] readBuffer = new char[READ_BUFFER_SIZE];
+    private int readPosition;
+    private int readLimit;
+    private char[] lineBuffer = new char[INITIAL_LINE_CAPACITY];
+    private int lineLength;
+    private final CharSequence line = new Line();
+
+    public CsvLineReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record into the line buffer.
+     *
+     * @return false if the stream has no more records
+     * @throws IOException if reading from the stream fails
+     */
+    public boolean next() throws IOException {
+        lineLength = 0;
+        boolean inQuotes = false;
+        boolean hasRecord = false;
+
+        while (true) {
+            if (readPosition == readLimit && !fill()) {
+                return hasRecord;
+            }
+            hasRecord = true;
+
+            int runStart = readPosition;
+            while (readPosition < readLimit) {
+                char current = readBuffer[readPosition];
+                if (current == LINE_BREAK && !inQuotes) {
+                    append(runStart, readPosition++);
+                    if (lineLength > 0 && lineBuffer[lineLength - 1] == CARRIAGE_RETURN) {
+                        lineLength--;
+                    }
+
+                    return true;
+                }
+                if (current == QUOTE) {
+                    inQuotes = !inQuotes;
+                }
+
+                readPosition++;
+            }
+
+            append(runStart, readPosition);
+        }
+    }
+
+    /**
+     * Returns the record read by the last call to next. The returned sequence is a view over the line buffer,
+     * so its content changes with the next call to next.
+     */
+    public CharSequence line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(readBuffer, 0, readBuffer.length);
+        readPosition = 0;
+        readLimit = Math.max(read, 0);
+
+        return read > 0;
+    }
+
+    private void append(int from, int to) {
+        int runLength = to - from;
+        if (lineLength + runLength > lineBuffer.length) {
+            lineBuffer = Arrays.copyOf(lineBuffer, Math.max(2 * lineBuffer.length, lineLength + runLength));
+        }
+
+        System.arraycopy(readBuffer, from, lineBuffer, lineLength, runLength);
+        lineLength += runLength;
+    }
+
+    private class Line implements CharSequence {
+        @Override
+        public int length() {
+            return lineLength;
+        }
+
+        @Override
+        public char charAt(int index) {
+            Objects.checkIndex(index, lineLength);
+            return lineBuffer[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            Objects.checkFromToIndex(start, end, lineLength);
+            return new String(lineBuffer, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(lineBuffer, 0, lineLength);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package bg.sofia.uni.fmi.mjt.space.csv;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+public class LaunchDateParser {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("E MMM dd, yyyy", Locale.ENGLISH);
+    private static final LaunchDateParser LENIENT = new LaunchDateParser(false);
+    private static final LaunchDateParser STRICT = new LaunchDateParser(true);
+
+    // "Fri Aug 07, 2020"
+    private static final int LAYOUT_LENGTH = 16;
+    private static final int WEEKDAY_POS = 0;
+    private static final int MONTH_POS = 4;
+    private static final int DAY_POS = 8;
+    private static final int YEAR_POS = 12;
+    private static final int DAY_DIGITS = 2;
+    private static final int YEAR_DIGITS = 4;
+    private static final int NAME_LENGTH = 3;
+    private static final int RADIX = 10;
+
+    // the sum of the second and the third letter is unique for every short month name
+    private static final int MONTHS_TABLE_MASK = 31;
+    private static final String[] MONTH_NAMES = new String[MONTHS_TABLE_MASK + 1];
+    private static final int[] MONTH_NUMBERS = new int[MONTHS_TABLE_MASK + 1];
+    private static final String[] WEEKDAY_NAMES = new String[DayOfWeek.values().length];
+
+    static {
+        for (Month month : Month.values()) {
+            String name = month.getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+            int slot = monthSlot(name, 0);
+
+            MONTH_NAMES[slot] = name;
+            MONTH_NUMBERS[slot] = month.getValue();
+        }
+
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            WEEKDAY_NAMES[dayOfWeek.ordinal()] = dayOfWeek.getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+        }
+    }
+
+    private final boolean strict;
+
+    private LaunchDateParser(boolean strict) {
+        this.strict = strict;
+    }
+
+    /**
+     * Returns a parser that trusts the weekday of the date and does not validate it.
+     */
+    public static LaunchDateParser lenient() {
+        return LENIENT;
+    }
+
+    /**
+     * Returns a parser that rejects dates whose weekday does not match the day of the month.
+     */
+    public static LaunchDateParser strict() {
+        return STRICT;
+    }
+
+    public boolean isStrict() {
+        return strict;
+    }
+
+    public LocalDate parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses a date in the "Fri Aug 07, 2020" layout located between start and end in text.
+     * Well-formed dates are decoded from their fixed character offsets,
+     * anything else is handed to the "E MMM dd, yyyy" formatter.
+     *
+     * @param text  the text containing the date
+     * @param start the inclusive beginning of the date in text
+     * @param end   the exclusive end of the date in text
+     * @throws java.time.format.DateTimeParseException if the date cannot be parsed
+     */
+    public LocalDate parse(CharSequence text, int start, int end) {
+        if (end - start != LAYOUT_LENGTH || !hasSeparators(text, start)) {
+            return parseWithFormatter(text, start, end);
+        }
+
+        int month = monthOf(text, start + MONTH_POS);
+        int day = digitsOf(text, start + DAY_POS, DAY_DIGITS);
+        int year = digitsOf(text, start + YEAR_POS, YEAR_DIGITS);
+        if (month == 0 || day < 0 || year < 0) {
+            return parseWithFormatter(text, start, end);
+        }
+
+        LocalDate date;
+        try {
+            date = LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return parseWithFormatter(text, start, end);
+        }
+
+        if (strict && !regionMatches(text, start + WEEKDAY_POS, WEEKDAY_NAMES[date.getDayOfWeek().ordinal()])) {
+            return parseWithFormatter(text, start, end);
+        }
+
+        return date;
+    }
+
+    private static LocalDate parseWithFormatter(CharSequence text, int start, int end) {
+        return LocalDate.parse(text.subSequence(start, end), FORMATTER);
+    }
+
+    private static boolean hasSeparators(CharSequence text, int start) {
+        return text.charAt(start + MONTH_POS - 1) == ' ' && text.charAt(start + DAY_POS - 1) == ' '
+            && text.charAt(start + YEAR_POS - 2) == ',' && text.charAt(start + YEAR_POS - 1) == ' ';
+    }
+
+    private static int monthSlot(CharSequence text, int pos) {
+        return (text.charAt(pos + 1) + text.charAt(pos + 2)) & MONTHS_TABLE_MASK;
+    }
+
+    private static int monthOf(CharSequence text, int pos) {
+        int slot = monthSlot(text, pos);
+        String name = MONTH_NAMES[slot];
+
+        return name != null && regionMatches(text, pos, name) ? MONTH_NUMBERS[slot] : 0;
+    }
+
+    private static boolean regionMatches(CharSequence text, int pos, String name) {
+        for (int i = 0; i < NAME_LENGTH; i++) {
+            if (text.charAt(pos + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int digitsOf(CharSequence text, int pos, int count) {
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit >= RADIX) {
+                return -1;
+            }
+
+            value = value * RADIX + digit;
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,217 @@
+package bg.sofia.uni.fmi.mjt.space.csv;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Reads the records of a CSV file with a header line in parallel.
+ * The file is memory-mapped in regions of a gigabyte, so files of any size are read, and split into chunks
+ * of at most 16 MB which start right after a line break outside quotes, so records with quoted line breaks
+ * are never split between chunks. Whether a chunk starts inside quotes is found by a parallel pass counting
+ * the quotes before it. A chunk which crosses the edge of a region is copied out of both regions.
+ * The chunks are parsed on a fork-join pool and their records are returned in file order, either one by one
+ * or accumulated into a container per chunk.
+ */
+public class ParallelCsvReader {
+    private static final int REGION_SHIFT = 30;
+    private static final int MIN_CHUNK_BYTES = 1 << 16;
+    private static final int MAX_CHUNK_BYTES = 1 << 24;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final byte QUOTE = '"';
+    private static final byte LINE_BREAK = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+
+    private final ForkJoinPool pool;
+    private final int regionShift;
+
+    /**
+     * @param pool the pool the chunks are parsed on
+     */
+    public ParallelCsvReader(ForkJoinPool pool) {
+        this(pool, REGION_SHIFT);
+    }
+
+    // smaller regions let tests cross region edges without files of gigabytes
+    ParallelCsvReader(ForkJoinPool pool, int regionShift) {
+        this.pool = pool;
+        this.regionShift = regionShift;
+    }
+
+    /**
+     * Parses the records of the file after its header line.
+     *
+     * @param file         the file to be read, encoded in UTF-8
+     * @param recordParser parses a record, called concurrently from the threads of the pool
+     * @throws IOException if the file cannot be read
+     */
+    public <T> List<T> read(Path file, Function<String, T> recordParser) throws IOException {
+        List<List<T>> chunks = read(file, ArrayList::new, (records, line) -> records.add(recordParser.apply(line)));
+
+        return chunks.stream()
+            .flatMap(List::stream)
+            .toList();
+    }
+
+    /**
+     * Accumulates the records of the file after its header line into a new container per chunk, so that
+     * the records are parsed straight into their final form and nothing is created per record.
+     *
+     * @param file        the file to be read, encoded in UTF-8
+     * @param container   creates the container of a chunk, which is only used by the thread parsing the chunk
+     * @param accumulator adds a record to the container of its chunk, called concurrently for different chunks
+     * @return the containers of the chunks, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public <A> List<A> read(Path file, Supplier<A> container, BiConsumer<A, String> accumulator) throws IOException {
+        MappedFile bytes;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            bytes = MappedFile.map(channel, regionShift);
+        }
+
+        long[] boundaries = chunkBoundaries(bytes);
+        return pool.submit(() -> IntStream.range(0, boundaries.length - 1)
+                .parallel()
+                .mapToObj(chunk -> parseChunk(bytes.slice(boundaries[chunk], boundaries[chunk + 1]), container.get(),
+                    accumulator))
+                .toList())
+            .join();
+    }
+
+    private long[] chunkBoundaries(MappedFile bytes) {
+        long size = bytes.size();
+        long dataStart = nextRecordStart(bytes, 0, false);
+        long dataSize = size - dataStart;
+        int chunksCount = (int) Math.max((dataSize - 1) / MAX_CHUNK_BYTES + 1,
+            Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, dataSize / MIN_CHUNK_BYTES));
+
+        long[] rawStarts = new long[chunksCount + 1];
+        for (int chunk = 0; chunk <= chunksCount; chunk++) {
+            rawStarts[chunk] = dataStart + dataSize * chunk / chunksCount;
+        }
+
+        boolean[] oddQuotes = new boolean[chunksCount];
+        pool.submit(() -> IntStream.range(0, chunksCount)
+                .parallel()
+                .forEach(chunk -> oddQuotes[chunk] = hasOddQuotes(bytes.slice(rawStarts[chunk], rawStarts[chunk + 1]))))
+            .join();
+
+        long[] boundaries = new long[chunksCount + 1];
+        boundaries[0] = dataStart;
+        boundaries[chunksCount] = size;
+        boolean inQuotes = false;
+        for (int chunk = 1; chunk < chunksCount; chunk++) {
+            inQuotes ^= oddQuotes[chunk - 1];
+            long recordStart = nextRecordStart(bytes, rawStarts[chunk], inQuotes);
+            boundaries[chunk] = Math.max(recordStart, boundaries[chunk - 1]);
+        }
+
+        return boundaries;
+    }
+
+    private static boolean hasOddQuotes(ByteBuffer bytes) {
+        boolean odd = false;
+        for (int i = bytes.position(); i < bytes.limit(); i++) {
+            if (bytes.get(i) == QUOTE) {
+                odd = !odd;
+            }
+        }
+
+        return odd;
+    }
+
+    // neither quotes nor line breaks occur inside multi-byte UTF-8 sequences, so the bytes can be scanned directly
+    private static long nextRecordStart(MappedFile bytes, long from, boolean inQuotes) {
+        for (long i = from; i < bytes.size(); i++) {
+            byte current = bytes.get(i);
+            if (current == QUOTE) {
+                inQuotes = !inQuotes;
+            } else if (current == LINE_BREAK && !inQuotes) {
+                return i + 1;
+            }
+        }
+
+        return bytes.size();
+    }
+
+    private static <A> A parseChunk(ByteBuffer chunk, A container, BiConsumer<A, String> accumulator) {
+        String text = StandardCharsets.UTF_8.decode(chunk).toString();
+
+        boolean inQuotes = false;
+        int recordStart = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char current = text.charAt(i);
+            if (current == QUOTE) {
+                inQuotes = !inQuotes;
+            } else if (current == LINE_BREAK && !inQuotes) {
+                accumulator.accept(container, record(text, recordStart, i));
+                recordStart = i + 1;
+            }
+        }
+        if (recordStart < text.length()) {
+            accumulator.accept(container, record(text, recordStart, text.length()));
+        }
+
+        return container;
+    }
+
+    private static String record(String text, int from, int to) {
+        return to > from && text.charAt(to - 1) == CARRIAGE_RETURN ? text.substring(from, to - 1)
+            : text.substring(from, to);
+    }
+
+    /**
+     * A file mapped in regions of 2^regionShift bytes, as a single mapping holds at most 2 GB.
+     */
+    private record MappedFile(ByteBuffer[] regions, int regionShift, long size) {
+        private static MappedFile map(FileChannel channel, int regionShift) throws IOException {
+            long size = channel.size();
+            long regionSize = 1L << regionShift;
+            ByteBuffer[] regions = new ByteBuffer[(int) ((size + regionSize - 1) >>> regionShift)];
+            for (int region = 0; region < regions.length; region++) {
+                long from = region * regionSize;
+                regions[region] = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(regionSize, size - from));
+            }
+
+            return new MappedFile(regions, regionShift, size);
+        }
+
+        private byte get(long position) {
+            return regions[(int) (position >>> regionShift)].get(offset(position));
+        }
+
+        /**
+         * Returns the bytes from from to to, a view of their region if they are all in one and a copy otherwise.
+         */
+        private ByteBuffer slice(long from, long to) {
+            int length = Math.toIntExact(to - from);
+            int region = (int) (from >>> regionShift);
+            if (length == 0 || region == (int) ((to - 1) >>> regionShift)) {
+                return region < regions.length ? regions[region].slice(offset(from), length) : ByteBuffer.allocate(0);
+            }
+
+            ByteBuffer copy = ByteBuffer.allocate(length);
+            for (long next = from; next < to; next = copy.position() + from) {
+                ByteBuffer source = regions[(int) (next >>> regionShift)];
+                int offset = offset(next);
+                copy.put(source.slice(offset, (int) Math.min(source.limit() - offset, to - next)));
+            }
+
+            return copy.flip();
+        }
+
+        private int offset(long position) {
+            return (int) (position & ((1L << regionShift) - 1));
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package bg.sofia.uni.fmi.mjt.space.dictionary;
+
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Interns the repeating values of the missions and rockets datasets while they are loaded.
+ * Every distinct company, location, country and rocket name is kept as a single canonical instance
+ * with a stable id, and the country of every location is resolved once, when the location is first seen.
+ */
+public class DatasetDictionary {
+    private static final int INITIAL_LOCATIONS_CAPACITY = 16;
+    private static final char COUNTRY_SEPARATOR = ',';
+    private static final int COUNTRY_SEPARATOR_LENGTH = 2;
+
+    private final StringDictionary companyNames;
+    private final StringDictionary locationNames;
+    private final StringDictionary countryNames;
+    private final StringDictionary rocketNames;
+    private int[] countryPerLocation;
+
+    public DatasetDictionary() {
+        this(new StringDictionary(), new StringDictionary(), new StringDictionary(), new StringDictionary(),
+            new int[INITIAL_LOCATIONS_CAPACITY]);
+    }
+
+    private DatasetDictionary(StringDictionary companyNames, StringDictionary locationNames,
+                              StringDictionary countryNames, StringDictionary rocketNames, int[] countryPerLocation) {
+        this.companyNames = companyNames;
+        this.locationNames = locationNames;
+        this.countryNames = countryNames;
+        this.rocketNames = rocketNames;
+        this.countryPerLocation = countryPerLocation;
+    }
+
+    /**
+     * Reads a dictionary written by writeTo, in which every value has the id it had when it was written.
+     *
+     * @param in the snapshot the dictionary is read from
+     */
+    public static DatasetDictionary readFrom(SnapshotReader in) {
+        StringDictionary companyNames = StringDictionary.readFrom(in);
+        StringDictionary locationNames = StringDictionary.readFrom(in);
+        StringDictionary countryNames = StringDictionary.readFrom(in);
+        StringDictionary rocketNames = StringDictionary.readFrom(in);
+        int[] countryPerLocation = in.readInts();
+
+        return new DatasetDictionary(companyNames, locationNames, countryNames, rocketNames,
+            Arrays.copyOf(countryPerLocation, Math.max(countryPerLocation.length, INITIAL_LOCATIONS_CAPACITY)));
+    }
+
+    /**
+     * Writes all the values of the dictionary and the country of every location.
+     *
+     * @param out the snapshot the dictionary is written to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        companyNames.writeTo(out);
+        locationNames.writeTo(out);
+        countryNames.writeTo(out);
+        rocketNames.writeTo(out);
+        out.writeInts(countryPerLocation, locationNames.size());
+    }
+
+    /**
+     * Returns a copy of the dictionary, in which every value has the same id.
+     * Values added to either of them afterwards are not added to the other one.
+     */
+    public DatasetDictionary copy() {
+        return new DatasetDictionary(companyNames.copy(), locationNames.copy(), countryNames.copy(),
+            rocketNames.copy(), Arrays.copyOf(countryPerLocation, countryPerLocation.length));
+    }
+
+    /**
+     * Returns the number of values of all kinds in the dictionary, which grows whenever a value is added.
+     */
+    public int size() {
+        return companyNames.size() + locationNames.size() + countryNames.size() + rocketNames.size();
+    }
+
+    public String company(String name) {
+        return companyNames.decode(companyNames.encode(name));
+    }
+
+    public String location(String name) {
+        return locationNames.decode(encodeLocation(name));
+    }
+
+    public String rocket(String name) {
+        return rocketNames.decode(rocketNames.encode(name));
+    }
+
+    public int encodeCompany(String name) {
+        return companyNames.encode(name);
+    }
+
+    public int encodeCompany(CharSequence chars, int start, int end) {
+        return companyNames.encode(chars, start, end);
+    }
+
+    /**
+     * Returns the id of the location, adding it and its country to the dictionary if it is not present yet.
+     *
+     * @param name the location, in the "site, ..., country" format
+     * @throws IllegalArgumentException if name is null
+     */
+    public int encodeLocation(String name) {
+        int locationsCount = locationNames.size();
+        return withCountry(locationNames.encode(name), locationsCount);
+    }
+
+    /**
+     * Returns the id of the location made of chars[start, end),
+     * adding it and its country to the dictionary if it is not present yet.
+     *
+     * @throws IllegalArgumentException if chars is null
+     */
+    public int encodeLocation(CharSequence chars, int start, int end) {
+        int locationsCount = locationNames.size();
+        return withCountry(locationNames.encode(chars, start, end), locationsCount);
+    }
+
+    public int encodeRocket(String name) {
+        return rocketNames.encode(name);
+    }
+
+    public int encodeRocket(CharSequence chars, int start, int end) {
+        return rocketNames.encode(chars, start, end);
+    }
+
+    /**
+     * Returns the id of the country of the location with the given id.
+     *
+     * @param location the id of the location
+     * @throws IndexOutOfBoundsException if there is no location with the given id
+     */
+    public int country(int location) {
+        if (location < 0 || location >= locationNames.size()) {
+            throw new IndexOutOfBoundsException(location);
+        }
+
+        return countryPerLocation[location];
+    }
+
+    public StringDictionary companyNames() {
+        return companyNames;
+    }
+
+    public StringDictionary locationNames() {
+        return locationNames;
+    }
+
+    public StringDictionary countryNames() {
+        return countryNames;
+    }
+
+    public StringDictionary rocketNames() {
+        return rocketNames;
+    }
+
+    private int withCountry(int location, int locationsCount) {
+        if (location == locationsCount) {
+            if (location == countryPerLocation.length) {
+                countryPerLocation = Arrays.copyOf(countryPerLocation, location * 2);
+            }
+
+            countryPerLocation[location] = countryNames.encode(getCountry(locationNames.decode(location)));
+        }
+
+        return location;
+    }
+
+    private static String getCountry(String location) {
+        return location.substring(location.lastIndexOf(COUNTRY_SEPARATOR) + COUNTRY_SEPARATOR_LENGTH);
+    }
+}
@@ -0,0 +1,207 @@
+package bg.sofia.uni.fmi.mjt.space.dictionary;
+
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class StringDictionary {
+    public static final int ABSENT = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int EMPTY_SLOT = 0;
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int HASH_SPREAD_SHIFT = 16;
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_VALUE_MESSAGE = "value is null";
+
+    private String[] values = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    // open addressing table of id + 1, kept at most half full, so that values can be looked up by a range of chars
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private int size;
+
+    /**
+     * Returns the id of value, adding it to the dictionary if it is not present yet.
+     * Ids are assigned consecutively from 0 in the order in which the values are first seen.
+     *
+     * @param value the value to be encoded
+     * @throws IllegalArgumentException if value is null
+     */
+    public int encode(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_VALUE_MESSAGE);
+        }
+
+        return encode(value, 0, value.length(), value);
+    }
+
+    /**
+     * Returns the id of the value made of chars[start, end), adding it to the dictionary if it is not present yet.
+     * A String is created only when the value is added.
+     *
+     * @param chars the chars containing the value
+     * @param start the index of the first char of the value
+     * @param end   the index after the last char of the value
+     * @throws IllegalArgumentException if chars is null
+     */
+    public int encode(CharSequence chars, int start, int end) {
+        if (chars == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_VALUE_MESSAGE);
+        }
+
+        return encode(chars, start, end, null);
+    }
+
+    private int encode(CharSequence chars, int start, int end, String value) {
+        int hash = hash(chars, start, end);
+        int slot = slotOf(chars, start, end, hash);
+        if (slots[slot] != EMPTY_SLOT) {
+            return slots[slot] - 1;
+        }
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+
+        values[size] = value != null ? value : chars.subSequence(start, end).toString();
+        hashes[size] = hash;
+        slots[slot] = size + 1;
+        size++;
+
+        if (2 * size > slots.length) {
+            rehash();
+        }
+
+        return size - 1;
+    }
+
+    /**
+     * Returns the id of value or ABSENT if value is not in the dictionary.
+     *
+     * @param value the value to be looked up
+     */
+    public int find(String value) {
+        return value == null ? ABSENT : find(value, 0, value.length());
+    }
+
+    /**
+     * Returns the id of the value made of chars[start, end) or ABSENT if it is not in the dictionary.
+     *
+     * @param chars the chars containing the value
+     * @param start the index of the first char of the value
+     * @param end   the index after the last char of the value
+     */
+    public int find(CharSequence chars, int start, int end) {
+        int slot = slotOf(chars, start, end, hash(chars, start, end));
+        return slots[slot] == EMPTY_SLOT ? ABSENT : slots[slot] - 1;
+    }
+
+    /**
+     * Returns the canonical instance of the value with the given id.
+     *
+     * @param id the id of the value
+     * @throws IndexOutOfBoundsException if there is no value with the given id
+     */
+    public String decode(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException(id);
+        }
+
+        return values[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a copy of the dictionary, in which every value has the same id.
+     * Values added to either of them afterwards are not added to the other one.
+     */
+    public StringDictionary copy() {
+        StringDictionary copy = new StringDictionary();
+        copy.values = Arrays.copyOf(values, values.length);
+        copy.hashes = Arrays.copyOf(hashes, hashes.length);
+        copy.slots = Arrays.copyOf(slots, slots.length);
+        copy.size = size;
+
+        return copy;
+    }
+
+    /**
+     * Writes the values of the dictionary in id order.
+     *
+     * @param out the snapshot the values are written to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.writeStrings(values, size);
+    }
+
+    /**
+     * Reads a dictionary written by writeTo, in which every value has the id it had when it was written.
+     *
+     * @param in the snapshot the values are read from
+     */
+    public static StringDictionary readFrom(SnapshotReader in) {
+        StringDictionary dictionary = new StringDictionary();
+        for (String value : in.readStrings()) {
+            dictionary.encode(value);
+        }
+
+        return dictionary;
+    }
+
+    // the same hash as String.hashCode, so that strings and ranges of chars with equal content meet in one slot
+    private static int hash(CharSequence chars, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = HASH_MULTIPLIER * hash + chars.charAt(i);
+        }
+
+        return hash;
+    }
+
+    private int slotOf(CharSequence chars, int start, int end, int hash) {
+        int mask = slots.length - 1;
+        int slot = (hash ^ hash >>> HASH_SPREAD_SHIFT) & mask;
+        while (slots[slot] != EMPTY_SLOT) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && contentEquals(values[id], chars, start, end)) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private static boolean contentEquals(String value, CharSequence chars, int start, int end) {
+        if (value.length() != end - start) {
+            return false;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != chars.charAt(start + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = (hashes[id] ^ hashes[id] >>> HASH_SPREAD_SHIFT) & mask;
+            while (slots[slot] != EMPTY_SLOT) {
+                slot = (slot + 1) & mask;
+            }
+
+            slots[slot] = id + 1;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package bg.sofia.uni.fmi.mjt.space.exception;
+
+public class SnapshotException extends Exception {
+    public SnapshotException(String message) {
+        super(message);
+    }
+
+    public SnapshotException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,311 @@
+package bg.sofia.uni.fmi.mjt.space.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic missions and rockets datasets in the layout of the bundled ones, at any scale.
+ * Companies, their launch sites and rockets follow Zipf distributions, so a few of them dominate the dataset
+ * like in the real one. The output depends only on the seed and the sizes, and the missions are streamed
+ * to the writer one by one, so datasets of any size are generated in constant memory.
+ */
+public class DatasetGenerator {
+    public static final long DEFAULT_SEED = 1957L;
+    public static final int DEFAULT_COMPANIES_COUNT = 60;
+    public static final int DEFAULT_ROCKETS_COUNT = 420;
+
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_COUNT_MESSAGE =
+        "companiesCount or rocketsCount is less than or equal to 0";
+    private static final String MISSIONS_HEADER =
+        "Unnamed: 0,Company Name,Location,Datum,Detail,Status Rocket,\" Rocket\",Status Mission";
+    private static final String ROCKETS_HEADER = "\"\",Name,Wiki,Rocket Height";
+    private static final String WIKI_PREFIX = "https://en.wikipedia.org/wiki/";
+    private static final DateTimeFormatter DATE_FORMATTER =
+        DateTimeFormatter.ofPattern("EEE MMM dd, yyyy", Locale.ENGLISH);
+    private static final LocalDate FIRST_LAUNCH = LocalDate.of(1957, 10, 4);
+    private static final LocalDate LAST_LAUNCH = LocalDate.of(2020, 12, 31);
+
+    private static final String[] SYLLABLES = {
+        "Ari", "Cos", "Nova", "Orb", "Astra", "Vega", "Terra", "Luna", "Sol", "Kos", "Zen", "Rho", "Ion", "Tau"
+    };
+    private static final String[] COUNTRIES = {
+        "USA", "Russia", "China", "Kazakhstan", "France", "Japan", "India", "New Zealand", "Iran", "Israel",
+        "North Korea", "South Korea", "Brazil", "Australia", "Kenya"
+    };
+    private static final String[] SITE_KINDS = {"Launch Center", "Cosmodrome", "Space Center", "Spaceport"};
+    private static final String[] ROCKET_STATUSES = {"StatusActive", "StatusRetired"};
+    private static final String[] MISSION_STATUSES = {"Success", "Failure", "Partial Failure", "Prelaunch Failure"};
+    private static final double[] MISSION_STATUS_WEIGHTS = {0.895, 0.075, 0.025, 0.005};
+
+    private static final double COMPANIES_SKEW = 1.1;
+    private static final double SITES_SKEW = 1.3;
+    private static final double ROCKETS_SKEW = 0.9;
+    private static final int MAX_SITES_PER_COMPANY = 8;
+    private static final int ROCKETS_PER_COMPANY_SPREAD = 3;
+    private static final double COST_PROBABILITY = 0.22;
+    private static final double MIN_COST = 2.5;
+    private static final double MAX_COST = 1_500.0;
+    private static final int COST_DECIMALS = 100;
+    private static final int THOUSAND = 1_000;
+    private static final int THOUSANDS_GROUP_DIGITS = 3;
+    private static final double COMPOSITE_PAYLOAD_PROBABILITY = 0.2;
+    private static final double PAYLOAD_WITH_COMMA_PROBABILITY = 0.05;
+    private static final int PAYLOAD_NUMBERS = 500;
+    private static final double ACTIVE_ROCKET_PROBABILITY = 0.3;
+    private static final double WIKI_PROBABILITY = 0.9;
+    private static final double HEIGHT_PROBABILITY = 0.85;
+    private static final double MIN_HEIGHT = 10.0;
+    private static final double MAX_HEIGHT = 110.0;
+    private static final int HEIGHT_DECIMALS = 10;
+    private static final int ROCKET_NUMBERS = 12;
+    private static final double ROCKET_WITH_COMMA_PROBABILITY = 0.05;
+    private static final int SITE_NUMBERS = 250;
+
+    private final long seed;
+    private final String[] companies;
+    private final String[][] sitesPerCompany;
+    private final String[] rockets;
+    private final String[] rocketStatuses;
+    private final int[] firstRocketPerCompany;
+    private final ZipfDistribution companiesDistribution;
+    private final ZipfDistribution[] sitesDistributions;
+    private final ZipfDistribution rocketsDistribution;
+    private final long firstDay = FIRST_LAUNCH.toEpochDay();
+    private final long daysCount = LAST_LAUNCH.toEpochDay() - firstDay + 1;
+
+    public DatasetGenerator(long seed) {
+        this(seed, DEFAULT_COMPANIES_COUNT, DEFAULT_ROCKETS_COUNT);
+    }
+
+    /**
+     * Creates a generator of datasets with the given number of distinct companies and rockets.
+     *
+     * @param seed           the seed every generated value is derived from
+     * @param companiesCount the number of distinct companies
+     * @param rocketsCount   the number of distinct rockets
+     * @throws IllegalArgumentException if companiesCount or rocketsCount is less than or equal to 0
+     */
+    public DatasetGenerator(long seed, int companiesCount, int rocketsCount) {
+        if (companiesCount <= 0 || rocketsCount <= 0) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_COUNT_MESSAGE);
+        }
+
+        this.seed = seed;
+        SplittableRandom random = new SplittableRandom(seed);
+
+        companies = new String[companiesCount];
+        sitesPerCompany = new String[companiesCount][];
+        sitesDistributions = new ZipfDistribution[companiesCount];
+        for (int company = 0; company < companiesCount; company++) {
+            companies[company] = name(company);
+
+            String country = COUNTRIES[random.nextInt(COUNTRIES.length)];
+            sitesPerCompany[company] = new String[1 + random.nextInt(MAX_SITES_PER_COMPANY)];
+            for (int site = 0; site < sitesPerCompany[company].length; site++) {
+                sitesPerCompany[company][site] = "LC-" + (1 + random.nextInt(SITE_NUMBERS)) + ", "
+                    + name(random.nextInt(companiesCount * SYLLABLES.length)) + " "
+                    + SITE_KINDS[random.nextInt(SITE_KINDS.length)] + ", " + country;
+            }
+            sitesDistributions[company] = new ZipfDistribution(sitesPerCompany[company].length, SITES_SKEW);
+        }
+
+        int namesCount = SYLLABLES.length * SYLLABLES.length;
+        rockets = new String[rocketsCount];
+        rocketStatuses = new String[rocketsCount];
+        for (int rocket = 0; rocket < rocketsCount; rocket++) {
+            String suffix = random.nextDouble() < ROCKET_WITH_COMMA_PROBABILITY ?
+                " (" + random.nextInt(ROCKET_NUMBERS) + "," + random.nextInt(ROCKET_NUMBERS) + ")" : "";
+            rockets[rocket] = name(rocket % namesCount) + " " + (rocket / namesCount + 1) + suffix;
+            rocketStatuses[rocket] = random.nextDouble() < ACTIVE_ROCKET_PROBABILITY ?
+                ROCKET_STATUSES[0] : ROCKET_STATUSES[1];
+        }
+
+        firstRocketPerCompany = new int[companiesCount];
+        for (int company = 0; company < companiesCount; company++) {
+            firstRocketPerCompany[company] = random.nextInt(rocketsCount);
+        }
+
+        companiesDistribution = new ZipfDistribution(companiesCount, COMPANIES_SKEW);
+        rocketsDistribution = new ZipfDistribution(
+            Math.min(rocketsCount, ROCKETS_PER_COMPANY_SPREAD * SYLLABLES.length), ROCKETS_SKEW);
+    }
+
+    /**
+     * Writes a missions dataset with the given number of rows, with a header line.
+     *
+     * @param writer the writer the dataset is written to, it is not closed
+     * @param rows   the number of missions
+     * @throws IOException if writing fails
+     */
+    public void writeMissions(Writer writer, long rows) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed).split();
+        StringBuilder line = new StringBuilder();
+
+        writer.write(MISSIONS_HEADER);
+        writer.write('\n');
+        for (long id = 0; id < rows; id++) {
+            line.setLength(0);
+            appendMission(line, id, random);
+            line.append('\n');
+            writer.append(line);
+        }
+    }
+
+    /**
+     * Writes the rockets dataset used by the generated missions, with a header line.
+     *
+     * @param writer the writer the dataset is written to, it is not closed
+     * @throws IOException if writing fails
+     */
+    public void writeRockets(Writer writer) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed).split().split();
+        StringBuilder line = new StringBuilder();
+
+        writer.write(ROCKETS_HEADER);
+        writer.write('\n');
+        for (int rocket = 0; rocket < rockets.length; rocket++) {
+            line.setLength(0);
+            line.append(rocket).append(',');
+            appendField(line, rockets[rocket]);
+            line.append(',');
+            if (random.nextDouble() < WIKI_PROBABILITY) {
+                line.append(WIKI_PREFIX).append(rockets[rocket].replace(' ', '_').replace(",", "%2C"));
+            }
+            line.append(',');
+            if (random.nextDouble() < HEIGHT_PROBABILITY) {
+                double height = MIN_HEIGHT + random.nextDouble() * (MAX_HEIGHT - MIN_HEIGHT);
+                line.append(Math.round(height * HEIGHT_DECIMALS) / (double) HEIGHT_DECIMALS).append(" m");
+            }
+            line.append('\n');
+
+            writer.append(line);
+        }
+    }
+
+    private void appendMission(StringBuilder line, long id, SplittableRandom random) {
+        int company = companiesDistribution.sample(random);
+        String site = sitesPerCompany[company][sitesDistributions[company].sample(random)];
+        int rocket = (firstRocketPerCompany[company] + rocketsDistribution.sample(random)) % rockets.length;
+        LocalDate date = LocalDate.ofEpochDay(firstDay + skewedToRecent(random));
+
+        line.append(id).append(',');
+        appendField(line, companies[company]);
+        line.append(',');
+        appendField(line, site);
+        line.append(',');
+        appendField(line, DATE_FORMATTER.format(date));
+        line.append(',');
+        appendField(line, rockets[rocket] + " | " + payload(random));
+        line.append(',').append(rocketStatuses[rocket]).append(',');
+        if (random.nextDouble() < COST_PROBABILITY) {
+            line.append('"').append(cost(random)).append(" \"");
+        }
+        line.append(',').append(MISSION_STATUSES[missionStatus(random)]);
+    }
+
+    // launches become more frequent over time, like in the real dataset
+    private long skewedToRecent(SplittableRandom random) {
+        return Math.min(daysCount - 1, (long) (Math.sqrt(random.nextDouble()) * daysCount));
+    }
+
+    private String payload(SplittableRandom random) {
+        String payload = SYLLABLES[random.nextInt(SYLLABLES.length)] + "-" + random.nextInt(PAYLOAD_NUMBERS);
+        if (random.nextDouble() < COMPOSITE_PAYLOAD_PROBABILITY) {
+            payload += " & " + SYLLABLES[random.nextInt(SYLLABLES.length)] + "-" + random.nextInt(PAYLOAD_NUMBERS);
+        }
+        if (random.nextDouble() < PAYLOAD_WITH_COMMA_PROBABILITY) {
+            payload += ", " + SYLLABLES[random.nextInt(SYLLABLES.length)] + "Sat";
+        }
+
+        return payload;
+    }
+
+    private static String cost(SplittableRandom random) {
+        double cost = Math.round((MIN_COST + random.nextDouble() * (MAX_COST - MIN_COST)) * COST_DECIMALS)
+            / (double) COST_DECIMALS;
+        String digits = Double.toString(cost);
+        if (cost < THOUSAND) {
+            return digits;
+        }
+
+        int thousands = digits.indexOf('.') - THOUSANDS_GROUP_DIGITS;
+        return digits.substring(0, thousands) + "," + digits.substring(thousands);
+    }
+
+    private static int missionStatus(SplittableRandom random) {
+        double value = random.nextDouble();
+        for (int status = 0; status < MISSION_STATUS_WEIGHTS.length - 1; status++) {
+            value -= MISSION_STATUS_WEIGHTS[status];
+            if (value < 0) {
+                return status;
+            }
+        }
+
+        return MISSION_STATUS_WEIGHTS.length - 1;
+    }
+
+    private static String name(int index) {
+        int syllables = SYLLABLES.length;
+        String name = SYLLABLES[index % syllables] + SYLLABLES[index / syllables % syllables].toLowerCase(Locale.ROOT);
+        return index < syllables * syllables ? name : name + " " + index / (syllables * syllables);
+    }
+
+    private static void appendField(StringBuilder line, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            line.append(value);
+            return;
+        }
+
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * Generates a missions dataset and its rockets dataset.
+     *
+     * @param args the missions file, the rockets file, the number of missions and optionally the seed
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: DatasetGenerator <missions file> <rockets file> <missions count> [seed]");
+            return;
+        }
+
+        long rows = Long.parseLong(args[2]);
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+        DatasetGenerator generator = new DatasetGenerator(seed);
+
+        try (Writer missions = Files.newBufferedWriter(Path.of(args[0]), StandardCharsets.UTF_8);
+             Writer rockets = Files.newBufferedWriter(Path.of(args[1]), StandardCharsets.UTF_8)) {
+            generator.writeMissions(missions, rows);
+            generator.writeRockets(rockets);
+        }
+    }
+
+    private static final class ZipfDistribution {
+        private final double[] cumulativeWeights;
+
+        private ZipfDistribution(int count, double skew) {
+            cumulativeWeights = new double[count];
+            double total = 0.0;
+            for (int rank = 0; rank < count; rank++) {
+                total += 1.0 / Math.pow(rank + 1, skew);
+                cumulativeWeights[rank] = total;
+            }
+        }
+
+        private int sample(SplittableRandom random) {
+            double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            int position = Arrays.binarySearch(cumulativeWeights, value);
+            int index = position >= 0 ? position + 1 : -position - 1;
+            return Math.min(index, cumulativeWeights.length - 1);
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package bg.sofia.uni.fmi.mjt.space.mission;
 
+import bg.sofia.uni.fmi.mjt.space.dictionary.DatasetDictionary;
+
 public record Detail(String rocketName, String payload) {
     private static final String REGEX = "\\s*\\|\\s*";
     private static final int ROCKET_NAME_POS = 0;
     private static final int PAYLOAD_POS = 1;
 
     public static Detail of(String line) {
+        return of(line, null);
+    }
+
+    /**
+     * Creates a detail from its "rocket | payload" representation.
+     *
+     * @param line       the detail to be parsed
+     * @param dictionary the dictionary the rocket name is interned into, or null if it should not be interned
+     */
+    public static Detail of(String line, DatasetDictionary dictionary) {
         if (isSurroundedByQuotationMarks(line)) {
             line = line.substring(1, line.length() - 1);
         }
 
         String[] tokens = line.split(REGEX);
 
-        return new Detail(tokens[ROCKET_NAME_POS], tokens[PAYLOAD_POS]);
+        String rocketName = dictionary == null ? tokens[ROCKET_NAME_POS] : dictionary.rocket(tokens[ROCKET_NAME_POS]);
+
+        return new Detail(rocketName, tokens[PAYLOAD_POS]);
     }
 
     private static boolean isSurroundedByQuotationMarks(String str) {
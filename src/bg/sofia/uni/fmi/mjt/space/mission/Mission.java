@@ -1,16 +1,16 @@
 package bg.sofia.uni.fmi.mjt.space.mission;
 
+import bg.sofia.uni.fmi.mjt.space.csv.CsvFieldScanner;
+import bg.sofia.uni.fmi.mjt.space.csv.LaunchDateParser;
+import bg.sofia.uni.fmi.mjt.space.dictionary.DatasetDictionary;
 import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
-import java.util.Locale;
 import java.util.Optional;
 
 public record Mission(String id, String company, String location, LocalDate date, Detail detail,
                       RocketStatus rocketStatus, Optional<Double> cost, MissionStatus missionStatus) {
-    private static final String REGEX = ",(?=(?:[^\"]*\"[^\"]*\")*(?![^\"]*\"))";
     private static final int ID_POS = 0;
     private static final int COMPANY_POS = 1;
     private static final int LOCATION_POS = 2;
@@ -21,22 +21,52 @@ public record Mission(String id, String company, String location, LocalDate date
     private static final int MISSION_STATUS_POS = 7;
 
     public static Mission of(String line) {
-        String[] tokens = line.split(REGEX);
+        return of(line, LaunchDateParser.lenient());
+    }
+
+    /**
+     * Creates a mission from a line of the missions dataset.
+     *
+     * @param line       the line to be parsed
+     * @param dateParser the parser used for the launch date, strict parsers also validate its weekday
+     */
+    public static Mission of(String line, LaunchDateParser dateParser) {
+        return of(line, null, dateParser);
+    }
+
+    /**
+     * Creates a mission from a line of the missions dataset,
+     * sharing the company, location and rocket names with the other missions and rockets of the dataset.
+     *
+     * @param line       the line to be parsed
+     * @param dictionary the dictionary the names are interned into, or null if they should not be interned
+     * @param dateParser the parser used for the launch date, strict parsers also validate its weekday
+     */
+    public static Mission of(String line, DatasetDictionary dictionary, LaunchDateParser dateParser) {
+        CsvFieldScanner fields = new CsvFieldScanner().scan(line);
+
+        String company = fields.field(COMPANY_POS);
+        String location = fields.field(LOCATION_POS);
+        if (dictionary != null) {
+            company = dictionary.company(company);
+            location = dictionary.location(location);
+        }
 
-        String location = getStringWithoutQuotes(tokens[LOCATION_POS]);
-        LocalDate date = getDateFormatted(tokens[DATE_POS]);
-        Detail detail = Detail.of(tokens[DETAIL_POS]);
+        LocalDate date = getDateFormatted(fields, dateParser);
+        Detail detail = Detail.of(fields.field(DETAIL_POS), dictionary);
+        String rocketStatusString = fields.field(ROCKET_STATUS_POS);
         RocketStatus rocketStatus = Arrays.stream(RocketStatus.values())
-            .filter(rs -> tokens[ROCKET_STATUS_POS].equals(rs.toString()))
+            .filter(rs -> rocketStatusString.equals(rs.toString()))
             .findAny()
             .get();
-        Optional<Double> cost = getCost(tokens[COST_POS]);
+        Optional<Double> cost = getCost(fields.field(COST_POS));
+        String missionStatusString = fields.field(MISSION_STATUS_POS);
         MissionStatus missionStatus = Arrays.stream(MissionStatus.values())
-            .filter(ms -> tokens[MISSION_STATUS_POS].equals(ms.toString()))
+            .filter(ms -> missionStatusString.equals(ms.toString()))
             .findAny()
             .get();
 
-        return new Mission(tokens[ID_POS], tokens[COMPANY_POS], location,
+        return new Mission(fields.field(ID_POS), company, location,
             date, detail, rocketStatus, cost, missionStatus);
     }
 
@@ -46,30 +76,15 @@ public record Mission(String id, String company, String location, LocalDate date
         if (costString.isEmpty()) {
             cost = Optional.empty();
         } else {
-            StringBuilder costFormatted = new StringBuilder(costString);
+            String costFormatted = costString.replace(",", "").strip();
 
-            costFormatted
-                .deleteCharAt(0)
-                .deleteCharAt(costFormatted.length() - 1);
-
-            int indexOfComma;
-            if ((indexOfComma = costFormatted.indexOf(",")) != -1) {
-                costFormatted.deleteCharAt(indexOfComma);
-            }
-
-            cost = Optional.of(Double.parseDouble(costFormatted.toString()));
+            cost = Optional.of(Double.parseDouble(costFormatted));
         }
 
         return cost;
     }
 
-    private static String getStringWithoutQuotes(String str) {
-        return str.substring(1, str.length() - 1);
-    }
-
-    private static LocalDate getDateFormatted(String date) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("E MMM dd, yyyy", Locale.ENGLISH);
-
-        return LocalDate.parse(getStringWithoutQuotes(date), formatter);
+    private static LocalDate getDateFormatted(CsvFieldScanner fields, LaunchDateParser dateParser) {
+        return dateParser.parse(fields.line(), fields.start(DATE_POS), fields.end(DATE_POS));
     }
 }
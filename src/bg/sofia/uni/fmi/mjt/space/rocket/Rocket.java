@@ -1,44 +1,59 @@
 package bg.sofia.uni.fmi.mjt.space.rocket;
 
+import bg.sofia.uni.fmi.mjt.space.csv.CsvFieldScanner;
+import bg.sofia.uni.fmi.mjt.space.dictionary.DatasetDictionary;
+
 import java.util.Optional;
 
 public record Rocket(String id, String name, Optional<String> wiki, Optional<Double> height) {
-    private static final String REGEX = ",(?=(?:[^\"]*\"[^\"]*\")*(?![^\"]*\"))";
     private static final int ID_POS = 0;
     private static final int NAME_POS = 1;
     private static final int WIKI_POS = 2;
     private static final int HEIGHT_POS = 3;
-    private static final int DATA_MEMBERS_COUNT = 4;
 
     public static Rocket of(String line) {
-        String[] tokens = line.split(REGEX);
+        return of(line, null);
+    }
 
-        String name = isSurroundedByQuotationMarks((tokens[NAME_POS])) ?
-            getNameFormatted(tokens[NAME_POS]) : tokens[NAME_POS];
+    /**
+     * Creates a rocket from a line of the rockets dataset,
+     * sharing its name with the missions of the dataset that use the rocket.
+     *
+     * @param line       the line to be parsed
+     * @param dictionary the dictionary the name is interned into, or null if it should not be interned
+     */
+    public static Rocket of(String line, DatasetDictionary dictionary) {
+        CsvFieldScanner fields = new CsvFieldScanner().scan(line);
 
         Optional<String> wiki;
-        if (wikiExists(WIKI_POS < tokens.length ? tokens[WIKI_POS] : null, tokens.length)) {
-            wiki = getWiki(tokens[WIKI_POS]);
-        } else {
+        if (fields.isEmpty(WIKI_POS)) {
             wiki = Optional.empty();
+        } else {
+            wiki = getWiki(fields.field(WIKI_POS));
         }
 
         Optional<Double> height;
-        if (heightExists(tokens.length)) {
-            height = getHeight(tokens[HEIGHT_POS]);
-        } else {
+        if (fields.isEmpty(HEIGHT_POS)) {
             height = Optional.empty();
+        } else {
+            height = getHeight(fields.field(HEIGHT_POS));
         }
 
-        return new Rocket(tokens[ID_POS], name, wiki, height);
+        String name = dictionary == null ? fields.field(NAME_POS) : dictionary.rocket(fields.field(NAME_POS));
+
+        return new Rocket(fields.field(ID_POS), name, wiki, height);
     }
 
-    private static Optional<String> getWiki(String wiki) {
-        return Optional.of(wiki);
+    /**
+     * Returns the height of the rocket in meters, or NaN if it is unknown, so that heights can be kept
+     * in primitive arrays.
+     */
+    public double heightOrNaN() {
+        return height.isPresent() ? height.get() : Double.NaN;
     }
 
-    private static boolean wikiExists(String wiki, int tokensCount) {
-        return (tokensCount == DATA_MEMBERS_COUNT - 1) || (tokensCount == DATA_MEMBERS_COUNT && !wiki.isEmpty());
+    private static Optional<String> getWiki(String wiki) {
+        return Optional.of(wiki);
     }
 
     private static Optional<Double> getHeight(String height) {
@@ -48,16 +63,4 @@ public record Rocket(String id, String name, Optional<String> wiki, Optional<Dou
 
         return Optional.of(Double.parseDouble(heightFormatted));
     }
-
-    private static boolean heightExists(int tokensCount) {
-        return tokensCount == DATA_MEMBERS_COUNT;
-    }
-
-    private static boolean isSurroundedByQuotationMarks(String str) {
-        return str.charAt(0) == '"';
-    }
-
-    private static String getNameFormatted(String name) {
-        return name.substring(1, name.length() - 1);
-    }
 }
\ No newline at end of file
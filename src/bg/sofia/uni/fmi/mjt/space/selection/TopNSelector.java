@@ -0,0 +1,233 @@
+package bg.sofia.uni.fmi.mjt.space.selection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * Selects the N elements with the smallest or the largest keys out of any number of offered elements,
+ * in O(m log N) time and O(N) memory. Keys are compared with Double.compare and
+ * elements with equal keys keep the order in which they were offered.
+ *
+ * @param <T> the type of the selected elements
+ */
+public class TopNSelector<T> {
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_N_MESSAGE = "n is less than or equal to 0";
+
+    private final boolean largest;
+    private final double[] keys;
+    private final long[] arrivals;
+    private final Object[] elements;
+    private int size;
+    private long offered;
+
+    private TopNSelector(int n, boolean largest) {
+        validateN(n);
+
+        this.largest = largest;
+        keys = new double[n];
+        arrivals = new long[n];
+        elements = new Object[n];
+    }
+
+    /**
+     * Creates a selector of the n elements with the smallest keys.
+     *
+     * @throws IllegalArgumentException if n is less than or equal to 0
+     */
+    public static <T> TopNSelector<T> smallest(int n) {
+        return new TopNSelector<>(n, false);
+    }
+
+    /**
+     * Creates a selector of the n elements with the largest keys.
+     *
+     * @throws IllegalArgumentException if n is less than or equal to 0
+     */
+    public static <T> TopNSelector<T> largest(int n) {
+        return new TopNSelector<>(n, true);
+    }
+
+    /**
+     * Returns a collector of the n elements with the smallest keys, ordered from the smallest key.
+     *
+     * @throws IllegalArgumentException if n is less than or equal to 0
+     */
+    public static <T> Collector<T, ?, List<T>> toSmallest(int n, ToDoubleFunction<? super T> keyExtractor) {
+        validateN(n);
+        return collector(() -> smallest(n), keyExtractor);
+    }
+
+    /**
+     * Returns a collector of the n elements with the largest keys, ordered from the largest key.
+     *
+     * @throws IllegalArgumentException if n is less than or equal to 0
+     */
+    public static <T> Collector<T, ?, List<T>> toLargest(int n, ToDoubleFunction<? super T> keyExtractor) {
+        validateN(n);
+        return collector(() -> largest(n), keyExtractor);
+    }
+
+    private static <T> Collector<T, TopNSelector<T>, List<T>> collector(Supplier<TopNSelector<T>> supplier,
+                                                                       ToDoubleFunction<? super T> keyExtractor) {
+        return Collector.of(supplier,
+            (selector, element) -> selector.offer(keyExtractor.applyAsDouble(element), element),
+            TopNSelector::merge,
+            TopNSelector::toList);
+    }
+
+    /**
+     * Returns whether an element with the given key would currently be selected if it was offered.
+     * Callers can use it to avoid creating elements that would be rejected anyway.
+     */
+    public boolean accepts(double key) {
+        return size < keys.length || isBetter(key, offered, 0);
+    }
+
+    /**
+     * Offers an element to the selector.
+     *
+     * @return whether the element is currently selected
+     */
+    public boolean offer(double key, T element) {
+        long arrival = offered++;
+
+        if (size < keys.length) {
+            set(size, key, arrival, element);
+            siftUp(size++);
+            return true;
+        }
+
+        if (!isBetter(key, arrival, 0)) {
+            return false;
+        }
+
+        set(0, key, arrival, element);
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Offers all elements selected by other, after the elements already offered to this selector.
+     *
+     * @return this selector
+     */
+    public TopNSelector<T> merge(TopNSelector<T> other) {
+        for (int position : other.positionsInArrivalOrder()) {
+            offer(other.keys[position], other.element(position));
+        }
+
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the selected elements, ordered from the best key.
+     */
+    public List<T> toList() {
+        Integer[] positions = new Integer[size];
+        Arrays.setAll(positions, i -> i);
+        Arrays.sort(positions, this::compareBest);
+
+        List<T> selected = new ArrayList<>(size);
+        for (int position : positions) {
+            selected.add(element(position));
+        }
+
+        return selected;
+    }
+
+    private static void validateN(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_N_MESSAGE);
+        }
+    }
+
+    private Integer[] positionsInArrivalOrder() {
+        Integer[] positions = new Integer[size];
+        Arrays.setAll(positions, i -> i);
+        Arrays.sort(positions, Comparator.comparingLong(position -> arrivals[position]));
+
+        return positions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int position) {
+        return (T) elements[position];
+    }
+
+    // a total order, from the best key, in which elements with equal keys are ordered by arrival
+    private int compareBest(int first, int second) {
+        int comparison = Double.compare(keys[first], keys[second]);
+        if (comparison == 0) {
+            return Long.compare(arrivals[first], arrivals[second]);
+        }
+
+        return largest ? -comparison : comparison;
+    }
+
+    private boolean isBetter(double key, long arrival, int position) {
+        int comparison = Double.compare(key, keys[position]);
+        if (comparison == 0) {
+            return arrival < arrivals[position];
+        }
+
+        return largest ? comparison > 0 : comparison < 0;
+    }
+
+    private void set(int position, double key, long arrival, Object element) {
+        keys[position] = key;
+        arrivals[position] = arrival;
+        elements[position] = element;
+    }
+
+    private void swap(int first, int second) {
+        double key = keys[first];
+        long arrival = arrivals[first];
+        Object element = elements[first];
+
+        set(first, keys[second], arrivals[second], elements[second]);
+        set(second, key, arrival, element);
+    }
+
+    // the heap keeps the worst selected element at its root, so it is the one replaced by better elements
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!isBetter(keys[parent], arrivals[parent], position)) {
+                return;
+            }
+
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int worst = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+
+            if (left < size && isBetter(keys[worst], arrivals[worst], left)) {
+                worst = left;
+            }
+            if (right < size && isBetter(keys[worst], arrivals[worst], right)) {
+                worst = right;
+            }
+            if (worst == position) {
+                return;
+            }
+
+            swap(position, worst);
+            position = worst;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package bg.sofia.uni.fmi.mjt.space.snapshot;
+
+import bg.sofia.uni.fmi.mjt.space.algorithm.SegmentCipher;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+/**
+ * Encrypts everything written to it in fixed-size segments, each of them authenticated on its own,
+ * so that the segments can later be decrypted independently and in parallel.
+ * The file starts with a plaintext header, which is authenticated together with every segment.
+ * The segments are encrypted under a key derived from the key of the cipher and a random salt in the header,
+ * so every file has a key of its own and no nonce is ever reused under a key, however many files are written.
+ * The nonce of a segment is made of a random prefix chosen once per file, the index of the segment and a flag
+ * marking the last segment, so reordered, dropped or truncated segments fail authentication.
+ * Nothing but the current segment is buffered.
+ */
+class SegmentEncryptingChannel implements WritableByteChannel {
+    static final int MAGIC = 0x4D4A5345;
+    static final int FORMAT_VERSION = 2;
+    static final int SALT_LENGTH = 32;
+    static final byte[] KEY_INFO = "MJT snapshot segments".getBytes(StandardCharsets.US_ASCII);
+    static final int SEGMENT_SIZE = 1 << 16;
+    static final int SEGMENT_INDEX_AND_FLAG_LENGTH = Integer.BYTES + Byte.BYTES;
+
+    private static final byte LAST_SEGMENT = 1;
+    private static final byte NOT_LAST_SEGMENT = 0;
+    private static final String ENCRYPTION_EXCEPTION_MESSAGE = "a segment of the snapshot cannot be encrypted";
+
+    private final FileChannel channel;
+    private final SegmentCipher fileCipher;
+    private final byte[] noncePrefix;
+    private final byte[] header;
+    private final ByteBuffer segment = ByteBuffer.allocateDirect(SEGMENT_SIZE);
+    private final ByteBuffer encryptedSegment;
+    private int segmentIndex;
+
+    /**
+     * Writes the header of the encrypted file to the channel.
+     *
+     * @param channel the channel of the encrypted file
+     * @param cipher  the cipher the key of the segments is derived from
+     * @throws IOException if the key cannot be derived or the header cannot be written
+     */
+    SegmentEncryptingChannel(FileChannel channel, SegmentCipher cipher) throws IOException {
+        this.channel = channel;
+
+        SecureRandom random = new SecureRandom();
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        noncePrefix = new byte[noncePrefixLength(cipher)];
+        random.nextBytes(noncePrefix);
+        try {
+            fileCipher = cipher.deriveSegmentCipher(salt, KEY_INFO);
+        } catch (CipherException e) {
+            throw new IOException(ENCRYPTION_EXCEPTION_MESSAGE, e);
+        }
+        header = header(SEGMENT_SIZE, salt, noncePrefix);
+        writeFully(ByteBuffer.wrap(header));
+
+        encryptedSegment = ByteBuffer.allocateDirect(SEGMENT_SIZE + cipher.segmentOverhead());
+    }
+
+    static int noncePrefixLength(SegmentCipher cipher) {
+        return cipher.segmentNonceLength() - SEGMENT_INDEX_AND_FLAG_LENGTH;
+    }
+
+    static int headerSize(int noncePrefixLength) {
+        return 3 * Integer.BYTES + SALT_LENGTH + noncePrefixLength;
+    }
+
+    static byte[] header(int segmentSize, byte[] salt, byte[] noncePrefix) {
+        return ByteBuffer.allocate(headerSize(noncePrefix.length))
+            .putInt(MAGIC)
+            .putInt(FORMAT_VERSION)
+            .putInt(segmentSize)
+            .put(salt)
+            .put(noncePrefix)
+            .array();
+    }
+
+    static byte[] nonce(byte[] noncePrefix, int segmentIndex, boolean last) {
+        return ByteBuffer.allocate(noncePrefix.length + SEGMENT_INDEX_AND_FLAG_LENGTH)
+            .put(noncePrefix)
+            .putInt(segmentIndex)
+            .put(last ? LAST_SEGMENT : NOT_LAST_SEGMENT)
+            .array();
+    }
+
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+        int written = source.remaining();
+        while (source.hasRemaining()) {
+            // a full segment is encrypted only when more data follows, as the last segment is encrypted by finish
+            if (!segment.hasRemaining()) {
+                encryptSegment(false);
+            }
+
+            int chunk = Math.min(source.remaining(), segment.remaining());
+            segment.put(segment.position(), source, source.position(), chunk);
+            segment.position(segment.position() + chunk);
+            source.position(source.position() + chunk);
+        }
+
+        return written;
+    }
+
+    /**
+     * Encrypts the last segment, which makes the encrypted file complete, and forces it to the storage device.
+     *
+     * @throws IOException if the segment cannot be encrypted or written
+     */
+    void finish() throws IOException {
+        encryptSegment(true);
+        channel.force(true);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void encryptSegment(boolean last) throws IOException {
+        segment.flip();
+        encryptedSegment.clear();
+        try {
+            fileCipher.encryptSegment(segment, encryptedSegment, nonce(noncePrefix, segmentIndex, last), header);
+        } catch (CipherException e) {
+            throw new IOException(ENCRYPTION_EXCEPTION_MESSAGE, e);
+        }
+
+        encryptedSegment.flip();
+        writeFully(encryptedSegment);
+        segment.clear();
+        segmentIndex++;
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package bg.sofia.uni.fmi.mjt.space.snapshot;
+
+import bg.sofia.uni.fmi.mjt.space.algorithm.SegmentCipher;
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.exception.SnapshotException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads a snapshot written by SnapshotWriter from a memory-mapped file.
+ * The header is validated when the snapshot is opened, so stale or corrupt snapshots are rejected
+ * before any of their content is read. Arrays are copied out of the mapping in bulk.
+ * The segments of an encrypted snapshot are decrypted and authenticated in parallel when it is opened.
+ */
+public class SnapshotReader {
+    private static final String NOT_A_SNAPSHOT_MESSAGE = "the file is not a snapshot";
+    private static final String UNSUPPORTED_VERSION_MESSAGE = "the snapshot format version %d is not supported";
+    private static final String TRUNCATED_MESSAGE = "the snapshot is truncated";
+    private static final String CORRUPT_MESSAGE = "the checksum of the snapshot does not match its content";
+    private static final String TOO_LARGE_MESSAGE = "the snapshot is larger than 2 GB";
+    private static final String NOT_AUTHENTIC_MESSAGE = "the snapshot cannot be decrypted or it was modified";
+
+    private final ByteBuffer payload;
+    private byte[] stringBytes = new byte[0];
+
+    private SnapshotReader(ByteBuffer payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Maps the snapshot file and validates its header and checksum.
+     *
+     * @param file the snapshot file
+     * @throws IOException       if the file cannot be read
+     * @throws SnapshotException if the file is not a valid snapshot of the current format version
+     */
+    public static SnapshotReader open(Path file) throws IOException, SnapshotException {
+        ByteBuffer snapshot = map(file);
+
+        if (snapshot.remaining() < SnapshotWriter.HEADER_SIZE) {
+            throw new SnapshotException(TRUNCATED_MESSAGE);
+        }
+        validateMagicAndVersion(snapshot, SnapshotWriter.MAGIC, SnapshotWriter.FORMAT_VERSION);
+
+        long payloadLength = snapshot.getLong();
+        long expectedChecksum = snapshot.getLong();
+        if (payloadLength != snapshot.remaining()) {
+            throw new SnapshotException(TRUNCATED_MESSAGE);
+        }
+
+        ByteBuffer payload = snapshot.slice();
+        CRC32C checksum = new CRC32C();
+        checksum.update(payload.duplicate());
+        if (checksum.getValue() != expectedChecksum) {
+            throw new SnapshotException(CORRUPT_MESSAGE);
+        }
+
+        return new SnapshotReader(payload);
+    }
+
+    /**
+     * Maps a snapshot written by an encrypted SnapshotWriter, validates its header and decrypts and authenticates
+     * all of its segments in parallel on the common fork-join pool.
+     *
+     * @param file   the snapshot file
+     * @param cipher the cipher the snapshot was encrypted with
+     * @throws IOException       if the file cannot be read
+     * @throws SnapshotException if the file is not an encrypted snapshot of the current format version,
+     *                           or it cannot be decrypted with the cipher or any of its segments was modified
+     */
+    public static SnapshotReader openEncrypted(Path file, SegmentCipher cipher)
+        throws IOException, SnapshotException {
+        ByteBuffer snapshot = map(file);
+
+        int headerSize = SegmentEncryptingChannel.headerSize(SegmentEncryptingChannel.noncePrefixLength(cipher));
+        if (snapshot.remaining() < headerSize + cipher.segmentOverhead()) {
+            throw new SnapshotException(TRUNCATED_MESSAGE);
+        }
+        validateMagicAndVersion(snapshot, SegmentEncryptingChannel.MAGIC, SegmentEncryptingChannel.FORMAT_VERSION);
+
+        int segmentSize = snapshot.getInt();
+        byte[] salt = new byte[SegmentEncryptingChannel.SALT_LENGTH];
+        snapshot.get(salt);
+        byte[] noncePrefix = new byte[SegmentEncryptingChannel.noncePrefixLength(cipher)];
+        snapshot.get(noncePrefix);
+        // the header is not authenticated yet, so the segment size must not overflow any offset, though a snapshot
+        // shorter than a segment has a segment size larger than its segments
+        if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE - cipher.segmentOverhead()) {
+            throw new SnapshotException(NOT_AUTHENTIC_MESSAGE);
+        }
+
+        SegmentCipher fileCipher;
+        try {
+            fileCipher = cipher.deriveSegmentCipher(salt, SegmentEncryptingChannel.KEY_INFO);
+        } catch (CipherException e) {
+            throw new SnapshotException(NOT_AUTHENTIC_MESSAGE, e);
+        }
+        SegmentDecryptor decryptor = new SegmentDecryptor(fileCipher, snapshot.slice(), segmentSize,
+            SegmentEncryptingChannel.header(segmentSize, salt, noncePrefix), noncePrefix);
+        if (!IntStream.range(0, decryptor.segmentsCount()).parallel().allMatch(decryptor::decrypt)) {
+            throw new SnapshotException(NOT_AUTHENTIC_MESSAGE);
+        }
+
+        return new SnapshotReader(decryptor.payload());
+    }
+
+    private static ByteBuffer map(Path file) throws IOException, SnapshotException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new SnapshotException(TOO_LARGE_MESSAGE);
+            }
+
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static void validateMagicAndVersion(ByteBuffer snapshot, int magic, int formatVersion)
+        throws SnapshotException {
+        if (snapshot.getInt() != magic) {
+            throw new SnapshotException(NOT_A_SNAPSHOT_MESSAGE);
+        }
+
+        int version = snapshot.getInt();
+        if (version != formatVersion) {
+            throw new SnapshotException(UNSUPPORTED_VERSION_MESSAGE.formatted(version));
+        }
+    }
+
+    public byte readByte() {
+        return payload.get();
+    }
+
+    public int readInt() {
+        return payload.getInt();
+    }
+
+    public long readLong() {
+        return payload.getLong();
+    }
+
+    public double readDouble() {
+        return payload.getDouble();
+    }
+
+    public byte[] readBytes() {
+        byte[] values = new byte[payload.getInt()];
+        payload.get(values);
+
+        return values;
+    }
+
+    public int[] readInts() {
+        int[] values = new int[payload.getInt()];
+        payload.asIntBuffer().get(values);
+        payload.position(payload.position() + values.length * Integer.BYTES);
+
+        return values;
+    }
+
+    public double[] readDoubles() {
+        double[] values = new double[payload.getInt()];
+        payload.asDoubleBuffer().get(values);
+        payload.position(payload.position() + values.length * Double.BYTES);
+
+        return values;
+    }
+
+    /**
+     * Reads a string written by SnapshotWriter.writeString, which can be null.
+     */
+    public String readString() {
+        int length = payload.getInt();
+        if (length == SnapshotWriter.NULL_LENGTH) {
+            return null;
+        }
+
+        if (length > stringBytes.length) {
+            stringBytes = new byte[Math.max(length, 2 * stringBytes.length)];
+        }
+        payload.get(stringBytes, 0, length);
+
+        return new String(stringBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public String[] readStrings() {
+        String[] values = new String[payload.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString();
+        }
+
+        return values;
+    }
+
+    /**
+     * Returns whether all the content of the snapshot has been read.
+     */
+    public boolean isFullyRead() {
+        return !payload.hasRemaining();
+    }
+
+    private static final class SegmentDecryptor {
+        private final SegmentCipher cipher;
+        private final ByteBuffer segments;
+        private final int segmentSize;
+        private final long encryptedSegmentSize;
+        private final int segmentsCount;
+        private final byte[] noncePrefix;
+        private final byte[] header;
+        private final ByteBuffer payload;
+
+        private SegmentDecryptor(SegmentCipher cipher, ByteBuffer segments, int segmentSize, byte[] header,
+                                 byte[] noncePrefix) {
+            this.cipher = cipher;
+            this.segments = segments;
+            this.segmentSize = segmentSize;
+            this.header = header;
+            this.noncePrefix = noncePrefix;
+
+            // every segment but the last one is full and the last one can be empty, but it always has an overhead
+            encryptedSegmentSize = (long) segmentSize + cipher.segmentOverhead();
+            segmentsCount = (int) ((segments.remaining() - cipher.segmentOverhead()) / encryptedSegmentSize + 1);
+            payload = ByteBuffer.allocate(segments.remaining() - segmentsCount * cipher.segmentOverhead());
+        }
+
+        private int segmentsCount() {
+            return segmentsCount;
+        }
+
+        private ByteBuffer payload() {
+            return payload;
+        }
+
+        private boolean decrypt(int segmentIndex) {
+            long encryptedFrom = segmentIndex * encryptedSegmentSize;
+            int encryptedLength = (int) Math.min(encryptedSegmentSize, segments.limit() - encryptedFrom);
+            long from = (long) segmentIndex * segmentSize;
+            byte[] nonce = SegmentEncryptingChannel.nonce(noncePrefix, segmentIndex,
+                segmentIndex == segmentsCount - 1);
+
+            try {
+                cipher.decryptSegment(segments.slice((int) encryptedFrom, encryptedLength),
+                    payload.slice((int) from, encryptedLength - cipher.segmentOverhead()),
+                    nonce, header);
+                return true;
+            } catch (CipherException e) {
+                return false;
+            }
+        }
+    }
+}
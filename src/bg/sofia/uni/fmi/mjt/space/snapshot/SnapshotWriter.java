@@ -0,0 +1,196 @@
+package bg.sofia.uni.fmi.mjt.space.snapshot;
+
+import bg.sofia.uni.fmi.mjt.space.algorithm.SegmentCipher;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Writes a binary snapshot file: a header with a magic number, the format version, the length and the CRC32C
+ * checksum of the payload, followed by the payload written through this writer.
+ * Arrays are written length-prefixed and in bulk, so that SnapshotReader can read them back without parsing.
+ * The header is written only by finish, so a snapshot whose writing failed is never taken for a valid one.
+ * An encrypted snapshot has no such header, its payload is written through a SegmentEncryptingChannel instead.
+ */
+public class SnapshotWriter implements Closeable {
+    static final int MAGIC = 0x4D4A5453;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES;
+    static final int NULL_LENGTH = -1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final WritableByteChannel payloadChannel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32C checksum = new CRC32C();
+    private long payloadLength;
+
+    /**
+     * Creates the snapshot file, replacing it if it exists.
+     *
+     * @param file the snapshot file
+     * @throws IOException if the file cannot be created
+     */
+    public SnapshotWriter(Path file) throws IOException {
+        channel = open(file);
+        channel.position(HEADER_SIZE);
+        payloadChannel = channel;
+    }
+
+    private SnapshotWriter(FileChannel channel, SegmentCipher cipher) throws IOException {
+        this.channel = channel;
+        try {
+            payloadChannel = new SegmentEncryptingChannel(channel, cipher);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an encrypted snapshot file, replacing it if it exists.
+     * The payload is encrypted and authenticated in segments as it is written, which SnapshotReader.openEncrypted
+     * decrypts in parallel.
+     *
+     * @param file   the snapshot file
+     * @param cipher the cipher the payload is encrypted with
+     * @throws IOException if the file cannot be created
+     */
+    public static SnapshotWriter encrypted(Path file, SegmentCipher cipher) throws IOException {
+        return new SnapshotWriter(open(file), cipher);
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    }
+
+    public void writeByte(byte value) throws IOException {
+        ensureRemaining(Byte.BYTES);
+        buffer.put(value);
+    }
+
+    public void writeInt(int value) throws IOException {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    public void writeLong(long value) throws IOException {
+        ensureRemaining(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    public void writeDouble(double value) throws IOException {
+        ensureRemaining(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    public void writeBytes(byte[] values, int count) throws IOException {
+        writeInt(count);
+        for (int written = 0; written < count; ) {
+            ensureRemaining(Byte.BYTES);
+            int chunk = Math.min(count - written, buffer.remaining());
+            buffer.put(values, written, chunk);
+            written += chunk;
+        }
+    }
+
+    public void writeInts(int[] values, int count) throws IOException {
+        writeInt(count);
+        for (int written = 0; written < count; ) {
+            ensureRemaining(Integer.BYTES);
+            int chunk = Math.min(count - written, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(values, written, chunk);
+            buffer.position(buffer.position() + chunk * Integer.BYTES);
+            written += chunk;
+        }
+    }
+
+    public void writeDoubles(double[] values, int count) throws IOException {
+        writeInt(count);
+        for (int written = 0; written < count; ) {
+            ensureRemaining(Double.BYTES);
+            int chunk = Math.min(count - written, buffer.remaining() / Double.BYTES);
+            buffer.asDoubleBuffer().put(values, written, chunk);
+            buffer.position(buffer.position() + chunk * Double.BYTES);
+            written += chunk;
+        }
+    }
+
+    /**
+     * Writes the string in UTF-8, length-prefixed.
+     *
+     * @param value the string to be written, can be null
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeInt(NULL_LENGTH);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeBytes(bytes, bytes.length);
+    }
+
+    public void writeStrings(String[] values, int count) throws IOException {
+        writeInt(count);
+        for (int i = 0; i < count; i++) {
+            writeString(values[i]);
+        }
+    }
+
+    /**
+     * Writes the header, or the last segment of an encrypted snapshot, which makes the snapshot valid,
+     * and forces the snapshot to the storage device.
+     *
+     * @throws IOException if writing fails
+     */
+    public void finish() throws IOException {
+        flush();
+
+        if (payloadChannel instanceof SegmentEncryptingChannel encryptingChannel) {
+            encryptingChannel.finish();
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+            .putInt(MAGIC)
+            .putInt(FORMAT_VERSION)
+            .putLong(payloadLength)
+            .putLong(checksum.getValue())
+            .flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+        payloadLength += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            payloadChannel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
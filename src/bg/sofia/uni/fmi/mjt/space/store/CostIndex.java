@@ -0,0 +1,203 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Rows of a MissionStore which have a cost, split into partitions (for example per mission and rocket status)
+ * and ordered by cost and then by row inside every partition.
+ * The N cheapest rows of a partition are a prefix of its slice and the N most expensive ones are a suffix.
+ */
+public class CostIndex {
+    private final int[] offsets;
+    private final int[] rows;
+    private final double[] costs;
+
+    private CostIndex(int[] offsets, int[] rows, double[] costs) {
+        this.offsets = offsets;
+        this.rows = rows;
+        this.costs = costs;
+    }
+
+    /**
+     * Indexes the rows of the store which have a cost, sorting the partitions in parallel.
+     *
+     * @param store           the store to be indexed
+     * @param partitionOfRow  maps a row to its partition, partitions must be in [0, partitionsCount)
+     * @param partitionsCount the number of partitions
+     */
+    public static CostIndex of(MissionStore store, IntUnaryOperator partitionOfRow, int partitionsCount) {
+        return of(store, 0, store.size(), partitionOfRow, partitionsCount);
+    }
+
+    /**
+     * Indexes the rows of the store from fromRow to toRow which have a cost, sorting the partitions in parallel.
+     *
+     * @param store           the store to be indexed
+     * @param fromRow         the first row to be indexed
+     * @param toRow           the row after the last row to be indexed
+     * @param partitionOfRow  maps a row to its partition, partitions must be in [0, partitionsCount)
+     * @param partitionsCount the number of partitions
+     */
+    public static CostIndex of(MissionStore store, int fromRow, int toRow, IntUnaryOperator partitionOfRow,
+                               int partitionsCount) {
+        int[] partitions = new int[toRow - fromRow];
+        int[] offsets = new int[partitionsCount + 1];
+        for (int row = fromRow; row < toRow; row++) {
+            if (store.hasCost(row)) {
+                partitions[row - fromRow] = partitionOfRow.applyAsInt(row);
+                offsets[partitions[row - fromRow] + 1]++;
+            }
+        }
+        for (int partition = 0; partition < partitionsCount; partition++) {
+            offsets[partition + 1] += offsets[partition];
+        }
+
+        int[] next = Arrays.copyOf(offsets, partitionsCount);
+        int[] rows = new int[offsets[partitionsCount]];
+        for (int row = fromRow; row < toRow; row++) {
+            if (store.hasCost(row)) {
+                rows[next[partitions[row - fromRow]]++] = row;
+            }
+        }
+
+        double[] costs = new double[rows.length];
+        IntStream.range(0, partitionsCount)
+            .parallel()
+            .forEach(partition -> sortByCost(store, rows, costs, offsets[partition], offsets[partition + 1]));
+
+        return new CostIndex(offsets, rows, costs);
+    }
+
+    /**
+     * Merges the indexes of two ranges of rows of a store, all rows of older being before those of newer,
+     * into an index of both ranges in a linear pass over every partition.
+     *
+     * @param older the index of the first range
+     * @param newer the index of the second range, with the same partitions
+     */
+    public static CostIndex merge(CostIndex older, CostIndex newer) {
+        int[] offsets = new int[older.offsets.length];
+        int[] rows = new int[older.rows.length + newer.rows.length];
+        double[] costs = new double[rows.length];
+        for (int partition = 0; partition < older.partitionsCount(); partition++) {
+            int olderPosition = older.offsets[partition];
+            int newerPosition = newer.offsets[partition];
+
+            int position = offsets[partition];
+            while (olderPosition < older.offsets[partition + 1] || newerPosition < newer.offsets[partition + 1]) {
+                // on equal costs the row of older comes first, as it is the smaller row
+                boolean fromOlder = newerPosition == newer.offsets[partition + 1]
+                    || olderPosition < older.offsets[partition + 1]
+                    && Double.compare(older.costs[olderPosition], newer.costs[newerPosition]) <= 0;
+                CostIndex source = fromOlder ? older : newer;
+                int sourcePosition = fromOlder ? olderPosition++ : newerPosition++;
+                rows[position] = source.rows[sourcePosition];
+                costs[position] = source.costs[sourcePosition];
+                position++;
+            }
+            offsets[partition + 1] = position;
+        }
+
+        return new CostIndex(offsets, rows, costs);
+    }
+
+    /**
+     * Reads an index written by writeTo.
+     *
+     * @param in the snapshot the index is read from
+     */
+    public static CostIndex readFrom(SnapshotReader in) {
+        return new CostIndex(in.readInts(), in.readInts(), in.readDoubles());
+    }
+
+    /**
+     * Writes the index.
+     *
+     * @param out the snapshot the index is written to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.writeInts(offsets, offsets.length);
+        out.writeInts(rows, rows.length);
+        out.writeDoubles(costs, costs.length);
+    }
+
+    // equal costs get the same rank, so sorting the (rank, row) pairs keeps the rows with equal costs in row order
+    private static void sortByCost(MissionStore store, int[] rows, double[] costs, int from, int to) {
+        double[] sortedCosts = new double[to - from];
+        for (int i = from; i < to; i++) {
+            sortedCosts[i - from] = store.cost(rows[i]);
+        }
+        Arrays.sort(sortedCosts);
+
+        long[] rankRowPairs = new long[to - from];
+        for (int i = from; i < to; i++) {
+            long rank = Arrays.binarySearch(sortedCosts, store.cost(rows[i]));
+            rankRowPairs[i - from] = rank << Integer.SIZE | rows[i];
+        }
+        Arrays.sort(rankRowPairs);
+
+        for (int i = from; i < to; i++) {
+            rows[i] = (int) rankRowPairs[i - from];
+            costs[i] = sortedCosts[i - from];
+        }
+    }
+
+    public int partitionsCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the rows of all partitions, the array must not be modified.
+     */
+    public int[] rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the position in rows() of the cheapest row of the partition.
+     */
+    public int start(int partition) {
+        return offsets[partition];
+    }
+
+    public int size(int partition) {
+        return offsets[partition + 1] - offsets[partition];
+    }
+
+    /**
+     * Returns the position in rows() right after the n cheapest rows of the partition.
+     */
+    public int cheapestEnd(int partition, int n) {
+        return offsets[partition] + Math.min(n, size(partition));
+    }
+
+    /**
+     * Returns the n most expensive rows of the partition, ordered from the most expensive one.
+     * Rows with equal costs are in row order.
+     */
+    public int[] mostExpensive(int partition, int n) {
+        int[] mostExpensiveRows = new int[Math.min(n, size(partition))];
+        int count = 0;
+        int runEnd = offsets[partition + 1];
+        while (count < mostExpensiveRows.length) {
+            int runStart = runEnd - 1;
+            while (runStart > offsets[partition] && Double.compare(costs[runStart - 1], costs[runEnd - 1]) == 0) {
+                runStart--;
+            }
+
+            for (int i = runStart; i < runEnd && count < mostExpensiveRows.length; i++) {
+                mostExpensiveRows[count++] = rows[i];
+            }
+            runEnd = runStart;
+        }
+
+        return mostExpensiveRows;
+    }
+}
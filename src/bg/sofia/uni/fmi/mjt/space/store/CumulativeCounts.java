@@ -0,0 +1,187 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Cumulative counts of the rows of a DateIndex per key (for example per company or per rocket).
+ * The dates of every key are kept sorted next to each other, so the position of a date among them is the number
+ * of rows of the key launched before it and the count for any time frame is the difference of two positions.
+ * Unlike a dense prefix-sum table per key, the memory needed is linear in the number of rows.
+ */
+public class CumulativeCounts {
+    private final int[] offsets;
+    private final int[] dates;
+
+    private CumulativeCounts(int[] offsets, int[] dates) {
+        this.offsets = offsets;
+        this.dates = dates;
+    }
+
+    /**
+     * Counts the rows of the index per key.
+     *
+     * @param index     the rows to be counted, in date order
+     * @param store     the store the rows belong to
+     * @param keyOfRow  maps a row to its key, keys must be in [0, keysCount)
+     * @param keysCount the number of keys
+     */
+    public static CumulativeCounts of(DateIndex index, MissionStore store, IntUnaryOperator keyOfRow,
+                                      int keysCount) {
+        int[] keys = new int[index.size()];
+        int[] offsets = new int[keysCount + 1];
+        for (int i = 0; i < index.size(); i++) {
+            keys[i] = keyOfRow.applyAsInt(index.row(i));
+            offsets[keys[i] + 1]++;
+        }
+        for (int key = 0; key < keysCount; key++) {
+            offsets[key + 1] += offsets[key];
+        }
+
+        int[] next = new int[keysCount];
+        System.arraycopy(offsets, 0, next, 0, keysCount);
+
+        int[] dates = new int[index.size()];
+        for (int i = 0; i < index.size(); i++) {
+            dates[next[keys[i]]++] = store.date(index.row(i));
+        }
+
+        return new CumulativeCounts(offsets, dates);
+    }
+
+    /**
+     * Merges the counts of two ranges of rows of a store into the counts of both ranges, in a linear pass
+     * over the dates of every key. Keys which only one of them knows keep their rows.
+     *
+     * @param older the counts of the first range
+     * @param newer the counts of the second range
+     */
+    public static CumulativeCounts merge(CumulativeCounts older, CumulativeCounts newer) {
+        int keysCount = Math.max(older.keysCount(), newer.keysCount());
+        int[] offsets = new int[keysCount + 1];
+        int[] dates = new int[older.dates.length + newer.dates.length];
+        for (int key = 0; key < keysCount; key++) {
+            int olderPosition = key < older.keysCount() ? older.offsets[key] : 0;
+            int olderEnd = key < older.keysCount() ? older.offsets[key + 1] : 0;
+            int newerPosition = key < newer.keysCount() ? newer.offsets[key] : 0;
+            int newerEnd = key < newer.keysCount() ? newer.offsets[key + 1] : 0;
+
+            int position = offsets[key];
+            while (olderPosition < olderEnd || newerPosition < newerEnd) {
+                boolean fromOlder = newerPosition == newerEnd
+                    || olderPosition < olderEnd && older.dates[olderPosition] <= newer.dates[newerPosition];
+                dates[position++] = fromOlder ? older.dates[olderPosition++] : newer.dates[newerPosition++];
+            }
+            offsets[key + 1] = position;
+        }
+
+        return new CumulativeCounts(offsets, dates);
+    }
+
+    /**
+     * Reads an index written by writeTo.
+     *
+     * @param in the snapshot the index is read from
+     */
+    public static CumulativeCounts readFrom(SnapshotReader in) {
+        return new CumulativeCounts(in.readInts(), in.readInts());
+    }
+
+    /**
+     * Writes the index.
+     *
+     * @param out the snapshot the index is written to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.writeInts(offsets, offsets.length);
+        out.writeInts(dates, dates.length);
+    }
+
+    public int keysCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the number of rows of the key launched between fromDay and toDay, both inclusive.
+     * Keys which were not known when the counts were created have no rows.
+     */
+    public int count(int key, long fromDay, long toDay) {
+        if (key < 0 || key >= keysCount()) {
+            return 0;
+        }
+
+        int keyStart = offsets[key];
+        int keyEnd = offsets[key + 1];
+        return firstLaunchedAfter(keyStart, keyEnd, toDay) - firstLaunchedOnOrAfter(keyStart, keyEnd, fromDay);
+    }
+
+    /**
+     * Returns the number of all rows of the key.
+     */
+    public int count(int key) {
+        return key < 0 || key >= keysCount() ? 0 : offsets[key + 1] - offsets[key];
+    }
+
+    /**
+     * Puts the number of rows of the key launched before each of the days into counts.
+     * The sorted dates of the key are searched for the days one after another, each search galloping forward
+     * from where the previous one ended, so a key with m rows takes O(days * log(m / days + 1)) comparisons
+     * instead of O(days * log m) for separate searches or O(m + days) for merging its dates with the days.
+     *
+     * @param key    the key, keys which were not known when the counts were created have no rows
+     * @param days   the days, in ascending order
+     * @param counts the array the counts are put into, one per day
+     */
+    public void countBefore(int key, long[] days, int[] counts) {
+        int keyStart = key < 0 || key >= keysCount() ? 0 : offsets[key];
+        int keyEnd = key < 0 || key >= keysCount() ? 0 : offsets[key + 1];
+
+        int position = keyStart;
+        for (int day = 0; day < days.length; day++) {
+            int step = 1;
+            int bound = position;
+            while (bound < keyEnd && dates[bound] < days[day]) {
+                position = bound + 1;
+                bound += step;
+                step <<= 1;
+            }
+
+            position = firstLaunchedOnOrAfter(position, Math.min(bound, keyEnd), days[day]);
+            counts[day] = position - keyStart;
+        }
+    }
+
+    private int firstLaunchedOnOrAfter(int from, int to, long day) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private int firstLaunchedAfter(int from, int to, long day) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] <= day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
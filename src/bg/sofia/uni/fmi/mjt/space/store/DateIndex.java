@@ -0,0 +1,168 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Rows of a MissionStore ordered by launch date, so that the rows in a time frame form a contiguous slice
+ * which is found with two binary searches.
+ */
+public class DateIndex {
+    private final int[] rows;
+    private final int[] dates;
+
+    private DateIndex(int[] rows, int[] dates) {
+        this.rows = rows;
+        this.dates = dates;
+    }
+
+    /**
+     * Creates an index of all rows of the store, ordered by date and then by row.
+     *
+     * @param store the store to be indexed
+     */
+    public static DateIndex of(MissionStore store) {
+        return of(store, 0, store.size());
+    }
+
+    /**
+     * Creates an index of the rows of the store from fromRow to toRow, ordered by date and then by row.
+     *
+     * @param store   the store to be indexed
+     * @param fromRow the first row to be indexed
+     * @param toRow   the row after the last row to be indexed
+     */
+    public static DateIndex of(MissionStore store, int fromRow, int toRow) {
+        long[] dateRowPairs = new long[toRow - fromRow];
+        for (int row = fromRow; row < toRow; row++) {
+            dateRowPairs[row - fromRow] = (long) store.date(row) << Integer.SIZE | row;
+        }
+        Arrays.sort(dateRowPairs);
+
+        int[] rows = new int[dateRowPairs.length];
+        int[] dates = new int[dateRowPairs.length];
+        for (int i = 0; i < dateRowPairs.length; i++) {
+            rows[i] = (int) dateRowPairs[i];
+            dates[i] = (int) (dateRowPairs[i] >> Integer.SIZE);
+        }
+
+        return new DateIndex(rows, dates);
+    }
+
+    /**
+     * Merges the indexes of two ranges of rows of a store, all rows of older being before those of newer,
+     * into an index of both ranges in a single linear pass.
+     *
+     * @param older the index of the first range
+     * @param newer the index of the second range
+     */
+    public static DateIndex merge(DateIndex older, DateIndex newer) {
+        int[] rows = new int[older.size() + newer.size()];
+        int[] dates = new int[rows.length];
+        int olderPosition = 0;
+        int newerPosition = 0;
+        for (int i = 0; i < rows.length; i++) {
+            // on equal dates the row of older comes first, as it is the smaller row
+            boolean fromOlder = newerPosition == newer.size()
+                || olderPosition < older.size() && older.dates[olderPosition] <= newer.dates[newerPosition];
+            DateIndex source = fromOlder ? older : newer;
+            int position = fromOlder ? olderPosition++ : newerPosition++;
+            rows[i] = source.rows[position];
+            dates[i] = source.dates[position];
+        }
+
+        return new DateIndex(rows, dates);
+    }
+
+    /**
+     * Reads an index written by writeTo.
+     *
+     * @param in the snapshot the index is read from
+     */
+    public static DateIndex readFrom(SnapshotReader in) {
+        return new DateIndex(in.readInts(), in.readInts());
+    }
+
+    /**
+     * Writes the index.
+     *
+     * @param out the snapshot the index is written to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        out.writeInts(rows, rows.length);
+        out.writeInts(dates, dates.length);
+    }
+
+    /**
+     * Creates an index of the rows of this index which satisfy the filter, keeping their order.
+     *
+     * @param rowFilter the filter the rows must satisfy
+     */
+    public DateIndex filter(IntPredicate rowFilter) {
+        int[] filteredRows = new int[rows.length];
+        int[] filteredDates = new int[rows.length];
+        int count = 0;
+        for (int i = 0; i < rows.length; i++) {
+            if (rowFilter.test(rows[i])) {
+                filteredRows[count] = rows[i];
+                filteredDates[count] = dates[i];
+                count++;
+            }
+        }
+
+        return new DateIndex(Arrays.copyOf(filteredRows, count), Arrays.copyOf(filteredDates, count));
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    public int row(int position) {
+        return rows[position];
+    }
+
+    /**
+     * Returns the rows of the index, the array must not be modified.
+     */
+    public int[] rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the first position whose date is on or after the given epoch day.
+     */
+    public int from(long fromDay) {
+        int low = 0;
+        int high = dates.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] < fromDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns the first position whose date is after the given epoch day.
+     */
+    public int to(long toDay) {
+        return toDay == Long.MAX_VALUE ? dates.length : from(toDay + 1);
+    }
+
+    /**
+     * Returns the rows launched between fromDay and toDay, both inclusive, in date order.
+     */
+    public IntStream rows(long fromDay, long toDay) {
+        return Arrays.stream(rows, from(fromDay), to(toDay));
+    }
+}
@@ -0,0 +1,230 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.dictionary.StringDictionary;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * The answers of the queries over all missions of a MissionStore, which take no arguments and so are fixed
+ * for the store. They are computed once, either when the views are created or when they are first requested,
+ * and then returned as they are.
+ * The missions per country are kept as an offset table per country into the rows sorted by country,
+ * over which the collections of every country are views.
+ * The views are computed in parallel if their parallelism allows it for the number of missions of the store.
+ */
+public class MaterializedViews {
+    private static final int NOT_FOUND = -1;
+
+    private final MissionStore missions;
+    private final Mode mode;
+    private final QueryParallelism parallelism;
+    // computed at most a few times, if several threads request a view before it is published, and never changed
+    private volatile Map<String, Collection<Mission>> missionsPerCountry;
+    private volatile Map<String, String> mostDesiredLocationPerCompany;
+
+    /**
+     * When the views are computed.
+     */
+    public enum Mode {
+        /**
+         * When the views are created, so that no query waits for them. Every append to a scanner computes
+         * the views of all of its missions again, so appends of single missions are much slower.
+         */
+        EAGER,
+        /**
+         * When each of the views is first requested, so that views which are never requested are never computed.
+         */
+        LAZY
+    }
+
+    private MaterializedViews(MissionStore missions, Mode mode, QueryParallelism parallelism) {
+        this.missions = missions;
+        this.mode = mode;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates the views of all missions of the store.
+     *
+     * @param missions the store
+     * @param mode     when the views are computed
+     */
+    public static MaterializedViews of(MissionStore missions, Mode mode) {
+        return of(missions, mode, QueryParallelism.sequential());
+    }
+
+    /**
+     * Creates the views of all missions of the store.
+     *
+     * @param missions    the store
+     * @param mode        when the views are computed
+     * @param parallelism how the views are computed
+     */
+    public static MaterializedViews of(MissionStore missions, Mode mode, QueryParallelism parallelism) {
+        MaterializedViews views = new MaterializedViews(missions, mode, parallelism);
+        if (mode == Mode.EAGER) {
+            views.missionsPerCountry();
+            views.mostDesiredLocationPerCompany();
+        }
+
+        return views;
+    }
+
+    /**
+     * Creates the views of another store, computed in the same mode and with the same parallelism as these.
+     *
+     * @param otherMissions the store
+     */
+    public MaterializedViews of(MissionStore otherMissions) {
+        return of(otherMissions, mode, parallelism);
+    }
+
+    /**
+     * Returns the missions of every country, as an unmodifiable map of unmodifiable collections.
+     */
+    public Map<String, Collection<Mission>> missionsPerCountry() {
+        Map<String, Collection<Mission>> view = missionsPerCountry;
+        if (view == null) {
+            view = computeMissionsPerCountry();
+            missionsPerCountry = view;
+        }
+
+        return view;
+    }
+
+    /**
+     * Returns the location with the most missions of every company, as an unmodifiable map.
+     */
+    public Map<String, String> mostDesiredLocationPerCompany() {
+        Map<String, String> view = mostDesiredLocationPerCompany;
+        if (view == null) {
+            view = mostDesiredLocationPerCompany(missions, IntStream.range(0, missions.size()), missions.size(),
+                parallelism);
+            mostDesiredLocationPerCompany = view;
+        }
+
+        return view;
+    }
+
+    /**
+     * Returns the location with the most of the given missions of every company with any of them,
+     * as an unmodifiable map. Of locations with equally many missions, the one with the largest id wins.
+     * The pairs of company and location of the missions are sorted and then the runs of every company
+     * are scanned, both in parallel if the policy allows it.
+     *
+     * @param missions    the store
+     * @param rows        the rows of the missions, which must split well when parallel
+     * @param rowsCount   the number of rows
+     * @param parallelism how the query is executed
+     */
+    public static Map<String, String> mostDesiredLocationPerCompany(MissionStore missions, IntStream rows,
+                                                                    int rowsCount, QueryParallelism parallelism) {
+        long[] companyLocationPairs = parallelism.execute(rowsCount, rows, parallelRows -> parallelRows
+            .mapToLong(row -> (long) missions.company(row) << Integer.SIZE | missions.location(row))
+            .sorted()
+            .toArray());
+
+        int companiesCount = missions.companyNames().size();
+        int[] mostDesiredLocations = parallelism.execute(rowsCount, IntStream.range(0, companiesCount),
+            companies -> companies
+                .map(company -> mostDesiredLocation(companyLocationPairs, company))
+                .toArray());
+
+        Map<String, String> mostDesiredLocationPerCompany = new HashMap<>();
+        for (int company = 0; company < companiesCount; company++) {
+            if (mostDesiredLocations[company] != NOT_FOUND) {
+                mostDesiredLocationPerCompany.put(missions.companyNames().decode(company),
+                    missions.locationNames().decode(mostDesiredLocations[company]));
+            }
+        }
+
+        return Collections.unmodifiableMap(mostDesiredLocationPerCompany);
+    }
+
+    private static int mostDesiredLocation(long[] companyLocationPairs, int company) {
+        int pairStart = firstPairOf(companyLocationPairs, company);
+        int companyEnd = firstPairOf(companyLocationPairs, company + 1);
+        int mostDesiredLocation = NOT_FOUND;
+        int mostDesiredLocationCount = 0;
+
+        while (pairStart < companyEnd) {
+            int pairEnd = pairStart;
+            while (pairEnd < companyEnd && companyLocationPairs[pairEnd] == companyLocationPairs[pairStart]) {
+                pairEnd++;
+            }
+
+            if (pairEnd - pairStart >= mostDesiredLocationCount) {
+                mostDesiredLocationCount = pairEnd - pairStart;
+                mostDesiredLocation = (int) companyLocationPairs[pairStart];
+            }
+            pairStart = pairEnd;
+        }
+
+        return mostDesiredLocation;
+    }
+
+    // the index of the first pair of the company or of any company after it, locations are never negative
+    private static int firstPairOf(long[] companyLocationPairs, int company) {
+        long firstPair = (long) company << Integer.SIZE;
+        int low = 0;
+        int high = companyLocationPairs.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (companyLocationPairs[middle] < firstPair) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    // a counting sort of the rows by country, stable so that the missions of every country stay in row order;
+    // every chunk of rows is counted and then scattered from its own offsets, so the chunks run in parallel
+    private Map<String, Collection<Mission>> computeMissionsPerCountry() {
+        StringDictionary countryNames = missions.countryNames();
+        int countriesCount = countryNames.size();
+        int[] chunks = parallelism.chunks(missions.size());
+        int chunksCount = chunks.length - 1;
+
+        int[][] countsPerChunk = new int[chunksCount][countriesCount];
+        parallelism.forEachChunk(chunks, chunk -> {
+            int[] counts = countsPerChunk[chunk];
+            for (int row = chunks[chunk]; row < chunks[chunk + 1]; row++) {
+                counts[missions.country(row)]++;
+            }
+        });
+
+        int[] offsets = new int[countriesCount + 1];
+        for (int country = 0; country < countriesCount; country++) {
+            offsets[country + 1] = offsets[country];
+            for (int chunk = 0; chunk < chunksCount; chunk++) {
+                int count = countsPerChunk[chunk][country];
+                countsPerChunk[chunk][country] = offsets[country + 1];
+                offsets[country + 1] += count;
+            }
+        }
+
+        int[] rowsByCountry = new int[missions.size()];
+        parallelism.forEachChunk(chunks, chunk -> {
+            int[] next = countsPerChunk[chunk];
+            for (int row = chunks[chunk]; row < chunks[chunk + 1]; row++) {
+                rowsByCountry[next[missions.country(row)]++] = row;
+            }
+        });
+
+        Map<String, Collection<Mission>> missionsPerCountry = new HashMap<>();
+        for (int country = 0; country < countriesCount; country++) {
+            missionsPerCountry.put(countryNames.decode(country),
+                missions.missions(rowsByCountry, offsets[country], offsets[country + 1]));
+        }
+
+        return Collections.unmodifiableMap(missionsPerCountry);
+    }
+}
@@ -0,0 +1,164 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+
+/**
+ * The indexes of a MissionStore the queries of the scanner are answered from.
+ * They are built once, when the missions are loaded, or read back from a snapshot together with the store.
+ * Indexes of consecutive ranges of rows of a growing store can be merged into the indexes of the whole range.
+ */
+public class MissionIndexes {
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+
+    private final DateIndex[] missionsByDatePerStatus;
+    private final CumulativeCounts successfulMissionsPerCompany;
+    private final CumulativeCounts missionsPerRocket;
+    private final CumulativeCounts successfulMissionsPerRocket;
+    private final CostIndex missionsByCostPerStatuses;
+
+    private MissionIndexes(DateIndex[] missionsByDatePerStatus, CumulativeCounts successfulMissionsPerCompany,
+                           CumulativeCounts missionsPerRocket, CumulativeCounts successfulMissionsPerRocket,
+                           CostIndex missionsByCostPerStatuses) {
+        this.missionsByDatePerStatus = missionsByDatePerStatus;
+        this.successfulMissionsPerCompany = successfulMissionsPerCompany;
+        this.missionsPerRocket = missionsPerRocket;
+        this.successfulMissionsPerRocket = successfulMissionsPerRocket;
+        this.missionsByCostPerStatuses = missionsByCostPerStatuses;
+    }
+
+    /**
+     * Builds all indexes of the store.
+     *
+     * @param missions the store to be indexed
+     */
+    public static MissionIndexes of(MissionStore missions) {
+        return of(missions, 0, missions.size());
+    }
+
+    /**
+     * Builds the indexes of the rows of the store from fromRow to toRow.
+     *
+     * @param missions the store to be indexed
+     * @param fromRow  the first row to be indexed
+     * @param toRow    the row after the last row to be indexed
+     */
+    public static MissionIndexes of(MissionStore missions, int fromRow, int toRow) {
+        DateIndex missionsByDate = DateIndex.of(missions, fromRow, toRow);
+        DateIndex[] missionsByDatePerStatus = new DateIndex[MISSION_STATUSES.length];
+        for (MissionStatus missionStatus : MISSION_STATUSES) {
+            missionsByDatePerStatus[missionStatus.ordinal()] =
+                missionsByDate.filter(row -> missions.missionStatus(row) == missionStatus);
+        }
+
+        DateIndex successfulMissions = missionsByDatePerStatus[MissionStatus.SUCCESS.ordinal()];
+        return new MissionIndexes(missionsByDatePerStatus,
+            CumulativeCounts.of(successfulMissions, missions, missions::company, missions.companyNames().size()),
+            CumulativeCounts.of(missionsByDate, missions, missions::rocket, missions.rocketNames().size()),
+            CumulativeCounts.of(successfulMissions, missions, missions::rocket, missions.rocketNames().size()),
+            CostIndex.of(missions, fromRow, toRow,
+                row -> statusesPartition(missions.missionStatus(row), missions.rocketStatus(row)),
+                MISSION_STATUSES.length * ROCKET_STATUSES.length));
+    }
+
+    /**
+     * Merges the indexes of two consecutive ranges of rows of a store into the indexes of both ranges.
+     *
+     * @param older the indexes of the first range
+     * @param newer the indexes of the range right after it
+     */
+    public static MissionIndexes merge(MissionIndexes older, MissionIndexes newer) {
+        DateIndex[] missionsByDatePerStatus = new DateIndex[MISSION_STATUSES.length];
+        for (int status = 0; status < missionsByDatePerStatus.length; status++) {
+            missionsByDatePerStatus[status] =
+                DateIndex.merge(older.missionsByDatePerStatus[status], newer.missionsByDatePerStatus[status]);
+        }
+
+        return new MissionIndexes(missionsByDatePerStatus,
+            CumulativeCounts.merge(older.successfulMissionsPerCompany, newer.successfulMissionsPerCompany),
+            CumulativeCounts.merge(older.missionsPerRocket, newer.missionsPerRocket),
+            CumulativeCounts.merge(older.successfulMissionsPerRocket, newer.successfulMissionsPerRocket),
+            CostIndex.merge(older.missionsByCostPerStatuses, newer.missionsByCostPerStatuses));
+    }
+
+    /**
+     * Returns the number of rows which are indexed.
+     */
+    public int size() {
+        int size = 0;
+        for (DateIndex missionsByDate : missionsByDatePerStatus) {
+            size += missionsByDate.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Reads indexes written by writeTo.
+     *
+     * @param in the snapshot the indexes are read from
+     */
+    public static MissionIndexes readFrom(SnapshotReader in) {
+        DateIndex[] missionsByDatePerStatus = new DateIndex[MISSION_STATUSES.length];
+        for (int status = 0; status < missionsByDatePerStatus.length; status++) {
+            missionsByDatePerStatus[status] = DateIndex.readFrom(in);
+        }
+
+        return new MissionIndexes(missionsByDatePerStatus, CumulativeCounts.readFrom(in),
+            CumulativeCounts.readFrom(in), CumulativeCounts.readFrom(in), CostIndex.readFrom(in));
+    }
+
+    /**
+     * Writes all indexes.
+     *
+     * @param out the snapshot the indexes are written to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        for (DateIndex missionsByDate : missionsByDatePerStatus) {
+            missionsByDate.writeTo(out);
+        }
+        successfulMissionsPerCompany.writeTo(out);
+        missionsPerRocket.writeTo(out);
+        successfulMissionsPerRocket.writeTo(out);
+        missionsByCostPerStatuses.writeTo(out);
+    }
+
+    /**
+     * Returns the rows of the missions with the given status, in date order.
+     */
+    public DateIndex missionsByDate(MissionStatus missionStatus) {
+        return missionsByDatePerStatus[missionStatus.ordinal()];
+    }
+
+    public CumulativeCounts successfulMissionsPerCompany() {
+        return successfulMissionsPerCompany;
+    }
+
+    public CumulativeCounts missionsPerRocket() {
+        return missionsPerRocket;
+    }
+
+    public CumulativeCounts successfulMissionsPerRocket() {
+        return successfulMissionsPerRocket;
+    }
+
+    /**
+     * Returns the rows of the missions with a cost, partitioned by statusesPartition and ordered by cost.
+     */
+    public CostIndex missionsByCostPerStatuses() {
+        return missionsByCostPerStatuses;
+    }
+
+    /**
+     * Returns the partition of missionsByCostPerStatuses with the missions of the given statuses.
+     */
+    public static int statusesPartition(MissionStatus missionStatus, RocketStatus rocketStatus) {
+        return missionStatus.ordinal() * ROCKET_STATUSES.length + rocketStatus.ordinal();
+    }
+}
@@ -0,0 +1,526 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.csv.CsvFieldScanner;
+import bg.sofia.uni.fmi.mjt.space.csv.LaunchDateParser;
+import bg.sofia.uni.fmi.mjt.space.dictionary.DatasetDictionary;
+import bg.sofia.uni.fmi.mjt.space.dictionary.StringDictionary;
+import bg.sofia.uni.fmi.mjt.space.mission.Detail;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotReader;
+import bg.sofia.uni.fmi.mjt.space.snapshot.SnapshotWriter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keeps missions column by column in parallel primitive arrays.
+ * Company, location and rocket names are dictionary-encoded, dates are kept as epoch days,
+ * missing costs as NaN and statuses as their ordinals.
+ * Mission objects are created only when they are requested.
+ * A store is immutable, but a builder can take snapshots of the rows added to it so far, which share the columns
+ * of the builder, as the builder only ever writes rows after the last row of any of its snapshots.
+ */
+public class MissionStore {
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    private static final double NO_COST = Double.NaN;
+
+    private final int size;
+    private final String[] ids;
+    private final int[] companies;
+    private final int[] locations;
+    private final int[] dates;
+    private final int[] rockets;
+    private final String[] payloads;
+    private final byte[] rocketStatuses;
+    private final double[] costs;
+    private final byte[] missionStatuses;
+    private final DatasetDictionary dictionary;
+
+    private MissionStore(Builder builder) {
+        this(builder.size, Arrays.copyOf(builder.ids, builder.size), Arrays.copyOf(builder.companies, builder.size),
+            Arrays.copyOf(builder.locations, builder.size), Arrays.copyOf(builder.dates, builder.size),
+            Arrays.copyOf(builder.rockets, builder.size), Arrays.copyOf(builder.payloads, builder.size),
+            Arrays.copyOf(builder.rocketStatuses, builder.size), Arrays.copyOf(builder.costs, builder.size),
+            Arrays.copyOf(builder.missionStatuses, builder.size), builder.dictionary);
+    }
+
+    // the columns can be longer than size, their rows from size on belong to the builder the store was taken from
+    private MissionStore(int size, String[] ids, int[] companies, int[] locations, int[] dates, int[] rockets,
+                         String[] payloads, byte[] rocketStatuses, double[] costs, byte[] missionStatuses,
+                         DatasetDictionary dictionary) {
+        this.size = size;
+        this.ids = ids;
+        this.companies = companies;
+        this.locations = locations;
+        this.dates = dates;
+        this.rockets = rockets;
+        this.payloads = payloads;
+        this.rocketStatuses = rocketStatuses;
+        this.costs = costs;
+        this.missionStatuses = missionStatuses;
+        this.dictionary = dictionary;
+    }
+
+    public static Builder builder() {
+        return new Builder(new DatasetDictionary());
+    }
+
+    /**
+     * Returns a builder that encodes the names of the missions with the given dictionary.
+     *
+     * @param dictionary the dictionary shared with the rest of the dataset
+     */
+    public static Builder builder(DatasetDictionary dictionary) {
+        return new Builder(dictionary);
+    }
+
+    /**
+     * Reads a store written by writeTo, together with its dictionary.
+     *
+     * @param in the snapshot the store is read from
+     */
+    public static MissionStore readFrom(SnapshotReader in) {
+        DatasetDictionary dictionary = DatasetDictionary.readFrom(in);
+        String[] ids = in.readStrings();
+
+        return new MissionStore(ids.length, ids, in.readInts(), in.readInts(), in.readInts(), in.readInts(),
+            in.readStrings(), in.readBytes(), in.readDoubles(), in.readBytes(), dictionary);
+    }
+
+    /**
+     * Returns a builder which starts with the rows of this store, so that rows can be appended to a copy of it.
+     * The builder encodes the names of the appended missions with a copy of the dictionary of the store.
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Writes the dictionary and all columns of the store.
+     *
+     * @param out the snapshot the store is written to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(SnapshotWriter out) throws IOException {
+        dictionary.writeTo(out);
+        out.writeStrings(ids, size);
+        out.writeInts(companies, size);
+        out.writeInts(locations, size);
+        out.writeInts(dates, size);
+        out.writeInts(rockets, size);
+        out.writeStrings(payloads, size);
+        out.writeBytes(rocketStatuses, size);
+        out.writeDoubles(costs, size);
+        out.writeBytes(missionStatuses, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int company(int row) {
+        return companies[row];
+    }
+
+    public int location(int row) {
+        return locations[row];
+    }
+
+    public int country(int row) {
+        return dictionary.country(locations[row]);
+    }
+
+    public int date(int row) {
+        return dates[row];
+    }
+
+    public int rocket(int row) {
+        return rockets[row];
+    }
+
+    public MissionStatus missionStatus(int row) {
+        return MISSION_STATUSES[missionStatuses[row]];
+    }
+
+    public RocketStatus rocketStatus(int row) {
+        return ROCKET_STATUSES[rocketStatuses[row]];
+    }
+
+    public boolean hasCost(int row) {
+        return !Double.isNaN(costs[row]);
+    }
+
+    /**
+     * Returns the cost of the mission on the given row or NaN if it is unknown.
+     */
+    public double cost(int row) {
+        return costs[row];
+    }
+
+    public DatasetDictionary dictionary() {
+        return dictionary;
+    }
+
+    public StringDictionary companyNames() {
+        return dictionary.companyNames();
+    }
+
+    public StringDictionary locationNames() {
+        return dictionary.locationNames();
+    }
+
+    public StringDictionary countryNames() {
+        return dictionary.countryNames();
+    }
+
+    public StringDictionary rocketNames() {
+        return dictionary.rocketNames();
+    }
+
+    /**
+     * Creates the mission stored on the given row.
+     *
+     * @param row the row of the mission
+     * @throws IndexOutOfBoundsException if there is no such row
+     */
+    public Mission mission(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException(row);
+        }
+
+        Optional<Double> cost = hasCost(row) ? Optional.of(costs[row]) : Optional.empty();
+
+        return new Mission(ids[row], companyNames().decode(companies[row]), locationNames().decode(locations[row]),
+            LocalDate.ofEpochDay(dates[row]), new Detail(rocketNames().decode(rockets[row]), payloads[row]),
+            rocketStatus(row), cost, missionStatus(row));
+    }
+
+    /**
+     * Returns an unmodifiable view of all missions. Missions are created when they are accessed.
+     */
+    public List<Mission> missions() {
+        return new MissionList(null, 0, size);
+    }
+
+    /**
+     * Returns an unmodifiable view of the missions on the given rows.
+     * Missions are created when they are accessed.
+     *
+     * @param rows the rows of the missions, the array must not be modified afterwards
+     */
+    public List<Mission> missions(int[] rows) {
+        return new MissionList(rows, 0, rows.length);
+    }
+
+    /**
+     * Returns an unmodifiable view of the missions on the rows between from and to in the given array.
+     * Missions are created when they are accessed.
+     *
+     * @param rows the rows of the missions, the array must not be modified afterwards
+     * @param from the inclusive beginning of the range in rows
+     * @param to   the exclusive end of the range in rows
+     */
+    public List<Mission> missions(int[] rows, int from, int to) {
+        return new MissionList(rows, from, to - from);
+    }
+
+    private class MissionList extends AbstractList<Mission> implements RandomAccess {
+        private final int[] rows;
+        private final int offset;
+        private final int count;
+
+        private MissionList(int[] rows, int offset, int count) {
+            this.rows = rows;
+            this.offset = offset;
+            this.count = count;
+        }
+
+        @Override
+        public Mission get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return mission(rows == null ? index : rows[offset + index]);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    public static class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+        private static final int ID_POS = 0;
+        private static final int COMPANY_POS = 1;
+        private static final int LOCATION_POS = 2;
+        private static final int DATE_POS = 3;
+        private static final int DETAIL_POS = 4;
+        private static final int ROCKET_STATUS_POS = 5;
+        private static final int COST_POS = 6;
+        private static final int MISSION_STATUS_POS = 7;
+        private static final char DETAIL_SEPARATOR = '|';
+        private static final char THOUSANDS_SEPARATOR = ',';
+        private static final int NOT_FOUND = -1;
+        private static final String NO_SUCH_ELEMENT_EXCEPTION_STATUS_MESSAGE = "unknown status";
+
+        private int size;
+        private String[] ids = new String[INITIAL_CAPACITY];
+        private int[] companies = new int[INITIAL_CAPACITY];
+        private int[] locations = new int[INITIAL_CAPACITY];
+        private int[] dates = new int[INITIAL_CAPACITY];
+        private int[] rockets = new int[INITIAL_CAPACITY];
+        private String[] payloads = new String[INITIAL_CAPACITY];
+        private byte[] rocketStatuses = new byte[INITIAL_CAPACITY];
+        private double[] costs = new double[INITIAL_CAPACITY];
+        private byte[] missionStatuses = new byte[INITIAL_CAPACITY];
+        private final DatasetDictionary dictionary;
+        private final StringBuilder costChars = new StringBuilder();
+
+        private DatasetDictionary snapshotDictionary;
+
+        private Builder(DatasetDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        private Builder(MissionStore store) {
+            int capacity = Math.max(INITIAL_CAPACITY, store.size * 2);
+
+            size = store.size;
+            ids = Arrays.copyOf(store.ids, capacity);
+            companies = Arrays.copyOf(store.companies, capacity);
+            locations = Arrays.copyOf(store.locations, capacity);
+            dates = Arrays.copyOf(store.dates, capacity);
+            rockets = Arrays.copyOf(store.rockets, capacity);
+            payloads = Arrays.copyOf(store.payloads, capacity);
+            rocketStatuses = Arrays.copyOf(store.rocketStatuses, capacity);
+            costs = Arrays.copyOf(store.costs, capacity);
+            missionStatuses = Arrays.copyOf(store.missionStatuses, capacity);
+            dictionary = store.dictionary.copy();
+            snapshotDictionary = store.dictionary;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Builder add(Mission mission) {
+            if (size == ids.length) {
+                grow();
+            }
+
+            ids[size] = mission.id();
+            companies[size] = dictionary.encodeCompany(mission.company());
+            locations[size] = dictionary.encodeLocation(mission.location());
+            dates[size] = Math.toIntExact(mission.date().toEpochDay());
+            rockets[size] = dictionary.encodeRocket(mission.detail().rocketName());
+            payloads[size] = mission.detail().payload();
+            rocketStatuses[size] = (byte) mission.rocketStatus().ordinal();
+            costs[size] = mission.cost().orElse(NO_COST);
+            missionStatuses[size] = (byte) mission.missionStatus().ordinal();
+            size++;
+
+            return this;
+        }
+
+        /**
+         * Appends the mission of a scanned line of the missions dataset, decoding its fields straight into
+         * the columns. Names which were already seen are looked up without creating Strings and no Mission,
+         * Detail or Optional is created.
+         *
+         * @param fields     the scanned line
+         * @param dateParser the parser used for the launch date, strict parsers also validate its weekday
+         */
+        public Builder add(CsvFieldScanner fields, LaunchDateParser dateParser) {
+            if (size == ids.length) {
+                grow();
+            }
+
+            CharSequence line = fields.line();
+            ids[size] = fields.field(ID_POS);
+            companies[size] = fields.isEscaped(COMPANY_POS) ? dictionary.encodeCompany(fields.field(COMPANY_POS))
+                : dictionary.encodeCompany(line, fields.start(COMPANY_POS), fields.end(COMPANY_POS));
+            locations[size] = fields.isEscaped(LOCATION_POS) ? dictionary.encodeLocation(fields.field(LOCATION_POS))
+                : dictionary.encodeLocation(line, fields.start(LOCATION_POS), fields.end(LOCATION_POS));
+            dates[size] = Math.toIntExact(
+                dateParser.parse(line, fields.start(DATE_POS), fields.end(DATE_POS)).toEpochDay());
+            addDetail(fields);
+            rocketStatuses[size] = (byte) status(ROCKET_STATUSES, fields, ROCKET_STATUS_POS).ordinal();
+            costs[size] = cost(fields);
+            missionStatuses[size] = (byte) status(MISSION_STATUSES, fields, MISSION_STATUS_POS).ordinal();
+            size++;
+
+            return this;
+        }
+
+        /**
+         * Appends all the missions of another store, for example of a builder which parsed a chunk of the same
+         * dataset on another thread. Every name of the dictionary of the store is encoded once, however many rows
+         * it occurs in, and the other columns are copied in bulk.
+         *
+         * @param missions the store whose missions are appended
+         */
+        public Builder addAll(MissionStore missions) {
+            int[] companyIds = encodeAll(missions.dictionary.companyNames(), dictionary::encodeCompany);
+            int[] locationIds = encodeAll(missions.dictionary.locationNames(), dictionary::encodeLocation);
+            int[] rocketIds = encodeAll(missions.dictionary.rocketNames(), dictionary::encodeRocket);
+            while (size + missions.size > ids.length) {
+                grow();
+            }
+
+            for (int row = 0; row < missions.size; row++) {
+                companies[size + row] = companyIds[missions.companies[row]];
+                locations[size + row] = locationIds[missions.locations[row]];
+                rockets[size + row] = rocketIds[missions.rockets[row]];
+            }
+            System.arraycopy(missions.ids, 0, ids, size, missions.size);
+            System.arraycopy(missions.dates, 0, dates, size, missions.size);
+            System.arraycopy(missions.payloads, 0, payloads, size, missions.size);
+            System.arraycopy(missions.rocketStatuses, 0, rocketStatuses, size, missions.size);
+            System.arraycopy(missions.costs, 0, costs, size, missions.size);
+            System.arraycopy(missions.missionStatuses, 0, missionStatuses, size, missions.size);
+            size += missions.size;
+
+            return this;
+        }
+
+        private static int[] encodeAll(StringDictionary names, ToIntFunction<String> encoder) {
+            int[] encoded = new int[names.size()];
+            for (int id = 0; id < encoded.length; id++) {
+                encoded[id] = encoder.applyAsInt(names.decode(id));
+            }
+
+            return encoded;
+        }
+
+        private void addDetail(CsvFieldScanner fields) {
+            CharSequence line = fields.line();
+            int start = fields.start(DETAIL_POS);
+            int end = fields.end(DETAIL_POS);
+            int separator = indexOf(line, DETAIL_SEPARATOR, start, end);
+            int payloadStart = separator == NOT_FOUND ? end : skipWhitespace(line, separator + 1, end);
+
+            if (fields.isEscaped(DETAIL_POS) || payloadStart == end) {
+                Detail detail = Detail.of(fields.field(DETAIL_POS));
+                rockets[size] = dictionary.encodeRocket(detail.rocketName());
+                payloads[size] = detail.payload();
+                return;
+            }
+
+            int nextSeparator = indexOf(line, DETAIL_SEPARATOR, payloadStart, end);
+            int payloadEnd = nextSeparator == NOT_FOUND ? end : trimEnd(line, payloadStart, nextSeparator);
+
+            rockets[size] = dictionary.encodeRocket(line, start, trimEnd(line, start, separator));
+            payloads[size] = line.subSequence(payloadStart, payloadEnd).toString();
+        }
+
+        private double cost(CsvFieldScanner fields) {
+            if (fields.isEmpty(COST_POS)) {
+                return NO_COST;
+            }
+
+            CharSequence line = fields.line();
+            costChars.setLength(0);
+            for (int i = fields.start(COST_POS); i < fields.end(COST_POS); i++) {
+                if (line.charAt(i) != THOUSANDS_SEPARATOR) {
+                    costChars.append(line.charAt(i));
+                }
+            }
+
+            return Double.parseDouble(costChars.toString());
+        }
+
+        private static <E extends Enum<E>> E status(E[] statuses, CsvFieldScanner fields, int position) {
+            for (E status : statuses) {
+                if (contentEquals(status.toString(), fields.line(), fields.start(position), fields.end(position))) {
+                    return status;
+                }
+            }
+
+            throw new NoSuchElementException(NO_SUCH_ELEMENT_EXCEPTION_STATUS_MESSAGE);
+        }
+
+        private static boolean contentEquals(String value, CharSequence chars, int start, int end) {
+            if (value.length() != end - start) {
+                return false;
+            }
+
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) != chars.charAt(start + i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private static int indexOf(CharSequence chars, char target, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (chars.charAt(i) == target) {
+                    return i;
+                }
+            }
+
+            return NOT_FOUND;
+        }
+
+        private static int skipWhitespace(CharSequence chars, int start, int end) {
+            while (start < end && Character.isWhitespace(chars.charAt(start))) {
+                start++;
+            }
+
+            return start;
+        }
+
+        private static int trimEnd(CharSequence chars, int start, int end) {
+            while (end > start && Character.isWhitespace(chars.charAt(end - 1))) {
+                end--;
+            }
+
+            return end;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+
+            ids = Arrays.copyOf(ids, capacity);
+            companies = Arrays.copyOf(companies, capacity);
+            locations = Arrays.copyOf(locations, capacity);
+            dates = Arrays.copyOf(dates, capacity);
+            rockets = Arrays.copyOf(rockets, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+            rocketStatuses = Arrays.copyOf(rocketStatuses, capacity);
+            costs = Arrays.copyOf(costs, capacity);
+            missionStatuses = Arrays.copyOf(missionStatuses, capacity);
+        }
+
+        public MissionStore build() {
+            return new MissionStore(this);
+        }
+
+        /**
+         * Returns a store of the rows added so far, which shares the columns of the builder instead of copying them
+         * and stays unchanged while more rows are added. Only the dictionary is copied, and only if names were
+         * added to it since the previous snapshot.
+         */
+        public MissionStore snapshot() {
+            if (snapshotDictionary == null || snapshotDictionary.size() != dictionary.size()) {
+                snapshotDictionary = dictionary.copy();
+            }
+
+            return new MissionStore(size, ids, companies, locations, dates, rockets, payloads, rocketStatuses, costs,
+                missionStatuses, snapshotDictionary);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * A MissionStore together with its indexes, to which missions are appended by creating a new table,
+ * so a table never changes once it is created.
+ * The indexes are kept in segments of consecutive rows, oldest first, and a new segment is merged with the one
+ * before it for as long as that one is at most twice as large, like the levels of a log-structured merge tree.
+ * So a table has O(log n) segments and, over all appends, every row takes part in O(log n) linear merges.
+ * The queries combine the results of all segments.
+ */
+public class MissionTable {
+    private static final int MERGE_RATIO = 2;
+    private static final int NOT_FOUND = -1;
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_STORE_MESSAGE =
+        "extendedStore is null or has less rows than the table";
+
+    private final MissionStore missions;
+    private final List<MissionIndexes> segments;
+
+    private MissionTable(MissionStore missions, List<MissionIndexes> segments) {
+        this.missions = missions;
+        this.segments = segments;
+    }
+
+    /**
+     * Creates a table of all rows of the store, indexing them in a single segment.
+     *
+     * @param missions the store
+     */
+    public static MissionTable of(MissionStore missions) {
+        return of(missions, MissionIndexes.of(missions));
+    }
+
+    /**
+     * Creates a table of all rows of the store from indexes which were already built for them.
+     *
+     * @param missions the store
+     * @param indexes  the indexes of all rows of the store
+     */
+    public static MissionTable of(MissionStore missions, MissionIndexes indexes) {
+        return new MissionTable(missions, List.of(indexes));
+    }
+
+    /**
+     * Returns a table of a store which has the rows of this table followed by new ones,
+     * indexing only the new rows. This table is not changed.
+     *
+     * @param extendedStore the store, for example a snapshot of the builder returned by missions().toBuilder()
+     * @throws IllegalArgumentException if extendedStore is null or has less rows than this table
+     */
+    public MissionTable append(MissionStore extendedStore) {
+        if (extendedStore == null || extendedStore.size() < missions.size()) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_STORE_MESSAGE);
+        }
+
+        List<MissionIndexes> appendedSegments = new ArrayList<>(segments);
+        MissionIndexes newest = MissionIndexes.of(extendedStore, missions.size(), extendedStore.size());
+        while (!appendedSegments.isEmpty()
+            && appendedSegments.get(appendedSegments.size() - 1).size() <= MERGE_RATIO * newest.size()) {
+            newest = MissionIndexes.merge(appendedSegments.remove(appendedSegments.size() - 1), newest);
+        }
+        appendedSegments.add(newest);
+
+        return new MissionTable(extendedStore, List.copyOf(appendedSegments));
+    }
+
+    public MissionStore missions() {
+        return missions;
+    }
+
+    public int segmentsCount() {
+        return segments.size();
+    }
+
+    /**
+     * Returns the indexes of all rows, merging the segments if there is more than one of them.
+     */
+    public MissionIndexes indexes() {
+        MissionIndexes indexes = segments.get(0);
+        for (int segment = 1; segment < segments.size(); segment++) {
+            indexes = MissionIndexes.merge(indexes, segments.get(segment));
+        }
+
+        return indexes;
+    }
+
+    /**
+     * Returns the missions with the given status, in date order and then in row order.
+     */
+    public List<Mission> missions(MissionStatus missionStatus) {
+        DateIndex missionsByDate = segments.get(0).missionsByDate(missionStatus);
+        for (int segment = 1; segment < segments.size(); segment++) {
+            missionsByDate = DateIndex.merge(missionsByDate, segments.get(segment).missionsByDate(missionStatus));
+        }
+
+        return missions.missions(missionsByDate.rows(), 0, missionsByDate.size());
+    }
+
+    /**
+     * Returns the rows of the missions with the given status launched between fromDay and toDay, both inclusive.
+     * The rows are in date order inside every segment, but not across segments. The stream is a concatenation
+     * of array ranges, so it splits well when parallel.
+     */
+    public IntStream rows(MissionStatus missionStatus, long fromDay, long toDay) {
+        return segments.stream()
+            .map(segment -> segment.missionsByDate(missionStatus).rows(fromDay, toDay))
+            .reduce(IntStream::concat)
+            .orElseThrow();
+    }
+
+    /**
+     * Returns the number of rows of the missions with the given status launched between fromDay and toDay,
+     * both inclusive.
+     */
+    public int rowsCount(MissionStatus missionStatus, long fromDay, long toDay) {
+        int rowsCount = 0;
+        for (MissionIndexes segment : segments) {
+            DateIndex missionsByDate = segment.missionsByDate(missionStatus);
+            rowsCount += missionsByDate.to(toDay) - missionsByDate.from(fromDay);
+        }
+
+        return rowsCount;
+    }
+
+    /**
+     * Returns the number of rows of the key launched between fromDay and toDay, both inclusive.
+     *
+     * @param counts selects the counts of a segment, for example MissionIndexes::missionsPerRocket
+     * @param key    the key
+     */
+    public int count(Function<MissionIndexes, CumulativeCounts> counts, int key, long fromDay, long toDay) {
+        int count = 0;
+        for (MissionIndexes segment : segments) {
+            count += counts.apply(segment).count(key, fromDay, toDay);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of all rows of the key.
+     *
+     * @param counts selects the counts of a segment, for example MissionIndexes::missionsPerRocket
+     * @param key    the key
+     */
+    public int count(Function<MissionIndexes, CumulativeCounts> counts, int key) {
+        int count = 0;
+        for (MissionIndexes segment : segments) {
+            count += counts.apply(segment).count(key);
+        }
+
+        return count;
+    }
+
+    /**
+     * Puts the number of rows of the key launched before each of the days into counts, as
+     * CumulativeCounts.countBefore does.
+     *
+     * @param counts    selects the counts of a segment, for example MissionIndexes::missionsPerRocket
+     * @param key       the key
+     * @param days      the days, in ascending order
+     * @param keyCounts the array the counts are put into, one per day
+     */
+    public void countBefore(Function<MissionIndexes, CumulativeCounts> counts, int key, long[] days,
+                            int[] keyCounts) {
+        counts.apply(segments.get(0)).countBefore(key, days, keyCounts);
+        if (segments.size() == 1) {
+            return;
+        }
+
+        int[] segmentCounts = new int[days.length];
+        for (int segment = 1; segment < segments.size(); segment++) {
+            counts.apply(segments.get(segment)).countBefore(key, days, segmentCounts);
+            for (int day = 0; day < days.length; day++) {
+                keyCounts[day] += segmentCounts[day];
+            }
+        }
+    }
+
+    /**
+     * Returns the n cheapest missions of a partition of MissionIndexes.missionsByCostPerStatuses,
+     * ordered by cost and then by row.
+     */
+    public List<Mission> cheapest(int partition, int n) {
+        if (segments.size() == 1) {
+            CostIndex missionsByCost = segments.get(0).missionsByCostPerStatuses();
+            return missions.missions(missionsByCost.rows(), missionsByCost.start(partition),
+                missionsByCost.cheapestEnd(partition, n));
+        }
+
+        int[] positions = new int[segments.size()];
+        int[] ends = new int[segments.size()];
+        int candidatesCount = 0;
+        for (int segment = 0; segment < segments.size(); segment++) {
+            CostIndex missionsByCost = segments.get(segment).missionsByCostPerStatuses();
+            positions[segment] = missionsByCost.start(partition);
+            ends[segment] = missionsByCost.cheapestEnd(partition, n);
+            candidatesCount += ends[segment] - positions[segment];
+        }
+
+        int[] cheapestRows = new int[Math.min(n, candidatesCount)];
+        for (int i = 0; i < cheapestRows.length; i++) {
+            // the rows of older segments are smaller, so on equal costs the first segment found wins
+            int cheapestSegment = NOT_FOUND;
+            for (int segment = 0; segment < segments.size(); segment++) {
+                if (positions[segment] < ends[segment] && (cheapestSegment == NOT_FOUND
+                    || Double.compare(costAt(segment, positions[segment]),
+                    costAt(cheapestSegment, positions[cheapestSegment])) < 0)) {
+                    cheapestSegment = segment;
+                }
+            }
+
+            cheapestRows[i] = segments.get(cheapestSegment).missionsByCostPerStatuses()
+                .rows()[positions[cheapestSegment]++];
+        }
+
+        return missions.missions(cheapestRows);
+    }
+
+    /**
+     * Returns the rows of the n most expensive missions of a partition of MissionIndexes.missionsByCostPerStatuses,
+     * ordered from the most expensive one. Rows with equal costs are in row order.
+     */
+    public int[] mostExpensive(int partition, int n) {
+        if (segments.size() == 1) {
+            return segments.get(0).missionsByCostPerStatuses().mostExpensive(partition, n);
+        }
+
+        int[][] candidates = new int[segments.size()][];
+        int candidatesCount = 0;
+        for (int segment = 0; segment < segments.size(); segment++) {
+            candidates[segment] = segments.get(segment).missionsByCostPerStatuses().mostExpensive(partition, n);
+            candidatesCount += candidates[segment].length;
+        }
+
+        int[] positions = new int[segments.size()];
+        int[] mostExpensiveRows = new int[Math.min(n, candidatesCount)];
+        for (int i = 0; i < mostExpensiveRows.length; i++) {
+            int mostExpensiveSegment = NOT_FOUND;
+            for (int segment = 0; segment < segments.size(); segment++) {
+                if (positions[segment] < candidates[segment].length && (mostExpensiveSegment == NOT_FOUND
+                    || Double.compare(missions.cost(candidates[segment][positions[segment]]),
+                    missions.cost(candidates[mostExpensiveSegment][positions[mostExpensiveSegment]])) > 0)) {
+                    mostExpensiveSegment = segment;
+                }
+            }
+
+            mostExpensiveRows[i] = candidates[mostExpensiveSegment][positions[mostExpensiveSegment]++];
+        }
+
+        return mostExpensiveRows;
+    }
+
+    private double costAt(int segment, int position) {
+        return missions.cost(segments.get(segment).missionsByCostPerStatuses().rows()[position]);
+    }
+}
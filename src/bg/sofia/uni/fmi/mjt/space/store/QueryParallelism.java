@@ -0,0 +1,121 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * How the queries over many missions are executed: sequentially, or in parallel on a fork-join pool
+ * when they go over at least a threshold of missions. Below the threshold, splitting the work costs more
+ * than it saves, so such queries are executed sequentially in every case.
+ */
+public final class QueryParallelism {
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_POOL_MESSAGE = "pool is null";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_THRESHOLD_MESSAGE = "threshold is less than or equal to 0";
+    private static final int DEFAULT_THRESHOLD = 1 << 15;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final QueryParallelism SEQUENTIAL = new QueryParallelism(null, Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    private QueryParallelism(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the policy which executes every query sequentially on the calling thread.
+     */
+    public static QueryParallelism sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Returns the policy which executes the queries over at least a default threshold of missions
+     * in parallel on the given pool.
+     *
+     * @param pool the pool the queries are executed on
+     * @throws IllegalArgumentException if pool is null
+     */
+    public static QueryParallelism parallel(ForkJoinPool pool) {
+        return parallel(pool, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Returns the policy which executes the queries over at least threshold missions in parallel on the given pool.
+     *
+     * @param pool      the pool the queries are executed on
+     * @param threshold the least number of missions a query is executed in parallel for
+     * @throws IllegalArgumentException if pool is null or threshold is less than or equal to 0
+     */
+    public static QueryParallelism parallel(ForkJoinPool pool, int threshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_POOL_MESSAGE);
+        }
+        if (threshold <= 0) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_THRESHOLD_MESSAGE);
+        }
+
+        return new QueryParallelism(pool, threshold);
+    }
+
+    /**
+     * Returns whether a query over size missions is executed in parallel.
+     */
+    public boolean isParallel(int size) {
+        return pool != null && size >= threshold;
+    }
+
+    /**
+     * Executes the pipeline over the elements, which are parallel and on the pool if the query is over
+     * enough missions, and sequential on the calling thread otherwise.
+     *
+     * @param size     the number of missions the query is over
+     * @param elements the elements, which must split well when parallel, like ranges and arrays do
+     * @param pipeline the operations over the elements, which must be correct either way
+     */
+    public <T> T execute(int size, IntStream elements, Function<IntStream, T> pipeline) {
+        if (!isParallel(size)) {
+            return pipeline.apply(elements.sequential());
+        }
+
+        return pool.submit(() -> pipeline.apply(elements.parallel())).join();
+    }
+
+    /**
+     * Splits the range from 0 to size into chunks of nearly equal size, a few per thread of the pool
+     * if the query is parallel and a single one otherwise.
+     *
+     * @param size the number of missions the query is over
+     * @return the boundaries of the chunks, the chunk i being from boundaries[i] to boundaries[i + 1]
+     */
+    public int[] chunks(int size) {
+        int chunksCount = isParallel(size) ?
+            Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, size / threshold)) : 1;
+
+        int[] boundaries = new int[chunksCount + 1];
+        for (int chunk = 0; chunk <= chunksCount; chunk++) {
+            boundaries[chunk] = (int) ((long) size * chunk / chunksCount);
+        }
+
+        return boundaries;
+    }
+
+    /**
+     * Executes the task for every chunk, concurrently on the pool if there are several.
+     *
+     * @param boundaries the boundaries of the chunks, as returned by chunks
+     * @param chunkTask  the task, given the index of the chunk
+     */
+    public void forEachChunk(int[] boundaries, IntConsumer chunkTask) {
+        int chunksCount = boundaries.length - 1;
+        if (chunksCount == 1) {
+            chunkTask.accept(0);
+            return;
+        }
+
+        pool.submit(() -> IntStream.range(0, chunksCount).parallel().forEach(chunkTask)).join();
+    }
+}
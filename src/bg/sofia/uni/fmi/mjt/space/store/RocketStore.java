@@ -0,0 +1,134 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the rockets of a dataset together with their known heights, which are sorted from the tallest
+ * into a primitive array next to the positions of their rockets. The tallest rockets are then read off
+ * the front of these arrays, with no comparisons and no unboxing.
+ * Rockets of equal height are kept in the iteration order of the rockets.
+ */
+public class RocketStore {
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_ROCKETS_MESSAGE = "rockets is null";
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION_N_MESSAGE = "n is less than or equal to 0";
+
+    private final Set<Rocket> rockets;
+    private final Rocket[] rocketsArray;
+    private final double[] heightsDescending;
+    private final int[] rocketsByHeight;
+
+    private RocketStore(Set<Rocket> rockets, Rocket[] rocketsArray, double[] heightsDescending,
+                        int[] rocketsByHeight) {
+        this.rockets = rockets;
+        this.rocketsArray = rocketsArray;
+        this.heightsDescending = heightsDescending;
+        this.rocketsByHeight = rocketsByHeight;
+    }
+
+    /**
+     * Creates a store of the rockets, sorting their known heights once.
+     *
+     * @param rockets the rockets, which must not be modified afterwards
+     * @throws IllegalArgumentException if rockets is null
+     */
+    public static RocketStore of(Set<Rocket> rockets) {
+        if (rockets == null) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_ROCKETS_MESSAGE);
+        }
+
+        Rocket[] rocketsArray = rockets.toArray(new Rocket[0]);
+        double[] heights = new double[rocketsArray.length];
+        int measuredCount = 0;
+        for (int position = 0; position < rocketsArray.length; position++) {
+            heights[position] = rocketsArray[position].heightOrNaN();
+            if (!Double.isNaN(heights[position])) {
+                measuredCount++;
+            }
+        }
+
+        double[] heightsAscending = new double[measuredCount];
+        int next = 0;
+        for (double height : heights) {
+            if (!Double.isNaN(height)) {
+                heightsAscending[next++] = height;
+            }
+        }
+        Arrays.sort(heightsAscending);
+
+        // every rocket is sorted by the rank of its height from the tallest, packed above its position,
+        // so rockets of equal height stay in iteration order
+        long[] rankedPositions = new long[measuredCount];
+        next = 0;
+        for (int position = 0; position < rocketsArray.length; position++) {
+            if (!Double.isNaN(heights[position])) {
+                long rank = measuredCount - 1 - Arrays.binarySearch(heightsAscending, heights[position]);
+                rankedPositions[next++] = rank << Integer.SIZE | position;
+            }
+        }
+        Arrays.sort(rankedPositions);
+
+        double[] heightsDescending = new double[measuredCount];
+        int[] rocketsByHeight = new int[measuredCount];
+        for (int rank = 0; rank < measuredCount; rank++) {
+            rocketsByHeight[rank] = (int) rankedPositions[rank];
+            heightsDescending[rank] = heightsAscending[measuredCount - 1 - rank];
+        }
+
+        return new RocketStore(Collections.unmodifiableSet(rockets), rocketsArray, heightsDescending,
+            rocketsByHeight);
+    }
+
+    /**
+     * Returns all rockets, as an unmodifiable set.
+     */
+    public Set<Rocket> rockets() {
+        return rockets;
+    }
+
+    /**
+     * Returns the number of rockets whose height is known.
+     */
+    public int measuredCount() {
+        return heightsDescending.length;
+    }
+
+    /**
+     * Returns the n tallest rockets, or all rockets whose height is known if they are fewer,
+     * ordered from the tallest, as an unmodifiable list.
+     *
+     * @throws IllegalArgumentException if n is less than or equal to 0
+     */
+    public List<Rocket> tallest(int n) {
+        validateN(n);
+
+        Rocket[] tallest = new Rocket[Math.min(n, rocketsByHeight.length)];
+        for (int rank = 0; rank < tallest.length; rank++) {
+            tallest[rank] = rocketsArray[rocketsByHeight[rank]];
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(tallest));
+    }
+
+    /**
+     * Returns the heights of the n tallest rockets, or of all rockets whose height is known if they are fewer,
+     * ordered from the tallest.
+     *
+     * @throws IllegalArgumentException if n is less than or equal to 0
+     */
+    public double[] tallestHeights(int n) {
+        validateN(n);
+
+        return Arrays.copyOf(heightsDescending, Math.min(n, heightsDescending.length));
+    }
+
+    private static void validateN(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT_EXCEPTION_N_MESSAGE);
+        }
+    }
+}
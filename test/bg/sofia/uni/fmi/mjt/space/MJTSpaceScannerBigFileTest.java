@@ -7,7 +7,6 @@ import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
 import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
 import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import javax.crypto.KeyGenerator;
@@ -28,15 +27,14 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
-@Disabled
 public class MJTSpaceScannerBigFileTest {
     private static MJTSpaceScanner spaceScanner;
     private static SecretKey secretKey;
 
     @BeforeAll
     static void initializeMJTSpaceScannerBigFile() {
-        Path missionPath = Path.of("F:\\Java\\Projects\\Homework_2_MJT\\all-missions-from-1957.csv");
-        Path rocketPath = Path.of("F:\\Java\\Projects\\Homework_2_MJT\\all-rockets-from-1957.csv");
+        Path missionPath = Path.of("files", "all-missions-from-1957.csv");
+        Path rocketPath = Path.of("files", "all-rockets-from-1957.csv");
 
         Reader missionReader = null;
         Reader rocketReader = null;
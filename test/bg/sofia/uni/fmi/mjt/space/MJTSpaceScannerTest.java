@@ -2,26 +2,43 @@ package bg.sofia.uni.fmi.mjt.space;
 
 import bg.sofia.uni.fmi.mjt.space.algorithm.Rijndael;
 import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import bg.sofia.uni.fmi.mjt.space.exception.SnapshotException;
 import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
 import bg.sofia.uni.fmi.mjt.space.mission.Mission;
 import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
 import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
 import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import bg.sofia.uni.fmi.mjt.space.store.MaterializedViews;
+import bg.sofia.uni.fmi.mjt.space.store.QueryParallelism;
 import org.junit.jupiter.api.Test;
 
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -78,6 +95,152 @@ public class MJTSpaceScannerTest {
         assertEquals(7, rockets.size());
     }
 
+    @Test
+    void testLoadReadsTheSameMissionsAndRocketsAsTheReaders() throws IOException {
+        initializeMJTSpaceScanner();
+        Path missionsFile = Files.createTempFile("missions", ".csv");
+        Path rocketsFile = Files.createTempFile("rockets", ".csv");
+
+        try {
+            Files.writeString(missionsFile, missionsData, StandardCharsets.UTF_8);
+            Files.writeString(rocketsFile, rocketsData, StandardCharsets.UTF_8);
+
+            MJTSpaceScanner loaded = MJTSpaceScanner.load(missionsFile, rocketsFile, null);
+
+            assertEquals(List.copyOf(spaceScanner.getAllMissions()), List.copyOf(loaded.getAllMissions()));
+            assertEquals(Set.copyOf(spaceScanner.getAllRockets()), Set.copyOf(loaded.getAllRockets()));
+            assertEquals(spaceScanner.getMissionsPerCountry(), loaded.getMissionsPerCountry());
+        } finally {
+            Files.deleteIfExists(missionsFile);
+            Files.deleteIfExists(rocketsFile);
+        }
+    }
+
+    @Test
+    void testLoadThrowsWhenAFileDoesNotExist() {
+        Path missing = Path.of("missing-missions.csv");
+
+        assertThrows(UncheckedIOException.class, () -> MJTSpaceScanner.load(missing, missing, null));
+    }
+
+    @Test
+    void testLoadSnapshotAnswersLikeTheSavedScanner() throws IOException, SnapshotException {
+        initializeMJTSpaceScanner();
+        Path snapshotFile = Files.createTempFile("scanner", ".snapshot");
+
+        try {
+            spaceScanner.saveSnapshot(snapshotFile);
+            MJTSpaceScanner loaded = MJTSpaceScanner.loadSnapshot(snapshotFile, null);
+
+            LocalDate from = LocalDate.of(2020, 7, 30);
+            LocalDate to = LocalDate.of(2020, 8, 6);
+            assertEquals(List.copyOf(spaceScanner.getAllMissions()), List.copyOf(loaded.getAllMissions()));
+            assertEquals(List.copyOf(spaceScanner.getAllMissions(MissionStatus.SUCCESS)),
+                List.copyOf(loaded.getAllMissions(MissionStatus.SUCCESS)));
+            assertEquals(Set.copyOf(spaceScanner.getAllRockets()), Set.copyOf(loaded.getAllRockets()));
+            assertEquals(spaceScanner.getMissionsPerCountry(), loaded.getMissionsPerCountry());
+            assertEquals(spaceScanner.getCompanyWithMostSuccessfulMissions(from, to),
+                loaded.getCompanyWithMostSuccessfulMissions(from, to));
+            assertEquals(spaceScanner.getTopNLeastExpensiveMissions(3, MissionStatus.SUCCESS,
+                RocketStatus.STATUS_ACTIVE),
+                loaded.getTopNLeastExpensiveMissions(3, MissionStatus.SUCCESS, RocketStatus.STATUS_ACTIVE));
+            assertEquals(spaceScanner.getLocationWithMostSuccessfulMissionsPerCompany(from, to),
+                loaded.getLocationWithMostSuccessfulMissionsPerCompany(from, to));
+            assertEquals(spaceScanner.getTopNTallestRockets(3), loaded.getTopNTallestRockets(3));
+        } finally {
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
+
+    @Test
+    void testLoadSnapshotThrowsWhenTheSnapshotIsCorrupt() throws IOException, SnapshotException {
+        initializeMJTSpaceScanner();
+        Path snapshotFile = Files.createTempFile("scanner", ".snapshot");
+
+        try {
+            spaceScanner.saveSnapshot(snapshotFile);
+            byte[] snapshot = Files.readAllBytes(snapshotFile);
+            snapshot[snapshot.length / 2] ^= 1;
+            Files.write(snapshotFile, snapshot);
+
+            assertThrows(SnapshotException.class, () -> MJTSpaceScanner.loadSnapshot(snapshotFile, null));
+        } finally {
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
+
+    @Test
+    void testLoadEncryptedSnapshotAnswersLikeTheSavedScanner()
+        throws IOException, SnapshotException, NoSuchAlgorithmException {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(128);
+        SecretKey secretKey = keyGenerator.generateKey();
+        initializeMJTSpaceScanner(missionsData, secretKey);
+        Path snapshotFile = Files.createTempFile("scanner", ".snapshot");
+
+        try {
+            spaceScanner.saveEncryptedSnapshot(snapshotFile);
+            MJTSpaceScanner loaded = MJTSpaceScanner.loadEncryptedSnapshot(snapshotFile, secretKey);
+
+            assertEquals(List.copyOf(spaceScanner.getAllMissions()), List.copyOf(loaded.getAllMissions()));
+            assertEquals(Set.copyOf(spaceScanner.getAllRockets()), Set.copyOf(loaded.getAllRockets()));
+            assertEquals(spaceScanner.getMostDesiredLocationForMissionsPerCompany(),
+                loaded.getMostDesiredLocationForMissionsPerCompany());
+            assertThrows(SnapshotException.class, () -> MJTSpaceScanner.loadSnapshot(snapshotFile, secretKey));
+            assertThrows(SnapshotException.class,
+                () -> MJTSpaceScanner.loadEncryptedSnapshot(snapshotFile, keyGenerator.generateKey()));
+        } finally {
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
+
+    @Test
+    void testSnapshotsLoadWithTheGivenViewsModeAndParallelism()
+        throws IOException, SnapshotException, NoSuchAlgorithmException {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(128);
+        SecretKey secretKey = keyGenerator.generateKey();
+        initializeMJTSpaceScanner(missionsData, secretKey);
+        Path snapshotFile = Files.createTempFile("scanner", ".snapshot");
+        Path encryptedSnapshotFile = Files.createTempFile("scanner", ".snapshot");
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            spaceScanner.saveSnapshot(snapshotFile);
+            spaceScanner.saveEncryptedSnapshot(encryptedSnapshotFile);
+            QueryParallelism parallelism = QueryParallelism.parallel(pool, 1);
+            MJTSpaceScanner loaded = MJTSpaceScanner.loadSnapshot(snapshotFile, secretKey,
+                MaterializedViews.Mode.EAGER, parallelism);
+            MJTSpaceScanner loadedEncrypted = MJTSpaceScanner.loadEncryptedSnapshot(encryptedSnapshotFile, secretKey,
+                MaterializedViews.Mode.EAGER, parallelism);
+            LocalDate from = LocalDate.of(2020, 1, 1);
+            LocalDate to = LocalDate.of(2020, 12, 31);
+
+            for (MJTSpaceScanner scanner : List.of(loaded, loadedEncrypted)) {
+                assertEquals(spaceScanner.getMissionsPerCountry(), scanner.getMissionsPerCountry());
+                assertEquals(spaceScanner.getMostDesiredLocationForMissionsPerCompany(),
+                    scanner.getMostDesiredLocationForMissionsPerCompany());
+                assertEquals(spaceScanner.getLocationWithMostSuccessfulMissionsPerCompany(from, to),
+                    scanner.getLocationWithMostSuccessfulMissionsPerCompany(from, to));
+            }
+            assertThrows(IllegalArgumentException.class, () -> MJTSpaceScanner.loadSnapshot(snapshotFile, secretKey,
+                MaterializedViews.Mode.LAZY, null));
+            assertThrows(IllegalArgumentException.class, () -> MJTSpaceScanner.loadEncryptedSnapshot(
+                encryptedSnapshotFile, secretKey, MaterializedViews.Mode.LAZY, null));
+        } finally {
+            pool.shutdown();
+            Files.deleteIfExists(snapshotFile);
+            Files.deleteIfExists(encryptedSnapshotFile);
+        }
+    }
+
+    @Test
+    void testLoadSnapshotThrowsWhenTheSnapshotDoesNotExist() {
+        assertThrows(SnapshotException.class,
+            () -> MJTSpaceScanner.loadSnapshot(Path.of("missing-scanner.snapshot"), null));
+        assertThrows(IllegalArgumentException.class, () -> MJTSpaceScanner.loadSnapshot(null, null));
+    }
+
     @Test
     void testGetAllMissionsReturnsCorrectCollectionWhenPassedSuccess() {
         initializeMJTSpaceScanner();
@@ -580,4 +743,282 @@ public class MJTSpaceScannerTest {
 
         assertEquals("Falcon 9 Block 5", decryptedName.toString());
     }
+
+    @Test
+    void testSaveMostReliableRocketUsesOnlyMissionsInTheTimeFrame() throws NoSuchAlgorithmException, CipherException {
+        String missionsData = "Unnamed: 0,Company Name,Location,Datum,Detail,Status Rocket," +
+            "\" Rocket\",Status Mission\n" +
+            "0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Fri Aug 07, 2020\"," +
+            "Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Failure\n" +
+            "2430,RVSN USSR,\"Site 132/1, Plesetsk Cosmodrome, Russia\",\"Fri Jan 16, 1981\"," +
+            "Cosmos-3M (11K65M) | Cosmos 1238,StatusRetired,,Success\n";
+
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(128);
+        SecretKey secretKey = keyGenerator.generateKey();
+
+        initializeMJTSpaceScanner(missionsData, secretKey);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        spaceScanner.saveMostReliableRocket(outputStream, LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31));
+
+        ByteArrayOutputStream decryptedName = new ByteArrayOutputStream();
+        new Rijndael(secretKey).decrypt(new ByteArrayInputStream(outputStream.toByteArray()), decryptedName);
+
+        assertEquals("Falcon 9 Block 5", decryptedName.toString());
+    }
+
+    @Test
+    void testSaveMostReliableRocketsSavesWhatSaveMostReliableRocketSavesForEveryTimeFrame()
+        throws NoSuchAlgorithmException, CipherException, IOException {
+        String missionsData = "Unnamed: 0,Company Name,Location,Datum,Detail,Status Rocket," +
+            "\" Rocket\",Status Mission\n" +
+            "0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Fri Aug 07, 2020\"," +
+            "Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Failure\n" +
+            "1,CASC,\"Site 9401 (SLS-2), Jiuquan Satellite Launch Center, China\",\"Thu Aug 06, 2020\"," +
+            "Long March 2D | Gaofen-9 04 & Q-SAT,StatusActive,\"29.75 \",Success\n" +
+            "2430,RVSN USSR,\"Site 132/1, Plesetsk Cosmodrome, Russia\",\"Fri Jan 16, 1981\"," +
+            "Cosmos-3M (11K65M) | Cosmos 1238,StatusRetired,,Success\n" +
+            "62,SpaceX,\"SLC-40, Cape Canaveral AFS, Florida, USA\",\"Tue Jan 07, 2020\"," +
+            "Falcon 9 Block 5 | Starlink V1 L2,StatusActive,\"51.0 \",Success\n" +
+            "63,CASC,\"LC-101, Wenchang Satellite Launch Center, China\",\"Fri Dec 27, 2019\"," +
+            "Long March 5 | Shijian-20,StatusActive,,Partial Failure\n";
+        List<TimeFrame> timeFrames = List.of(TimeFrame.ofYear(2020), TimeFrame.ofYear(1957),
+            new TimeFrame(LocalDate.of(1980, 1, 1), LocalDate.of(2019, 12, 31)), TimeFrame.ofYear(1981),
+            new TimeFrame(LocalDate.of(2019, 12, 27), LocalDate.of(2020, 1, 7)),
+            new TimeFrame(LocalDate.of(2020, 8, 7), LocalDate.of(2020, 8, 7)), TimeFrame.ofYear(2020));
+
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(128);
+        SecretKey secretKey = keyGenerator.generateKey();
+        Rijndael rijndael = new Rijndael(secretKey);
+        initializeMJTSpaceScanner(missionsData, secretKey);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        spaceScanner.saveMostReliableRockets(outputStream, timeFrames);
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        for (TimeFrame timeFrame : timeFrames) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            spaceScanner.saveMostReliableRocket(expected, timeFrame.from(), timeFrame.to());
+            ByteArrayOutputStream expectedName = new ByteArrayOutputStream();
+            rijndael.decrypt(new ByteArrayInputStream(expected.toByteArray()), expectedName);
+
+            byte[] encryptedName = new byte[input.readInt()];
+            input.readFully(encryptedName);
+            ByteArrayOutputStream decryptedName = new ByteArrayOutputStream();
+            rijndael.decrypt(new ByteArrayInputStream(encryptedName), decryptedName);
+
+            assertEquals(expectedName.toString(), decryptedName.toString(), timeFrame.toString());
+        }
+        assertEquals(-1, input.read());
+    }
+
+    @Test
+    void testSaveMostReliableRocketsThrowsWithInvalidArguments() {
+        initializeMJTSpaceScanner();
+        List<TimeFrame> timeFrames = List.of(TimeFrame.ofYear(2020));
+
+        assertThrows(IllegalArgumentException.class, () -> spaceScanner.saveMostReliableRockets(null, timeFrames));
+        assertThrows(IllegalArgumentException.class,
+            () -> spaceScanner.saveMostReliableRockets(new ByteArrayOutputStream(), null));
+        assertThrows(IllegalArgumentException.class, () -> spaceScanner.saveMostReliableRockets(
+            new ByteArrayOutputStream(), Arrays.asList(timeFrames.get(0), null)));
+    }
+
+    @Test
+    void testAppendAnswersLikeAScannerOfAllMissions() {
+        String header = missionsData.substring(0, missionsData.indexOf('\n') + 1);
+        String[] lines = missionsData.substring(header.length()).split("\n");
+        Mission added = Mission.of("5,RVSN USSR,\"Site 1/5, Baikonur Cosmodrome, Kazakhstan\",\"Fri Oct 04, 1957\"," +
+            "Sputnik 8K71PS | Sputnik-1,StatusRetired,\"1,160.0 \",Success");
+        initializeMJTSpaceScanner(header + lines[0] + "\n" + lines[1] + "\n");
+        MJTSpaceScanner appended = spaceScanner;
+
+        appended.append(new StringReader(header + lines[2] + "\n" + lines[3] + "\n"));
+        appended.addMission(added);
+        appended.append(new StringReader(header + lines[4] + "\n"));
+        initializeMJTSpaceScanner(header + lines[0] + "\n" + lines[1] + "\n" + lines[2] + "\n" + lines[3] + "\n" +
+            "5,RVSN USSR,\"Site 1/5, Baikonur Cosmodrome, Kazakhstan\",\"Fri Oct 04, 1957\"," +
+            "Sputnik 8K71PS | Sputnik-1,StatusRetired,\"1,160.0 \",Success\n" + lines[4] + "\n");
+
+        LocalDate from = LocalDate.of(1957, 1, 1);
+        LocalDate to = LocalDate.of(2020, 8, 6);
+        assertEquals(List.copyOf(spaceScanner.getAllMissions()), List.copyOf(appended.getAllMissions()));
+        assertEquals(List.copyOf(spaceScanner.getAllMissions(MissionStatus.SUCCESS)),
+            List.copyOf(appended.getAllMissions(MissionStatus.SUCCESS)));
+        assertEquals(spaceScanner.getMissionsPerCountry(), appended.getMissionsPerCountry());
+        assertEquals(spaceScanner.getCompanyWithMostSuccessfulMissions(from, to),
+            appended.getCompanyWithMostSuccessfulMissions(from, to));
+        assertEquals(spaceScanner.getTopNLeastExpensiveMissions(4, MissionStatus.SUCCESS, RocketStatus.STATUS_ACTIVE),
+            appended.getTopNLeastExpensiveMissions(4, MissionStatus.SUCCESS, RocketStatus.STATUS_ACTIVE));
+        assertEquals(spaceScanner.getMostDesiredLocationForMissionsPerCompany(),
+            appended.getMostDesiredLocationForMissionsPerCompany());
+        assertEquals(spaceScanner.getLocationWithMostSuccessfulMissionsPerCompany(from, to),
+            appended.getLocationWithMostSuccessfulMissionsPerCompany(from, to));
+    }
+
+    @Test
+    void testAppendDoesNotChangeResultsReturnedBeforeIt() {
+        initializeMJTSpaceScanner();
+        Collection<Mission> before = spaceScanner.getAllMissions();
+
+        spaceScanner.append(new StringReader(missionsData));
+
+        assertEquals(5, before.size());
+        assertEquals(10, spaceScanner.getAllMissions().size());
+    }
+
+    @Test
+    void testAppendOfAnInvalidDatasetAppendsNoMissions() {
+        initializeMJTSpaceScanner();
+        String invalidMissions = "Unnamed: 0,Company Name,Location,Datum,Detail,Status Rocket,\" Rocket\"," +
+            "Status Mission\n" +
+            "5,NewCo,\"Site 1/5, Baikonur Cosmodrome, Kazakhstan\",\"Fri Oct 04, 1957\"," +
+            "Sputnik 8K71PS | Sputnik-1,StatusRetired,,Success\n" +
+            "6,NewCo,\"Site 1/5, Baikonur Cosmodrome, Kazakhstan\",\"Fri Oct 04, 1957\"," +
+            "Sputnik 8K71PS | Sputnik-1,StatusRetired,,Unknown\n";
+
+        assertThrows(RuntimeException.class, () -> spaceScanner.append(new StringReader(invalidMissions)));
+        spaceScanner.addMission(Mission.of("7,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\"," +
+            "\"Sat Aug 08, 2020\",Falcon 9 Block 5 | Starlink V1 L10,StatusActive,\"50.0 \",Success"));
+
+        assertEquals(6, spaceScanner.getAllMissions().size());
+        assertEquals("SpaceX", spaceScanner.getCompanyWithMostSuccessfulMissions(LocalDate.of(1957, 1, 1),
+            LocalDate.of(2020, 12, 31)));
+        assertTrue(spaceScanner.getAllMissions().stream().noneMatch(mission -> mission.company().equals("NewCo")));
+    }
+
+    @Test
+    void testAppendAndAddMissionThrowWhenPassedNull() {
+        initializeMJTSpaceScanner();
+
+        assertThrows(IllegalArgumentException.class, () -> spaceScanner.append(null));
+        assertThrows(IllegalArgumentException.class, () -> spaceScanner.addMission(null));
+    }
+
+    @Test
+    void testSnapshotKeepsAnsweringFromItsEpoch() {
+        initializeMJTSpaceScanner();
+        MJTSpaceScanner snapshot = spaceScanner.snapshot();
+
+        spaceScanner.append(new StringReader(missionsData));
+
+        assertEquals(0, snapshot.epoch());
+        assertEquals(1, spaceScanner.epoch());
+        assertEquals(5, snapshot.getAllMissions().size());
+        assertEquals(10, spaceScanner.getAllMissions().size());
+        assertEquals("", snapshot.getCompanyWithMostSuccessfulMissions(LocalDate.of(2021, 1, 1),
+            LocalDate.of(2021, 12, 31)));
+    }
+
+    @Test
+    void testQueriesRunningWhileMissionsAreAppendedSeeWholeEpochs() throws InterruptedException {
+        initializeMJTSpaceScanner();
+        int readersCount = 4;
+        int appendsCount = 200;
+        Mission mission = Mission.of("7,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\"," +
+            "\"Sat Aug 08, 2020\",Falcon 9 Block 5 | Starlink V1 L10,StatusActive,\"50.0 \",Success");
+        AtomicBoolean appending = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < readersCount; i++) {
+            readers.add(new Thread(() -> {
+                try {
+                    int lastSize = 0;
+                    while (appending.get()) {
+                        MJTSpaceScanner snapshot = spaceScanner.snapshot();
+                        int size = snapshot.getAllMissions().size();
+                        int perCountry = snapshot.getMissionsPerCountry().values().stream()
+                            .mapToInt(Collection::size)
+                            .sum();
+
+                        assertEquals(size, perCountry);
+                        assertEquals(size - 1, snapshot.getAllMissions(MissionStatus.SUCCESS).size());
+                        assertTrue(size >= lastSize);
+                        lastSize = size;
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        readers.forEach(Thread::start);
+
+        for (int i = 0; i < appendsCount; i++) {
+            spaceScanner.addMission(mission);
+        }
+        appending.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(appendsCount, spaceScanner.epoch());
+        assertEquals(5 + appendsCount, spaceScanner.getAllMissions().size());
+    }
+
+    @Test
+    void testResultsCannotBeModified() {
+        initializeMJTSpaceScanner();
+        Rocket rocket = new Rocket("7", "Vega", Optional.empty(), Optional.empty());
+
+        assertThrows(UnsupportedOperationException.class, () -> spaceScanner.getAllMissions().clear());
+        assertThrows(UnsupportedOperationException.class,
+            () -> spaceScanner.getMissionsPerCountry().get("USA").clear());
+        assertThrows(UnsupportedOperationException.class, () -> spaceScanner.getAllRockets().add(rocket));
+        assertThrows(UnsupportedOperationException.class, () -> spaceScanner.getTopNTallestRockets(3).add(rocket));
+        assertThrows(UnsupportedOperationException.class,
+            () -> spaceScanner.getWikiPageForRocket().put("Vega", Optional.empty()));
+    }
+
+    @Test
+    void testQueriesOverAllMissionsAreComputedOncePerEpoch() {
+        initializeMJTSpaceScanner();
+        Map<String, Collection<Mission>> missionsPerCountry = spaceScanner.getMissionsPerCountry();
+        Map<String, String> mostDesiredLocations = spaceScanner.getMostDesiredLocationForMissionsPerCompany();
+
+        assertSame(missionsPerCountry, spaceScanner.getMissionsPerCountry());
+        assertSame(mostDesiredLocations, spaceScanner.getMostDesiredLocationForMissionsPerCompany());
+
+        spaceScanner.append(new StringReader(missionsData));
+
+        assertEquals(6, spaceScanner.getMissionsPerCountry().get("USA").size());
+        assertEquals(3, missionsPerCountry.get("USA").size());
+    }
+
+    @Test
+    void testEagerViewsAnswerLikeLazyViews() {
+        MJTSpaceScanner eager = new MJTSpaceScanner(new StringReader(missionsData), new StringReader(rocketsData),
+            null, MaterializedViews.Mode.EAGER);
+        initializeMJTSpaceScanner();
+
+        assertEquals(spaceScanner.getMissionsPerCountry(), eager.getMissionsPerCountry());
+        assertEquals(spaceScanner.getMostDesiredLocationForMissionsPerCompany(),
+            eager.getMostDesiredLocationForMissionsPerCompany());
+    }
+
+    @Test
+    void testParallelQueriesAnswerLikeSequentialQueries() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            MJTSpaceScanner parallel = new MJTSpaceScanner(new StringReader(missionsData),
+                new StringReader(rocketsData), null, MaterializedViews.Mode.EAGER, QueryParallelism.parallel(pool, 1));
+            initializeMJTSpaceScanner();
+            LocalDate from = LocalDate.of(2020, 1, 1);
+            LocalDate to = LocalDate.of(2020, 12, 31);
+
+            assertEquals(spaceScanner.getMissionsPerCountry(), parallel.getMissionsPerCountry());
+            assertEquals(spaceScanner.getMostDesiredLocationForMissionsPerCompany(),
+                parallel.getMostDesiredLocationForMissionsPerCompany());
+            assertEquals(spaceScanner.getLocationWithMostSuccessfulMissionsPerCompany(from, to),
+                parallel.getLocationWithMostSuccessfulMissionsPerCompany(from, to));
+            assertThrows(IllegalArgumentException.class, () -> new MJTSpaceScanner(new StringReader(missionsData),
+                new StringReader(rocketsData), null, MaterializedViews.Mode.LAZY, null));
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
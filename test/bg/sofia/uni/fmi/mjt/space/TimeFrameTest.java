@@ -0,0 +1,24 @@
+package bg.sofia.uni.fmi.mjt.space;
+
+import bg.sofia.uni.fmi.mjt.space.exception.TimeFrameMismatchException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TimeFrameTest {
+    @Test
+    void testOfYearSpansTheWholeYear() {
+        assertEquals(new TimeFrame(LocalDate.of(1957, 1, 1), LocalDate.of(1957, 12, 31)), TimeFrame.ofYear(1957));
+    }
+
+    @Test
+    void testConstructorThrowsWithInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeFrame(null, LocalDate.of(2020, 1, 1)));
+        assertThrows(IllegalArgumentException.class, () -> new TimeFrame(LocalDate.of(2020, 1, 1), null));
+        assertThrows(TimeFrameMismatchException.class,
+            () -> new TimeFrame(LocalDate.of(2020, 1, 2), LocalDate.of(2020, 1, 1)));
+    }
+}
@@ -0,0 +1,60 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BufferPoolTest {
+    @Test
+    void testAcquireReusesReleasedBuffersCleared() {
+        BufferPool pool = new BufferPool(64, 2);
+
+        ByteBuffer first = pool.acquire();
+        first.putInt(1).limit(10);
+        pool.release(first);
+
+        ByteBuffer reused = pool.acquire();
+        assertSame(first, reused);
+        assertEquals(0, reused.position());
+        assertEquals(64, reused.limit());
+    }
+
+    @Test
+    void testAcquireAllocatesDirectBuffersWhenThePoolIsEmpty() {
+        BufferPool pool = new BufferPool(64, 2);
+
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+
+        assertNotSame(first, second);
+        assertTrue(first.isDirect());
+        assertEquals(64, second.capacity());
+    }
+
+    @Test
+    void testReleaseDropsBuffersWhenThePoolIsFull() {
+        BufferPool pool = new BufferPool(64, 1);
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+
+        pool.release(first);
+        pool.release(second);
+
+        assertSame(first, pool.acquire());
+        ByteBuffer third = pool.acquire();
+        assertNotSame(first, third);
+        assertNotSame(second, third);
+    }
+
+    @Test
+    void testThrowsWhenCapacityIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new BufferPool(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BufferPool(64, 0));
+    }
+}
@@ -0,0 +1,58 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CipherPoolTest {
+    @Test
+    void testAcquireReusesReleasedCiphers() throws GeneralSecurityException {
+        AtomicInteger initialized = new AtomicInteger();
+        CipherPool pool = new CipherPool("AES", c -> initialized.incrementAndGet(), 2);
+
+        Cipher first = pool.acquire();
+        pool.release(first);
+
+        assertSame(first, pool.acquire());
+        assertEquals(1, initialized.get());
+    }
+
+    @Test
+    void testAcquireCreatesCiphersWhenThePoolIsEmpty() throws GeneralSecurityException {
+        AtomicInteger initialized = new AtomicInteger();
+        CipherPool pool = new CipherPool("AES", c -> initialized.incrementAndGet(), 2);
+
+        Cipher first = pool.acquire();
+        Cipher second = pool.acquire();
+
+        assertNotSame(first, second);
+        assertEquals(2, initialized.get());
+    }
+
+    @Test
+    void testReleaseDropsCiphersWhenThePoolIsFull() throws GeneralSecurityException {
+        CipherPool pool = new CipherPool("AES", c -> { }, 1);
+        Cipher first = pool.acquire();
+        Cipher second = pool.acquire();
+
+        pool.release(first);
+        pool.release(second);
+
+        assertSame(first, pool.acquire());
+        Cipher third = pool.acquire();
+        assertNotSame(first, third);
+        assertNotSame(second, third);
+    }
+
+    @Test
+    void testThrowsWhenCapacityIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new CipherPool("AES", c -> { }, 0));
+    }
+}
@@ -0,0 +1,38 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HkdfTest {
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Test
+    void testDeriveMatchesTheFirstTestCaseOfRfc5869() throws GeneralSecurityException {
+        byte[] inputKey = HEX.parseHex("0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b");
+        byte[] salt = HEX.parseHex("000102030405060708090a0b0c");
+        byte[] info = HEX.parseHex("f0f1f2f3f4f5f6f7f8f9");
+
+        assertArrayEquals(HEX.parseHex("3cb25f25faacd57a90434f64d0362f2a2d2d0a90cf1a5a4c5db02d56ecc4c5bf"
+            + "34007208d5b887185865"), Hkdf.derive(inputKey, salt, info, 42));
+    }
+
+    @Test
+    void testDeriveMatchesTheThirdTestCaseOfRfc5869WithoutSaltAndInfo() throws GeneralSecurityException {
+        byte[] inputKey = HEX.parseHex("0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b");
+
+        assertArrayEquals(HEX.parseHex("8da4e775a563c18f715f802a063c5a31b8a11f5c5ee1879ec3454e5f3c738d2d"
+            + "9d201395faa4b61a96c8"), Hkdf.derive(inputKey, new byte[0], new byte[0], 42));
+    }
+
+    @Test
+    void testDeriveRejectsInvalidLengths() {
+        assertThrows(IllegalArgumentException.class, () -> Hkdf.derive(new byte[16], new byte[0], new byte[0], 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> Hkdf.derive(new byte[16], new byte[0], new byte[0], 255 * 32 + 1));
+    }
+}
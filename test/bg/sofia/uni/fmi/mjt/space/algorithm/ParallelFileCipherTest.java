@@ -0,0 +1,254 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParallelFileCipherTest {
+    private static final int SEGMENT_SIZE = 1000;
+    private static final SegmentCipher CIPHER = new Rijndael(new SecretKeySpec(new byte[16], "AES"));
+
+    private ForkJoinPool pool;
+    private ParallelFileCipher fileCipher;
+    private Path plainFile;
+    private Path encryptedFile;
+    private Path decryptedFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pool = new ForkJoinPool(4);
+        fileCipher = new ParallelFileCipher(CIPHER, pool, SEGMENT_SIZE);
+        plainFile = Files.createTempFile("plain", ".bin");
+        encryptedFile = Files.createTempFile("encrypted", ".bin");
+        decryptedFile = Files.createTempFile("decrypted", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(plainFile);
+        Files.deleteIfExists(encryptedFile);
+        Files.deleteIfExists(decryptedFile);
+    }
+
+    private byte[] writePlainFile(int length) throws IOException {
+        byte[] data = new byte[length];
+        new SplittableRandom(length).nextBytes(data);
+        Files.write(plainFile, data);
+
+        return data;
+    }
+
+    private void assertRoundTrip(int length) throws IOException, CipherException {
+        byte[] data = writePlainFile(length);
+
+        fileCipher.encrypt(plainFile, encryptedFile);
+        fileCipher.decrypt(encryptedFile, decryptedFile);
+
+        assertArrayEquals(data, Files.readAllBytes(decryptedFile));
+    }
+
+    private void flipByte(int position) throws IOException {
+        byte[] encrypted = Files.readAllBytes(encryptedFile);
+        encrypted[position] ^= 1;
+        Files.write(encryptedFile, encrypted);
+    }
+
+    @Test
+    void testDecryptsWhatWasEncrypted() throws IOException, CipherException {
+        assertRoundTrip(123_456);
+    }
+
+    @Test
+    void testDecryptsAnEmptyFile() throws IOException, CipherException {
+        assertRoundTrip(0);
+        assertEquals(1, fileCipher.segmentsCount(encryptedFile));
+    }
+
+    @Test
+    void testDecryptsFilesOfWholeSegments() throws IOException, CipherException {
+        assertRoundTrip(3 * SEGMENT_SIZE);
+        assertEquals(3, fileCipher.segmentsCount(encryptedFile));
+    }
+
+    @Test
+    void testDecryptsFilesSmallerThanASegment() throws IOException, CipherException {
+        assertRoundTrip(1);
+        assertEquals(1, fileCipher.segmentsCount(encryptedFile));
+    }
+
+    @Test
+    void testDecryptsWithTheSegmentSizeOfTheFile() throws IOException, CipherException {
+        byte[] data = writePlainFile(10 * SEGMENT_SIZE + 1);
+        fileCipher.encrypt(plainFile, encryptedFile);
+
+        new ParallelFileCipher(CIPHER, pool).decrypt(encryptedFile, decryptedFile);
+
+        assertArrayEquals(data, Files.readAllBytes(decryptedFile));
+    }
+
+    @Test
+    void testEncryptsTheSameFileDifferentlyEveryTime() throws IOException, CipherException {
+        writePlainFile(SEGMENT_SIZE);
+        fileCipher.encrypt(plainFile, encryptedFile);
+        byte[] first = Files.readAllBytes(encryptedFile);
+        fileCipher.encrypt(plainFile, encryptedFile);
+
+        assertFalse(Arrays.equals(first, Files.readAllBytes(encryptedFile)));
+    }
+
+    @Test
+    void testDecryptsASingleSegment() throws IOException, CipherException {
+        byte[] data = writePlainFile(5 * SEGMENT_SIZE + 17);
+        fileCipher.encrypt(plainFile, encryptedFile);
+
+        assertEquals(6, fileCipher.segmentsCount(encryptedFile));
+        assertArrayEquals(Arrays.copyOfRange(data, 2 * SEGMENT_SIZE, 3 * SEGMENT_SIZE),
+            fileCipher.decryptSegment(encryptedFile, 2));
+        assertArrayEquals(Arrays.copyOfRange(data, 5 * SEGMENT_SIZE, data.length),
+            fileCipher.decryptSegment(encryptedFile, 5));
+    }
+
+    @Test
+    void testDecryptSegmentThrowsWhenTheIndexIsOutOfRange() throws IOException, CipherException {
+        writePlainFile(2 * SEGMENT_SIZE);
+        fileCipher.encrypt(plainFile, encryptedFile);
+
+        assertThrows(IllegalArgumentException.class, () -> fileCipher.decryptSegment(encryptedFile, 2));
+        assertThrows(IllegalArgumentException.class, () -> fileCipher.decryptSegment(encryptedFile, -1));
+    }
+
+    @Test
+    void testDecryptThrowsAndDeletesTheOutputWhenASegmentWasModified() throws IOException, CipherException {
+        writePlainFile(20 * SEGMENT_SIZE);
+        fileCipher.encrypt(plainFile, encryptedFile);
+        flipByte((int) Files.size(encryptedFile) / 2);
+
+        assertThrows(CipherException.class, () -> fileCipher.decrypt(encryptedFile, decryptedFile));
+        assertFalse(Files.exists(decryptedFile));
+    }
+
+    @Test
+    void testDecryptThrowsWhenTheHeaderWasModified() throws IOException, CipherException {
+        writePlainFile(2 * SEGMENT_SIZE);
+        fileCipher.encrypt(plainFile, encryptedFile);
+        flipByte(ParallelFileCipher.FIXED_HEADER_SIZE);
+
+        assertThrows(CipherException.class, () -> fileCipher.decrypt(encryptedFile, decryptedFile));
+        assertThrows(CipherException.class, () -> fileCipher.decryptSegment(encryptedFile, 1));
+    }
+
+    @Test
+    void testDecryptThrowsWhenSegmentsWereSwapped() throws IOException, CipherException {
+        writePlainFile(3 * SEGMENT_SIZE);
+        fileCipher.encrypt(plainFile, encryptedFile);
+        byte[] encrypted = Files.readAllBytes(encryptedFile);
+        int encryptedSegmentSize = SEGMENT_SIZE + CIPHER.segmentOverhead();
+        int first = encrypted.length - 3 * encryptedSegmentSize;
+        byte[] firstSegment = Arrays.copyOfRange(encrypted, first, first + encryptedSegmentSize);
+        System.arraycopy(encrypted, first + encryptedSegmentSize, encrypted, first, encryptedSegmentSize);
+        System.arraycopy(firstSegment, 0, encrypted, first + encryptedSegmentSize, encryptedSegmentSize);
+        Files.write(encryptedFile, encrypted);
+
+        assertThrows(CipherException.class, () -> fileCipher.decrypt(encryptedFile, decryptedFile));
+    }
+
+    @Test
+    void testDecryptThrowsWhenTheFileIsTruncated() throws IOException, CipherException {
+        writePlainFile(2 * SEGMENT_SIZE);
+        fileCipher.encrypt(plainFile, encryptedFile);
+        byte[] encrypted = Files.readAllBytes(encryptedFile);
+        Files.write(encryptedFile, Arrays.copyOf(encrypted, encrypted.length - SEGMENT_SIZE));
+
+        assertThrows(CipherException.class, () -> fileCipher.decrypt(encryptedFile, decryptedFile));
+    }
+
+    @Test
+    void testDecryptThrowsWhenTheKeyIsDifferent() throws IOException, CipherException {
+        writePlainFile(SEGMENT_SIZE);
+        fileCipher.encrypt(plainFile, encryptedFile);
+        byte[] otherKey = new byte[16];
+        otherKey[0] = 1;
+        ParallelFileCipher otherCipher =
+            new ParallelFileCipher(new Rijndael(new SecretKeySpec(otherKey, "AES")), pool, SEGMENT_SIZE);
+
+        assertThrows(CipherException.class, () -> otherCipher.decrypt(encryptedFile, decryptedFile));
+    }
+
+    @Test
+    void testFilesEncryptedUnderOneKeyHaveNoncesAndKeysOfTheirOwn() throws IOException, CipherException {
+        writePlainFile(2 * SEGMENT_SIZE);
+        Path otherEncryptedFile = Files.createTempFile("encrypted", ".bin");
+        try {
+            fileCipher.encrypt(plainFile, encryptedFile);
+            fileCipher.encrypt(plainFile, otherEncryptedFile);
+            byte[] encrypted = Files.readAllBytes(encryptedFile);
+            byte[] otherEncrypted = Files.readAllBytes(otherEncryptedFile);
+            int saltEnd = ParallelFileCipher.FIXED_HEADER_SIZE + ParallelFileCipher.SALT_LENGTH;
+            int headerSize = encrypted.length - 2 * (SEGMENT_SIZE + CIPHER.segmentOverhead());
+
+            assertFalse(Arrays.equals(encrypted, ParallelFileCipher.FIXED_HEADER_SIZE, saltEnd,
+                otherEncrypted, ParallelFileCipher.FIXED_HEADER_SIZE, saltEnd));
+            assertFalse(Arrays.equals(encrypted, saltEnd, headerSize, otherEncrypted, saltEnd, headerSize));
+            assertFalse(Arrays.equals(encrypted, headerSize, encrypted.length,
+                otherEncrypted, headerSize, otherEncrypted.length));
+
+            System.arraycopy(otherEncrypted, saltEnd, encrypted, saltEnd, headerSize - saltEnd);
+            System.arraycopy(otherEncrypted, headerSize, encrypted, headerSize, encrypted.length - headerSize);
+            Files.write(encryptedFile, encrypted);
+
+            assertThrows(CipherException.class, () -> fileCipher.decrypt(encryptedFile, decryptedFile));
+        } finally {
+            Files.deleteIfExists(otherEncryptedFile);
+        }
+    }
+
+    @Test
+    void testDecryptThrowsWhenTheSegmentSizeInTheHeaderIsTooLarge() throws IOException, CipherException {
+        writePlainFile(5);
+        fileCipher.encrypt(plainFile, encryptedFile);
+        byte[] encrypted = Files.readAllBytes(encryptedFile);
+        int segmentSizePosition = 2 * Integer.BYTES;
+
+        for (int segmentSize : new int[] {Integer.MAX_VALUE, Integer.MAX_VALUE - CIPHER.segmentOverhead()}) {
+            ByteBuffer.wrap(encrypted).putInt(segmentSizePosition, segmentSize);
+            Files.write(encryptedFile, encrypted);
+            Files.deleteIfExists(decryptedFile);
+
+            assertThrows(CipherException.class, () -> fileCipher.decrypt(encryptedFile, decryptedFile));
+            assertThrows(CipherException.class, () -> fileCipher.decryptSegment(encryptedFile, 0));
+            assertFalse(Files.exists(decryptedFile));
+        }
+    }
+
+    @Test
+    void testDecryptThrowsWhenTheFileIsNotEncrypted() throws IOException {
+        Files.write(plainFile, ByteBuffer.allocate(100).putInt(ParallelFileCipher.FORMAT_VERSION).array());
+
+        assertThrows(CipherException.class, () -> fileCipher.decrypt(plainFile, decryptedFile));
+        assertThrows(CipherException.class, () -> fileCipher.segmentsCount(plainFile));
+    }
+
+    @Test
+    void testConstructorThrowsWithInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelFileCipher(null, pool));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelFileCipher(CIPHER, null));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelFileCipher(CIPHER, pool, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelFileCipher(CIPHER, pool, Integer.MAX_VALUE));
+    }
+}
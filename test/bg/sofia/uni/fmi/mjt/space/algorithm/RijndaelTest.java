@@ -3,13 +3,35 @@ package bg.sofia.uni.fmi.mjt.space.algorithm;
 import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
 import org.junit.jupiter.api.Test;
 
+import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class RijndaelTest {
     @Test
@@ -38,4 +60,300 @@ public class RijndaelTest {
             throw new RuntimeException(e);
         }
     }
+
+    private static final SecretKey KEY = new SecretKeySpec("0123456789abcdef".getBytes(), "AES");
+
+    private static byte[] encrypt(SymmetricBlockCipher cipher, String text) throws CipherException {
+        var outputStream = new ByteArrayOutputStream();
+        cipher.encrypt(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static String decrypt(SymmetricBlockCipher cipher, byte[] encrypted) throws CipherException {
+        var outputStream = new ByteArrayOutputStream();
+        cipher.decrypt(new ByteArrayInputStream(encrypted), outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testReusedCiphersGiveTheSameResultsAsNewOnes() throws CipherException {
+        Rijndael reused = new Rijndael(KEY);
+
+        for (String text : List.of("Falcon 9 Block 5", "", "Long March 2D", "Falcon 9 Block 5")) {
+            byte[] encrypted = encrypt(reused, text);
+
+            assertArrayEquals(encrypt(new Rijndael(KEY), text), encrypted);
+            assertEquals(text, decrypt(reused, encrypted));
+        }
+    }
+
+    @Test
+    void testDecryptWorksAfterAFailedDecrypt() throws CipherException {
+        Rijndael rijndael = new Rijndael(KEY);
+        byte[] encrypted = encrypt(rijndael, "Proton-M/Briz-M");
+
+        try {
+            decrypt(rijndael, new byte[] {1, 2, 3});
+        } catch (CipherException e) {
+            // the cipher must not be left in a broken state either way
+        }
+
+        assertEquals("Proton-M/Briz-M", decrypt(rijndael, encrypted));
+    }
+
+    @Test
+    void testDecryptThrowsForDataWhichIsNotEncryptedInEveryMode() {
+        byte[] corrupt = new byte[3 * 16 + 5];
+
+        for (CipherMode mode : List.of(CipherMode.ECB, CipherMode.GCM)) {
+            Rijndael rijndael = new Rijndael(KEY, mode);
+
+            assertThrows(CipherException.class, () -> decryptBytes(rijndael, corrupt), mode.toString());
+            assertThrows(CipherException.class, () -> rijndael.decrypt(
+                Channels.newChannel(new ByteArrayInputStream(corrupt)),
+                Channels.newChannel(new ByteArrayOutputStream())), mode.toString());
+        }
+    }
+
+    @Test
+    void testConcurrentCallersGetTheSameResultsAsASingleCaller()
+        throws InterruptedException, ExecutionException, CipherException {
+        Rijndael rijndael = new Rijndael(KEY);
+        int callers = 8;
+        int callsPerCaller = 200;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int caller = 0; caller < callers; caller++) {
+                int callerId = caller;
+                results.add(executor.submit(() -> {
+                    boolean correct = true;
+                    for (int call = 0; call < callsPerCaller; call++) {
+                        String text = "Rocket " + callerId + "-" + call;
+                        byte[] encrypted = encrypt(rijndael, text);
+                        correct &= decrypt(rijndael, encrypted).equals(text);
+                    }
+                    return correct;
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertEquals(true, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertArrayEquals(encrypt(new Rijndael(KEY), "Rocket 3-7"), encrypt(rijndael, "Rocket 3-7"));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new SplittableRandom(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] encryptBytes(SymmetricBlockCipher cipher, byte[] data) throws CipherException {
+        var outputStream = new ByteArrayOutputStream();
+        cipher.encrypt(new ByteArrayInputStream(data), outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] decryptBytes(SymmetricBlockCipher cipher, byte[] data) throws CipherException {
+        var outputStream = new ByteArrayOutputStream();
+        cipher.decrypt(new ByteArrayInputStream(data), outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    void testDefaultModeIsTheBareAesTransformation() throws CipherException, GeneralSecurityException {
+        byte[] data = randomBytes(100);
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, KEY);
+
+        assertEquals(CipherMode.ECB, new Rijndael(KEY).mode());
+        assertArrayEquals(cipher.doFinal(data), encryptBytes(new Rijndael(KEY), data));
+    }
+
+    @Test
+    void testEveryModeDecryptsWhatItEncrypted() throws CipherException {
+        for (CipherMode mode : CipherMode.values()) {
+            Rijndael rijndael = new Rijndael(KEY, mode);
+
+            for (int length : new int[] {0, 1, 16, 1000, 5000}) {
+                byte[] data = randomBytes(length);
+                assertArrayEquals(data, decryptBytes(rijndael, encryptBytes(rijndael, data)), mode + " " + length);
+            }
+        }
+    }
+
+    @Test
+    void testModesWithAnIvEncryptTheSameDataDifferently() throws CipherException {
+        byte[] data = randomBytes(64);
+
+        for (CipherMode mode : List.of(CipherMode.GCM, CipherMode.CTR)) {
+            Rijndael rijndael = new Rijndael(KEY, mode);
+
+            assertFalse(Arrays.equals(encryptBytes(rijndael, data), encryptBytes(rijndael, data)));
+        }
+    }
+
+    @Test
+    void testGcmDecryptThrowsWhenTheDataWasModified() throws CipherException {
+        Rijndael rijndael = new Rijndael(KEY, CipherMode.GCM);
+        byte[] encrypted = encryptBytes(rijndael, randomBytes(100));
+        encrypted[encrypted.length / 2] ^= 1;
+
+        assertThrows(CipherException.class, () -> decryptBytes(rijndael, encrypted));
+        assertThrows(CipherException.class, () -> decryptBytes(rijndael, new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    void testChannelsAreEncryptedLikeStreams() throws IOException, CipherException {
+        // larger than the buffers of the channels, so that they are filled several times
+        byte[] data = randomBytes(3 * 1024 * 1024 + 5);
+        Path plain = Files.createTempFile("plain", ".bin");
+        Path encrypted = Files.createTempFile("encrypted", ".bin");
+        Path decrypted = Files.createTempFile("decrypted", ".bin");
+
+        try {
+            Files.write(plain, data);
+            for (CipherMode mode : CipherMode.values()) {
+                Rijndael rijndael = new Rijndael(KEY, mode);
+
+                try (FileChannel input = FileChannel.open(plain);
+                     FileChannel output = FileChannel.open(encrypted, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                    rijndael.encrypt(input, output);
+                }
+                try (FileChannel input = FileChannel.open(encrypted);
+                     FileChannel output = FileChannel.open(decrypted, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                    rijndael.decrypt(input, output);
+                }
+
+                assertArrayEquals(data, Files.readAllBytes(decrypted), mode.toString());
+                assertArrayEquals(data, decryptBytes(rijndael, Files.readAllBytes(encrypted)), mode.toString());
+            }
+        } finally {
+            Files.deleteIfExists(plain);
+            Files.deleteIfExists(encrypted);
+            Files.deleteIfExists(decrypted);
+        }
+    }
+
+    @Test
+    void testCtrDecryptsFromAnyPosition() throws IOException, CipherException {
+        Rijndael rijndael = new Rijndael(KEY, CipherMode.CTR);
+        byte[] data = randomBytes(100_000);
+        Path encrypted = Files.createTempFile("encrypted", ".bin");
+
+        try {
+            Files.write(encrypted, encryptBytes(rijndael, data));
+
+            try (FileChannel input = FileChannel.open(encrypted)) {
+                for (int position : new int[] {0, 1, 15, 16, 17, 4099, 99_990}) {
+                    ByteBuffer output = ByteBuffer.allocate(20);
+                    int decrypted = rijndael.decrypt(input, position, output);
+
+                    int expected = Math.min(20, data.length - position);
+                    assertEquals(expected, decrypted);
+                    assertArrayEquals(Arrays.copyOfRange(data, position, position + expected),
+                        Arrays.copyOf(output.array(), decrypted));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(encrypted);
+        }
+    }
+
+    @Test
+    void testDecryptFromAPositionThrowsForOtherModes() throws IOException {
+        Path encrypted = Files.createTempFile("encrypted", ".bin");
+
+        try (FileChannel input = FileChannel.open(encrypted)) {
+            assertThrows(UnsupportedOperationException.class,
+                () -> new Rijndael(KEY).decrypt(input, 0, ByteBuffer.allocate(1)));
+            assertThrows(IllegalArgumentException.class,
+                () -> new Rijndael(KEY, CipherMode.CTR).decrypt(input, -1, ByteBuffer.allocate(1)));
+            assertThrows(IllegalArgumentException.class, () -> new Rijndael(KEY, null));
+        } finally {
+            Files.deleteIfExists(encrypted);
+        }
+    }
+
+    @Test
+    void testBatchEncryptsEveryPayloadLikeAStream() throws CipherException {
+        List<byte[]> payloads = List.of(randomBytes(0), randomBytes(5), randomBytes(16), randomBytes(99));
+
+        for (CipherMode mode : CipherMode.values()) {
+            Rijndael rijndael = new Rijndael(KEY, mode);
+            int encryptedLength = payloads.stream().mapToInt(p -> rijndael.encryptedLength(p.length)).sum();
+            ByteBuffer output = ByteBuffer.allocateDirect(encryptedLength + 1);
+            output.put((byte) 7);
+
+            int[] lengths = rijndael.encrypt(payloads, output);
+
+            assertEquals(payloads.size(), lengths.length);
+            assertEquals(output.capacity(), output.position());
+            output.flip().position(1);
+            for (int i = 0; i < payloads.size(); i++) {
+                assertEquals(rijndael.encryptedLength(payloads.get(i).length), lengths[i], mode + " " + i);
+                byte[] encrypted = new byte[lengths[i]];
+                output.get(encrypted);
+                assertArrayEquals(payloads.get(i), decryptBytes(rijndael, encrypted), mode + " " + i);
+            }
+        }
+    }
+
+    @Test
+    void testBatchEncryptInEcbModeGivesTheSameResultsAsAStream() throws CipherException {
+        Rijndael rijndael = new Rijndael(KEY);
+        byte[] payload = "Falcon 9 Block 5".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer output = ByteBuffer.allocate(2 * rijndael.encryptedLength(payload.length));
+
+        rijndael.encrypt(List.of(payload, payload), output);
+
+        byte[] expected = encryptBytes(rijndael, payload);
+        assertArrayEquals(expected, Arrays.copyOfRange(output.array(), 0, expected.length));
+        assertArrayEquals(expected, Arrays.copyOfRange(output.array(), expected.length, 2 * expected.length));
+    }
+
+    @Test
+    void testBatchEncryptThrowsWithInvalidArguments() {
+        Rijndael rijndael = new Rijndael(KEY);
+        List<byte[]> payloads = List.of(new byte[16]);
+
+        assertThrows(IllegalArgumentException.class, () -> rijndael.encrypt(null, ByteBuffer.allocate(32)));
+        assertThrows(IllegalArgumentException.class,
+            () -> rijndael.encrypt(Arrays.asList(new byte[1], null), ByteBuffer.allocate(32)));
+        assertThrows(IllegalArgumentException.class, () -> rijndael.encrypt(payloads, (ByteBuffer) null));
+        assertThrows(IllegalArgumentException.class, () -> rijndael.encrypt(payloads, ByteBuffer.allocate(31)));
+    }
+
+    @Test
+    void testDerivedSegmentCiphersOfDifferentSaltsHaveDifferentKeys() throws CipherException {
+        Rijndael rijndael = new Rijndael(KEY);
+        byte[] info = "segments".getBytes(StandardCharsets.US_ASCII);
+        byte[] nonce = new byte[rijndael.segmentNonceLength()];
+        byte[] segment = "Falcon 9 Block 5".getBytes(StandardCharsets.UTF_8);
+        byte[] associatedData = new byte[0];
+
+        SegmentCipher first = rijndael.deriveSegmentCipher(new byte[] {1}, info);
+        SegmentCipher second = rijndael.deriveSegmentCipher(new byte[] {2}, info);
+        ByteBuffer firstEncrypted = ByteBuffer.allocate(segment.length + first.segmentOverhead());
+        ByteBuffer secondEncrypted = ByteBuffer.allocate(segment.length + second.segmentOverhead());
+        first.encryptSegment(ByteBuffer.wrap(segment), firstEncrypted, nonce, associatedData);
+        second.encryptSegment(ByteBuffer.wrap(segment), secondEncrypted, nonce, associatedData);
+
+        assertFalse(Arrays.equals(firstEncrypted.array(), secondEncrypted.array()));
+        assertThrows(CipherException.class, () -> second.decryptSegment(ByteBuffer.wrap(firstEncrypted.array()),
+            ByteBuffer.allocate(segment.length), nonce, associatedData));
+
+        ByteBuffer decrypted = ByteBuffer.allocate(segment.length);
+        rijndael.deriveSegmentCipher(new byte[] {1}, info)
+            .decryptSegment(ByteBuffer.wrap(firstEncrypted.array()), decrypted, nonce, associatedData);
+        assertArrayEquals(segment, decrypted.array());
+    }
 }
@@ -0,0 +1,59 @@
+package bg.sofia.uni.fmi.mjt.space.algorithm;
+
+import bg.sofia.uni.fmi.mjt.space.exception.CipherException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SymmetricBlockCipherTest {
+    private static final byte MASK = 0x5A;
+
+    // a cipher implementing only the stream operations, which closes its output stream like Rijndael does
+    private static final SymmetricBlockCipher XOR_CIPHER = new SymmetricBlockCipher() {
+        @Override
+        public void encrypt(InputStream inputStream, OutputStream outputStream) {
+            xor(inputStream, outputStream);
+        }
+
+        @Override
+        public void decrypt(InputStream inputStream, OutputStream outputStream) {
+            xor(inputStream, outputStream);
+        }
+
+        private static void xor(InputStream inputStream, OutputStream outputStream) {
+            try (outputStream) {
+                for (byte b : inputStream.readAllBytes()) {
+                    outputStream.write(b ^ MASK);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    };
+
+    @Test
+    void testChannelOperationsDefaultToTheStreamOperationsAndLeaveTheOutputOpen() throws CipherException {
+        byte[] data = "Falcon 9 Block 5".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        WritableByteChannel encryptedChannel = Channels.newChannel(encrypted);
+
+        XOR_CIPHER.encrypt(Channels.newChannel(new ByteArrayInputStream(data)), encryptedChannel);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        XOR_CIPHER.decrypt(Channels.newChannel(new ByteArrayInputStream(encrypted.toByteArray())),
+            Channels.newChannel(decrypted));
+
+        assertTrue(encryptedChannel.isOpen());
+        assertArrayEquals(data, decrypted.toByteArray());
+    }
+}
@@ -0,0 +1,132 @@
+package bg.sofia.uni.fmi.mjt.space.cache;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CachingSpaceScannerTest {
+    private static final String MISSIONS_DATA = "Unnamed: 0,Company Name,Location,Datum,Detail,Status Rocket," +
+        "\" Rocket\",Status Mission\n" +
+        "0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Fri Aug 07, 2020\"," +
+        "Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Success\n" +
+        "1,CASC,\"Site 9401 (SLS-2), Jiuquan Satellite Launch Center, China\",\"Thu Aug 06, 2020\"," +
+        "Long March 2D | Gaofen-9 04 & Q-SAT,StatusActive,\"29.75 \",Success\n" +
+        "2,SpaceX,\"Pad A, Boca Chica, Texas, USA\",\"Tue Aug 04, 2020\",Starship Prototype | 150 Meter Hop," +
+        "StatusActive,,Failure\n";
+    private static final String ROCKETS_DATA = """
+        "",Name,Wiki,Rocket Height
+        0,Tsyklon-3,https://en.wikipedia.org/wiki/Tsyklon-3,39.0 m
+        1,Unha-2,https://en.wikipedia.org/wiki/Unha,28.0 m
+        """;
+    private static final Mission CASC_MISSION = Mission.of("3,CASC,\"LC-101, Wenchang Satellite Launch Center, " +
+        "China\",\"Fri Aug 07, 2020\",Long March 5 | Tianwen-1,StatusActive,,Success");
+    private static final LocalDate FROM = LocalDate.of(2020, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2020, 12, 31);
+    private static final int MAXIMUM_SIZE = 10;
+    private static final long MAXIMUM_WEIGHT = 1_000;
+
+    private static MJTSpaceScanner createScanner() {
+        return new MJTSpaceScanner(new StringReader(MISSIONS_DATA), new StringReader(ROCKETS_DATA), null);
+    }
+
+    @Test
+    void testRepeatedQueriesAreAnsweredFromTheCache() {
+        CachingSpaceScanner cache = new CachingSpaceScanner(createScanner(), MAXIMUM_SIZE, MAXIMUM_WEIGHT);
+
+        Map<String, String> first = cache.getMostDesiredLocationForMissionsPerCompany();
+        Map<String, String> second = cache.getMostDesiredLocationForMissionsPerCompany();
+        String company = cache.getCompanyWithMostSuccessfulMissions(FROM, TO);
+        cache.getCompanyWithMostSuccessfulMissions(FROM, TO);
+        cache.getCompanyWithMostSuccessfulMissions(FROM, FROM);
+
+        assertSame(first, second);
+        assertEquals("SpaceX", company);
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(3, stats.missCount());
+        assertEquals(3, stats.size());
+        assertEquals(0.4, stats.hitRate(), 0.0001);
+    }
+
+    @Test
+    void testResultsAreDroppedWhenMissionsAreAppended() {
+        MJTSpaceScanner scanner = createScanner();
+        CachingSpaceScanner cache = new CachingSpaceScanner(scanner, MAXIMUM_SIZE, MAXIMUM_WEIGHT);
+        Map<String, Collection<Mission>> before = cache.getMissionsPerCountry();
+
+        scanner.addMission(CASC_MISSION);
+        scanner.addMission(CASC_MISSION);
+        Map<String, Collection<Mission>> after = cache.getMissionsPerCountry();
+
+        assertNotSame(before, after);
+        assertEquals(1, before.get("China").size());
+        assertEquals(3, after.get("China").size());
+        assertEquals("CASC", cache.getCompanyWithMostSuccessfulMissions(FROM, TO));
+        assertEquals(1, cache.stats().invalidationCount());
+    }
+
+    @Test
+    void testLeastRecentlyUsedResultsAreEvictedFirst() {
+        CachingSpaceScanner cache = new CachingSpaceScanner(createScanner(), 2, MAXIMUM_WEIGHT);
+
+        cache.getTopNTallestRockets(1);
+        cache.getTopNTallestRockets(2);
+        cache.getTopNTallestRockets(1);
+        cache.getTopNTallestRockets(3);
+        cache.getTopNTallestRockets(1);
+        cache.getTopNTallestRockets(2);
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(4, stats.missCount());
+        assertEquals(2, stats.evictionCount());
+        assertEquals(2, stats.size());
+    }
+
+    @Test
+    void testResultsHeavierThanTheMaximumWeightAreNotCached() {
+        CachingSpaceScanner cache = new CachingSpaceScanner(createScanner(), MAXIMUM_SIZE, 3);
+
+        cache.getAllMissions();
+        cache.getTopNTallestRockets(1);
+
+        assertEquals(1, cache.stats().size());
+        assertEquals(2, cache.stats().weight());
+    }
+
+    @Test
+    void testResultsCannotBeModified() {
+        CachingSpaceScanner cache = new CachingSpaceScanner(createScanner(), MAXIMUM_SIZE, MAXIMUM_WEIGHT);
+
+        assertThrows(UnsupportedOperationException.class, () -> cache.getMissionsPerCountry().get("USA").clear());
+        assertThrows(UnsupportedOperationException.class,
+            () -> cache.getAllMissions(MissionStatus.SUCCESS).add(CASC_MISSION));
+        assertThrows(UnsupportedOperationException.class, () -> cache.getTopNLeastExpensiveMissions(1,
+            MissionStatus.SUCCESS, RocketStatus.STATUS_ACTIVE).clear());
+        assertEquals(List.copyOf(createScanner().getAllMissions()), List.copyOf(cache.getAllMissions()));
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejectedAndNotCached() {
+        CachingSpaceScanner cache = new CachingSpaceScanner(createScanner(), MAXIMUM_SIZE, MAXIMUM_WEIGHT);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.getAllMissions(null));
+        assertThrows(IllegalArgumentException.class, () -> cache.getTopNTallestRockets(0));
+        assertEquals(0, cache.stats().size());
+        assertThrows(IllegalArgumentException.class, () -> new CachingSpaceScanner(null, MAXIMUM_SIZE, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CachingSpaceScanner(createScanner(), 0, 1));
+    }
+}
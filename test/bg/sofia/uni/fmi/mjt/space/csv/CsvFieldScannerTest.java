@@ -0,0 +1,85 @@
+package bg.sofia.uni.fmi.mjt.space.csv;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CsvFieldScannerTest {
+    @Test
+    void testScanSplitsPlainFields() {
+        String line = "0,Tsyklon-3,https://en.wikipedia.org/wiki/Tsyklon-3,39.0 m";
+
+        CsvFieldScanner fields = new CsvFieldScanner().scan(line);
+
+        assertEquals(4, fields.fieldsCount());
+        assertEquals("0", fields.field(0));
+        assertEquals("Tsyklon-3", fields.field(1));
+        assertEquals("https://en.wikipedia.org/wiki/Tsyklon-3", fields.field(2));
+        assertEquals("39.0 m", fields.field(3));
+    }
+
+    @Test
+    void testScanKeepsQuotedCommasInsideTheField() {
+        String line = "0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Fri Aug 07, 2020\"";
+
+        CsvFieldScanner fields = new CsvFieldScanner().scan(line);
+
+        assertEquals(4, fields.fieldsCount());
+        assertEquals("LC-39A, Kennedy Space Center, Florida, USA", fields.field(2));
+        assertEquals("Fri Aug 07, 2020", fields.field(3));
+    }
+
+    @Test
+    void testScanReturnsOffsetsWithoutTheSurroundingQuotes() {
+        String line = "148,\"Delta IV Medium+ (4,2)\",https://en.wikipedia.org/wiki/Delta_IV,62.5 m";
+
+        CsvFieldScanner fields = new CsvFieldScanner().scan(line);
+
+        assertEquals(5, fields.start(1));
+        assertEquals(27, fields.end(1));
+        assertEquals("Delta IV Medium+ (4,2)", line.substring(fields.start(1), fields.end(1)));
+    }
+
+    @Test
+    void testScanResolvesEscapedQuotes() {
+        CsvFieldScanner fields = new CsvFieldScanner().scan("1,\"Pad \"\"A\"\", Boca Chica\",x");
+
+        assertEquals(3, fields.fieldsCount());
+        assertEquals("Pad \"A\", Boca Chica", fields.field(1));
+        assertEquals("x", fields.field(2));
+    }
+
+    @Test
+    void testScanKeepsEmptyAndTrailingFields() {
+        CsvFieldScanner fields = new CsvFieldScanner().scan("0,Tsyklon-3,,");
+
+        assertEquals(4, fields.fieldsCount());
+        assertFalse(fields.isEmpty(1));
+        assertTrue(fields.isEmpty(2));
+        assertTrue(fields.isEmpty(3));
+        assertTrue(fields.isEmpty(4));
+    }
+
+    @Test
+    void testScanCanBeReusedForManyLines() {
+        CsvFieldScanner fields = new CsvFieldScanner();
+
+        fields.scan("a,b,c,d,e,f,g,h,i,j");
+        assertEquals(10, fields.fieldsCount());
+        assertEquals("j", fields.field(9));
+
+        fields.scan("x,\"y,z\"");
+        assertEquals(2, fields.fieldsCount());
+        assertEquals("y,z", fields.field(1));
+    }
+
+    @Test
+    void testFieldThrowsWhenIndexIsOutOfBounds() {
+        CsvFieldScanner fields = new CsvFieldScanner().scan("a,b");
+
+        assertThrows(IndexOutOfBoundsException.class, () -> fields.field(2));
+    }
+}
@@ -0,0 +1,67 @@
+package bg.sofia.uni.fmi.mjt.space.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class CsvLineReaderTest {
+    private static List<String> readAll(String content) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (CsvLineReader reader = new CsvLineReader(new StringReader(content))) {
+            while (reader.next()) {
+                lines.add(reader.line().toString());
+            }
+        }
+
+        return lines;
+    }
+
+    @Test
+    void testNextReadsEveryLineWithoutLineBreaks() throws IOException {
+        assertEquals(List.of("id,name", "0,Tsyklon-3", "1,Tsyklon-4M"),
+            readAll("id,name\r\n0,Tsyklon-3\r\n1,Tsyklon-4M\r\n"));
+    }
+
+    @Test
+    void testNextReadsTheLastLineWithoutALineBreak() throws IOException {
+        assertEquals(List.of("id,name", "0,Tsyklon-3"), readAll("id,name\n0,Tsyklon-3"));
+    }
+
+    @Test
+    void testNextKeepsQuotedLineBreaksInTheRecord() throws IOException {
+        assertEquals(List.of("0,\"Site 1,\nBaikonur\",x", "1,y"), readAll("0,\"Site 1,\nBaikonur\",x\n1,y\n"));
+    }
+
+    @Test
+    void testNextReadsLinesLongerThanTheBuffers() throws IOException {
+        String longLine = "x".repeat(100_000);
+
+        assertEquals(List.of("a", longLine, "b"), readAll("a\n" + longLine + "\nb\n"));
+    }
+
+    @Test
+    void testNextReturnsFalseForAnEmptyStream() throws IOException {
+        try (CsvLineReader reader = new CsvLineReader(new StringReader(""))) {
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void testLineIsAViewOverTheCurrentRecord() throws IOException {
+        try (CsvLineReader reader = new CsvLineReader(new StringReader("0,Tsyklon-3\n"))) {
+            reader.next();
+            CharSequence line = reader.line();
+
+            assertEquals(11, line.length());
+            assertEquals('T', line.charAt(2));
+            assertEquals("Tsyklon", line.subSequence(2, 9).toString());
+            assertEquals("0", new CsvFieldScanner().scan(line).field(0));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package bg.sofia.uni.fmi.mjt.space.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LaunchDateParserTest {
+    @Test
+    void testParseDecodesEveryMonth() {
+        String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
+        for (int i = 0; i < months.length; i++) {
+            LocalDate expected = LocalDate.of(2020, i + 1, 15);
+            String weekday = expected.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+
+            String date = weekday + " " + months[i] + " 15, 2020";
+
+            assertEquals(expected, LaunchDateParser.strict().parse(date));
+        }
+    }
+
+    @Test
+    void testParseReadsTheDateBetweenTheGivenOffsets() {
+        String line = "0,SpaceX,\"Fri Aug 07, 2020\",Falcon 9";
+
+        LocalDate date = LaunchDateParser.lenient().parse(line, 10, 26);
+
+        assertEquals(LocalDate.of(2020, 8, 7), date);
+    }
+
+    @Test
+    void testParseThrowsWhenDateIsMalformed() {
+        assertThrows(DateTimeParseException.class, () -> LaunchDateParser.lenient().parse("Fri Abc 07, 2020"));
+        assertThrows(DateTimeParseException.class, () -> LaunchDateParser.lenient().parse("Fri Feb 30, 2020"));
+        assertThrows(DateTimeParseException.class, () -> LaunchDateParser.lenient().parse("Fri Aug 0x, 2020"));
+        assertThrows(DateTimeParseException.class, () -> LaunchDateParser.lenient().parse("Fri Aug 7, 2020"));
+    }
+
+    @Test
+    void testLenientParseIgnoresTheWeekday() {
+        LocalDate date = LaunchDateParser.lenient().parse("Mon Aug 07, 2020");
+
+        assertEquals(LocalDate.of(2020, 8, 7), date);
+    }
+
+    @Test
+    void testStrictParseThrowsWhenWeekdayDoesNotMatchTheDate() {
+        assertThrows(DateTimeParseException.class, () -> LaunchDateParser.strict().parse("Mon Aug 07, 2020"));
+    }
+}
@@ -0,0 +1,111 @@
+package bg.sofia.uni.fmi.mjt.space.csv;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelCsvReaderTest {
+    private static final int PARALLELISM = 4;
+
+    private ForkJoinPool pool;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pool = new ForkJoinPool(PARALLELISM);
+        file = Files.createTempFile("missions", ".csv");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testReadSkipsTheHeaderAndStripsLineBreaks() throws IOException {
+        Files.writeString(file, "id,name\r\n0,Tsyklon-3\r\n1,Tsyklon-4M\r\n", StandardCharsets.UTF_8);
+
+        List<String> records = new ParallelCsvReader(pool).read(file, Function.identity());
+
+        assertEquals(List.of("0,Tsyklon-3", "1,Tsyklon-4M"), records);
+    }
+
+    @Test
+    void testReadReturnsTheLastRecordWithoutALineBreak() throws IOException {
+        Files.writeString(file, "id,name\n0,Tsyklon-3\n1,Tsyklon-4M", StandardCharsets.UTF_8);
+
+        List<String> records = new ParallelCsvReader(pool).read(file, Function.identity());
+
+        assertEquals(List.of("0,Tsyklon-3", "1,Tsyklon-4M"), records);
+    }
+
+    @Test
+    void testReadReturnsNoRecordsForAFileWithOnlyAHeader() throws IOException {
+        Files.writeString(file, "id,name\n", StandardCharsets.UTF_8);
+
+        assertTrue(new ParallelCsvReader(pool).read(file, Function.identity()).isEmpty());
+    }
+
+    @Test
+    void testReadKeepsQuotedLineBreaksAndFileOrderAcrossChunks() throws IOException {
+        List<String> expected = new ArrayList<>();
+        StringBuilder content = new StringBuilder("id,\"multi\nline header\",name\n");
+        for (int i = 0; i < 50_000; i++) {
+            String record = i % 7 == 0 ? i + ",\"Site \"\"" + i + "\"\",\nКосмодром\",x" : i + ",Site,y";
+            expected.add(record);
+            content.append(record).append('\n');
+        }
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+
+        List<String> records = new ParallelCsvReader(pool).read(file, Function.identity());
+
+        assertEquals(expected.size(), records.size());
+        assertEquals(expected, records);
+    }
+
+    @Test
+    void testReadAccumulatesTheRecordsOfEveryChunkInFileOrder() throws IOException {
+        List<String> expected = new ArrayList<>();
+        StringBuilder content = new StringBuilder("id,name\n");
+        for (int i = 0; i < 50_000; i++) {
+            expected.add(i + ",Site");
+            content.append(i).append(",Site\n");
+        }
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+
+        List<List<String>> chunks = new ParallelCsvReader(pool).read(file, ArrayList::new, List::add);
+
+        assertTrue(chunks.size() > 1);
+        assertEquals(expected, chunks.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    void testReadsFilesMappedInSeveralRegions() throws IOException {
+        List<String> expected = new ArrayList<>();
+        StringBuilder content = new StringBuilder("id,name\n");
+        for (int i = 0; i < 50_000; i++) {
+            String record = i % 5 == 0 ? i + ",\"Космодром\n" + i + "\",x" : i + ",Site,y";
+            expected.add(record);
+            content.append(record).append('\n');
+        }
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+
+        // regions of a kilobyte, so that chunks and multi-byte characters cross their edges
+        List<String> records = new ParallelCsvReader(pool, 10).read(file, Function.identity());
+
+        assertEquals(expected, records);
+    }
+}
@@ -0,0 +1,52 @@
+package bg.sofia.uni.fmi.mjt.space.dictionary;
+
+import bg.sofia.uni.fmi.mjt.space.csv.LaunchDateParser;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DatasetDictionaryTest {
+    @Test
+    void testEncodeLocationResolvesTheCountryOncePerLocation() {
+        DatasetDictionary dictionary = new DatasetDictionary();
+
+        int kennedy = dictionary.encodeLocation("LC-39A, Kennedy Space Center, Florida, USA");
+        int bocaChica = dictionary.encodeLocation("Pad A, Boca Chica, Texas, USA");
+        int baikonur = dictionary.encodeLocation("Site 200/39, Baikonur Cosmodrome, Kazakhstan");
+
+        assertEquals(2, dictionary.countryNames().size());
+        assertEquals(dictionary.country(kennedy), dictionary.country(bocaChica));
+        assertEquals("USA", dictionary.countryNames().decode(dictionary.country(kennedy)));
+        assertEquals("Kazakhstan", dictionary.countryNames().decode(dictionary.country(baikonur)));
+    }
+
+    @Test
+    void testMissionsAndRocketsShareTheCanonicalNames() {
+        DatasetDictionary dictionary = new DatasetDictionary();
+        String firstLine = "0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Fri Aug 07, 2020\"," +
+            "Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Success";
+        String secondLine = "62,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Tue Jan 07, 2020\"," +
+            "Falcon 9 Block 5 | Starlink V1 L2,StatusActive,\"50.0 \",Success";
+
+        Mission first = Mission.of(firstLine, dictionary, LaunchDateParser.lenient());
+        Mission second = Mission.of(secondLine, dictionary, LaunchDateParser.lenient());
+        Rocket rocket = Rocket.of("169,Falcon 9 Block 5,https://en.wikipedia.org/wiki/Falcon_9,70.0 m", dictionary);
+
+        assertSame(first.company(), second.company());
+        assertSame(first.location(), second.location());
+        assertSame(first.detail().rocketName(), second.detail().rocketName());
+        assertSame(first.detail().rocketName(), rocket.name());
+        assertEquals(1, dictionary.rocketNames().size());
+    }
+
+    @Test
+    void testCountryThrowsWhenLocationIsUnknown() {
+        DatasetDictionary dictionary = new DatasetDictionary();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.country(0));
+    }
+}
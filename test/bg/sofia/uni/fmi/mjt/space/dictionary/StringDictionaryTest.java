@@ -0,0 +1,102 @@
+package bg.sofia.uni.fmi.mjt.space.dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StringDictionaryTest {
+    @Test
+    void testEncodeAssignsConsecutiveIdsInOrderOfAppearance() {
+        StringDictionary dictionary = new StringDictionary();
+
+        assertEquals(0, dictionary.encode("SpaceX"));
+        assertEquals(1, dictionary.encode("CASC"));
+        assertEquals(0, dictionary.encode("SpaceX"));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    void testDecodeReturnsTheFirstInstanceOfTheValue() {
+        StringDictionary dictionary = new StringDictionary();
+        String first = new String("SpaceX");
+
+        int id = dictionary.encode(first);
+        dictionary.encode(new String("SpaceX"));
+
+        assertSame(first, dictionary.decode(id));
+    }
+
+    @Test
+    void testFindReturnsAbsentForUnknownValues() {
+        StringDictionary dictionary = new StringDictionary();
+        dictionary.encode("SpaceX");
+
+        assertEquals(StringDictionary.ABSENT, dictionary.find("CASC"));
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    void testDecodeThrowsWhenIdIsUnknown() {
+        StringDictionary dictionary = new StringDictionary();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.decode(0));
+    }
+
+    @Test
+    void testEncodeThrowsWhenPassedNull() {
+        StringDictionary dictionary = new StringDictionary();
+
+        assertThrows(IllegalArgumentException.class, () -> dictionary.encode(null));
+    }
+
+    @Test
+    void testEncodeOfARangeFindsTheValueWithEqualContent() {
+        StringDictionary dictionary = new StringDictionary();
+        int id = dictionary.encode("SpaceX");
+
+        assertEquals(id, dictionary.encode("0,SpaceX,LC-39A", 2, 8));
+        assertEquals(id, dictionary.find(new StringBuilder("SpaceX, USA"), 0, 6));
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    void testEncodeOfARangeAddsOnlyTheRange() {
+        StringDictionary dictionary = new StringDictionary();
+
+        int id = dictionary.encode("0,CASC,China", 2, 6);
+
+        assertEquals("CASC", dictionary.decode(id));
+        assertEquals(id, dictionary.find("CASC"));
+        assertEquals(StringDictionary.ABSENT, dictionary.find("CAS"));
+    }
+
+    @Test
+    void testEncodeKeepsIdsWhileTheTableGrows() {
+        StringDictionary dictionary = new StringDictionary();
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, dictionary.encode("rocket-" + i));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, dictionary.find("rocket-" + i));
+        }
+        assertEquals(1_000, dictionary.size());
+    }
+
+    @Test
+    void testCopyKeepsIdsAndIsIndependentOfTheOriginal() {
+        StringDictionary dictionary = new StringDictionary();
+        dictionary.encode("Falcon 9");
+
+        StringDictionary copy = dictionary.copy();
+        copy.encode("Soyuz");
+        dictionary.encode("Electron");
+
+        assertEquals(0, copy.find("Falcon 9"));
+        assertEquals(1, copy.find("Soyuz"));
+        assertEquals(StringDictionary.ABSENT, copy.find("Electron"));
+        assertEquals(StringDictionary.ABSENT, dictionary.find("Soyuz"));
+    }
+}
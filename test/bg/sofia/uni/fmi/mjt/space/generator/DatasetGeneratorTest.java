@@ -0,0 +1,105 @@
+package bg.sofia.uni.fmi.mjt.space.generator;
+
+import bg.sofia.uni.fmi.mjt.space.MJTSpaceScanner;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DatasetGeneratorTest {
+    private static final int ROWS = 20_000;
+
+    private static String missions(DatasetGenerator generator, int rows) throws IOException {
+        StringWriter writer = new StringWriter();
+        generator.writeMissions(writer, rows);
+        return writer.toString();
+    }
+
+    private static String rockets(DatasetGenerator generator) throws IOException {
+        StringWriter writer = new StringWriter();
+        generator.writeRockets(writer);
+        return writer.toString();
+    }
+
+    private static List<String> records(String dataset) {
+        return Arrays.stream(dataset.split("\n")).skip(1).toList();
+    }
+
+    @Test
+    void testGeneratedDatasetsDependOnlyOnTheSeed() throws IOException {
+        assertEquals(missions(new DatasetGenerator(7), ROWS), missions(new DatasetGenerator(7), ROWS));
+        assertEquals(rockets(new DatasetGenerator(7)), rockets(new DatasetGenerator(7)));
+        assertNotEquals(missions(new DatasetGenerator(7), ROWS), missions(new DatasetGenerator(8), ROWS));
+    }
+
+    @Test
+    void testGeneratedMissionsAreAcceptedByMissionOf() throws IOException {
+        List<Mission> missions = records(missions(new DatasetGenerator(1), ROWS)).stream()
+            .map(Mission::of)
+            .toList();
+
+        assertEquals(ROWS, missions.size());
+        assertTrue(missions.stream().anyMatch(m -> m.cost().isPresent()));
+        assertTrue(missions.stream().anyMatch(m -> m.cost().isEmpty()));
+        assertTrue(missions.stream().anyMatch(m -> m.cost().isPresent() && m.cost().get() >= 1_000));
+        assertTrue(missions.stream().allMatch(m -> m.location().contains(", ")));
+    }
+
+    @Test
+    void testGeneratedMissionsUseOnlyGeneratedRockets() throws IOException {
+        DatasetGenerator generator = new DatasetGenerator(2);
+
+        List<Rocket> rockets = records(rockets(generator)).stream().map(Rocket::of).toList();
+        Set<String> rocketNames = rockets.stream().map(Rocket::name).collect(Collectors.toSet());
+
+        assertEquals(DatasetGenerator.DEFAULT_ROCKETS_COUNT, rocketNames.size());
+        assertTrue(rockets.stream().anyMatch(r -> r.wiki().isEmpty()));
+        assertTrue(rockets.stream().anyMatch(r -> r.height().isEmpty()));
+        assertTrue(records(missions(generator, ROWS)).stream()
+            .map(Mission::of)
+            .allMatch(m -> rocketNames.contains(m.detail().rocketName())));
+    }
+
+    @Test
+    void testGeneratedCompaniesAreSkewed() throws IOException {
+        Map<String, Long> missionsPerCompany = records(missions(new DatasetGenerator(3), ROWS)).stream()
+            .map(Mission::of)
+            .collect(Collectors.groupingBy(Mission::company, Collectors.counting()));
+
+        long mostMissions = missionsPerCompany.values().stream().mapToLong(Long::longValue).max().orElse(0);
+
+        assertTrue(mostMissions > 5 * ROWS / missionsPerCompany.size());
+    }
+
+    @Test
+    void testGeneratedDatasetsAreLoadedByTheScanner() throws IOException {
+        DatasetGenerator generator = new DatasetGenerator(4);
+
+        MJTSpaceScanner scanner = new MJTSpaceScanner(new StringReader(missions(generator, ROWS)),
+            new StringReader(rockets(generator)), null);
+
+        assertEquals(ROWS, scanner.getAllMissions().size());
+        assertEquals(DatasetGenerator.DEFAULT_ROCKETS_COUNT, scanner.getAllRockets().size());
+        assertEquals(records(missions(generator, ROWS)).stream().map(Mission::of).toList(),
+            List.copyOf(scanner.getAllMissions()));
+    }
+
+    @Test
+    void testThrowsWhenCountsAreNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new DatasetGenerator(1, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new DatasetGenerator(1, 10, 0));
+    }
+}
@@ -53,4 +53,10 @@ public class RocketTest {
         assertEquals("https://en.wikipedia.org/wiki/Tsyklon-3", rocket.wiki().get());
         assertTrue(rocket.height().isEmpty());
     }
+
+    @Test
+    void testHeightOrNaNReturnsTheHeightOrNaNIfItIsUnknown() {
+        assertEquals(39.0, Rocket.of("0,Tsyklon-3,,39.0 m").heightOrNaN(), 0.0001);
+        assertTrue(Double.isNaN(Rocket.of("0,Tsyklon-3,,").heightOrNaN()));
+    }
 }
@@ -0,0 +1,121 @@
+package bg.sofia.uni.fmi.mjt.space.selection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TopNSelectorTest {
+    @Test
+    void testSmallestKeepsTheElementsWithTheSmallestKeysInOrder() {
+        TopNSelector<String> selector = TopNSelector.smallest(3);
+
+        selector.offer(5.0, "five");
+        selector.offer(1.0, "one");
+        selector.offer(4.0, "four");
+        selector.offer(2.0, "two");
+        selector.offer(3.0, "three");
+
+        assertEquals(List.of("one", "two", "three"), selector.toList());
+    }
+
+    @Test
+    void testLargestKeepsTheElementsWithTheLargestKeysInOrder() {
+        TopNSelector<String> selector = TopNSelector.largest(2);
+
+        selector.offer(5.0, "five");
+        selector.offer(1.0, "one");
+        selector.offer(7.5, "seven and a half");
+
+        assertEquals(List.of("seven and a half", "five"), selector.toList());
+    }
+
+    @Test
+    void testEqualKeysKeepTheOrderInWhichTheyWereOffered() {
+        TopNSelector<String> selector = TopNSelector.largest(2);
+
+        selector.offer(1.0, "first");
+        selector.offer(1.0, "second");
+        selector.offer(1.0, "third");
+
+        assertEquals(List.of("first", "second"), selector.toList());
+    }
+
+    @Test
+    void testManyEqualKeysAreOrderedByArrival() {
+        TopNSelector<Integer> selector = TopNSelector.largest(100);
+        for (int i = 0; i < 100; i++) {
+            selector.offer(i % 2, i);
+        }
+
+        List<Integer> selected = selector.toList();
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(2 * i + 1, selected.get(i));
+            assertEquals(2 * i, selected.get(50 + i));
+        }
+    }
+
+    @Test
+    void testKeysAreComparedWithoutTruncation() {
+        TopNSelector<String> selector = TopNSelector.smallest(1);
+
+        selector.offer(0.9, "bigger");
+        selector.offer(0.1, "smaller");
+
+        assertEquals(List.of("smaller"), selector.toList());
+    }
+
+    @Test
+    void testReturnsAllElementsWhenLessThanNAreOffered() {
+        TopNSelector<Integer> selector = TopNSelector.smallest(10);
+
+        selector.offer(2.0, 2);
+        selector.offer(1.0, 1);
+
+        assertEquals(2, selector.size());
+        assertEquals(List.of(1, 2), selector.toList());
+    }
+
+    @Test
+    void testAcceptsOnlyKeysWhichWouldBeSelected() {
+        TopNSelector<Integer> selector = TopNSelector.smallest(1);
+
+        assertTrue(selector.accepts(3.0));
+        selector.offer(3.0, 3);
+
+        assertTrue(selector.accepts(2.0));
+        assertFalse(selector.accepts(3.0));
+        assertFalse(selector.accepts(4.0));
+    }
+
+    @Test
+    void testCollectorsSelectTheTopNElements() {
+        List<String> words = List.of("mjt", "space", "scanner", "a", "rocket");
+
+        assertEquals(List.of("a", "mjt"), words.stream().collect(TopNSelector.toSmallest(2, String::length)));
+        assertEquals(List.of("scanner", "rocket"), words.stream().collect(TopNSelector.toLargest(2, String::length)));
+    }
+
+    @Test
+    void testCollectorsSelectTheTopNElementsOfParallelStreams() {
+        List<Integer> largest = Stream.iterate(0, i -> i + 1)
+            .limit(10_000)
+            .parallel()
+            .collect(TopNSelector.toLargest(3, i -> i % 1_000));
+
+        assertEquals(List.of(999, 1999, 2999), largest);
+    }
+
+    @Test
+    void testThrowsWhenNIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> TopNSelector.smallest(0));
+        assertThrows(IllegalArgumentException.class, () -> TopNSelector.largest(-1));
+        assertThrows(IllegalArgumentException.class, () -> TopNSelector.<String>toSmallest(0, String::length));
+    }
+}
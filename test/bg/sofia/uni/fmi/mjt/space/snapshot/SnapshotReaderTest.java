@@ -0,0 +1,240 @@
+package bg.sofia.uni.fmi.mjt.space.snapshot;
+
+import bg.sofia.uni.fmi.mjt.space.algorithm.Rijndael;
+import bg.sofia.uni.fmi.mjt.space.algorithm.SegmentCipher;
+import bg.sofia.uni.fmi.mjt.space.exception.SnapshotException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnapshotReaderTest {
+    private static final int VERSION_POSITION = Integer.BYTES;
+    private static final SegmentCipher CIPHER = new Rijndael(new SecretKeySpec(new byte[16], "AES"));
+
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        snapshotFile = Files.createTempFile("snapshot", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    private void writeSnapshot() throws IOException {
+        try (SnapshotWriter out = new SnapshotWriter(snapshotFile)) {
+            writeContent(out);
+        }
+    }
+
+    private void writeEncryptedSnapshot() throws IOException {
+        try (SnapshotWriter out = SnapshotWriter.encrypted(snapshotFile, CIPHER)) {
+            writeContent(out);
+        }
+    }
+
+    private static void writeContent(SnapshotWriter out) throws IOException {
+        // larger than the buffer of the writer and than a segment, so that both are filled several times
+        int[] ints = IntStream.range(0, 100_000).toArray();
+        double[] doubles = {1.5, Double.NaN, -0.0};
+
+        out.writeByte((byte) 7);
+        out.writeInt(-42);
+        out.writeLong(Long.MAX_VALUE);
+        out.writeDouble(29.75);
+        out.writeInts(ints, ints.length);
+        out.writeDoubles(doubles, 2);
+        out.writeBytes(new byte[] {1, 2, 3}, 3);
+        out.writeString("Site 9401 (SLS-2), Jiuquan Satellite Launch Center, China");
+        out.writeString(null);
+        out.writeStrings(new String[] {"Falcon 9", "Союз", "unused"}, 2);
+        out.finish();
+    }
+
+    private static void assertContent(SnapshotReader in) {
+        assertEquals(7, in.readByte());
+        assertEquals(-42, in.readInt());
+        assertEquals(Long.MAX_VALUE, in.readLong());
+        assertEquals(29.75, in.readDouble());
+        assertArrayEquals(IntStream.range(0, 100_000).toArray(), in.readInts());
+        double[] doubles = in.readDoubles();
+        assertEquals(2, doubles.length);
+        assertEquals(1.5, doubles[0]);
+        assertTrue(Double.isNaN(doubles[1]));
+        assertArrayEquals(new byte[] {1, 2, 3}, in.readBytes());
+        assertEquals("Site 9401 (SLS-2), Jiuquan Satellite Launch Center, China", in.readString());
+        assertNull(in.readString());
+        assertEquals(Arrays.asList("Falcon 9", "Союз"), Arrays.asList(in.readStrings()));
+        assertTrue(in.isFullyRead());
+    }
+
+    private void overwrite(int position, int value) throws IOException {
+        byte[] snapshot = Files.readAllBytes(snapshotFile);
+        ByteBuffer.wrap(snapshot).putInt(position, value);
+        Files.write(snapshotFile, snapshot);
+    }
+
+    @Test
+    void testReadsWhatWasWritten() throws IOException, SnapshotException {
+        writeSnapshot();
+
+        assertContent(SnapshotReader.open(snapshotFile));
+    }
+
+    @Test
+    void testOpenThrowsWhenTheSnapshotWasNotFinished() throws IOException {
+        try (SnapshotWriter out = new SnapshotWriter(snapshotFile)) {
+            out.writeInt(1);
+        }
+
+        assertThrows(SnapshotException.class, () -> SnapshotReader.open(snapshotFile));
+    }
+
+    @Test
+    void testOpenThrowsWhenTheFileIsNotASnapshot() throws IOException {
+        Files.writeString(snapshotFile, "0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\"");
+
+        assertThrows(SnapshotException.class, () -> SnapshotReader.open(snapshotFile));
+    }
+
+    @Test
+    void testOpenThrowsWhenTheFormatVersionIsDifferent() throws IOException {
+        writeSnapshot();
+        overwrite(VERSION_POSITION, SnapshotWriter.FORMAT_VERSION + 1);
+
+        assertThrows(SnapshotException.class, () -> SnapshotReader.open(snapshotFile));
+    }
+
+    @Test
+    void testOpenThrowsWhenTheContentIsCorrupt() throws IOException {
+        writeSnapshot();
+        overwrite(SnapshotWriter.HEADER_SIZE, -43);
+
+        assertThrows(SnapshotException.class, () -> SnapshotReader.open(snapshotFile));
+    }
+
+    @Test
+    void testOpenThrowsWhenTheSnapshotIsTruncated() throws IOException {
+        writeSnapshot();
+        byte[] snapshot = Files.readAllBytes(snapshotFile);
+        Files.write(snapshotFile, Arrays.copyOf(snapshot, snapshot.length - 1));
+
+        assertThrows(SnapshotException.class, () -> SnapshotReader.open(snapshotFile));
+    }
+
+    @Test
+    void testReadsWhatWasWrittenEncrypted() throws IOException, SnapshotException {
+        writeEncryptedSnapshot();
+
+        assertContent(SnapshotReader.openEncrypted(snapshotFile, CIPHER));
+    }
+
+    @Test
+    void testEncryptedSnapshotsUnderOneKeyHaveSaltsAndSegmentsOfTheirOwn() throws IOException {
+        writeEncryptedSnapshot();
+        byte[] first = Files.readAllBytes(snapshotFile);
+        writeEncryptedSnapshot();
+        byte[] second = Files.readAllBytes(snapshotFile);
+        int saltFrom = 3 * Integer.BYTES;
+        int saltTo = saltFrom + SegmentEncryptingChannel.SALT_LENGTH;
+        int headerSize = SegmentEncryptingChannel.headerSize(SegmentEncryptingChannel.noncePrefixLength(CIPHER));
+
+        assertEquals(first.length, second.length);
+        assertFalse(Arrays.equals(Arrays.copyOfRange(first, saltFrom, saltTo),
+            Arrays.copyOfRange(second, saltFrom, saltTo)));
+        assertFalse(Arrays.equals(Arrays.copyOfRange(first, headerSize, headerSize + Long.BYTES * 2),
+            Arrays.copyOfRange(second, headerSize, headerSize + Long.BYTES * 2)));
+    }
+
+    @Test
+    void testReadsEncryptedPayloadsOfWholeSegments() throws IOException, SnapshotException {
+        byte[] bytes = new byte[2 * SegmentEncryptingChannel.SEGMENT_SIZE - Integer.BYTES];
+        Arrays.fill(bytes, (byte) 5);
+        try (SnapshotWriter out = SnapshotWriter.encrypted(snapshotFile, CIPHER)) {
+            out.writeBytes(bytes, bytes.length);
+            out.finish();
+        }
+
+        SnapshotReader in = SnapshotReader.openEncrypted(snapshotFile, CIPHER);
+
+        assertArrayEquals(bytes, in.readBytes());
+        assertTrue(in.isFullyRead());
+    }
+
+    @Test
+    void testReadsAnEmptyEncryptedPayload() throws IOException, SnapshotException {
+        try (SnapshotWriter out = SnapshotWriter.encrypted(snapshotFile, CIPHER)) {
+            out.finish();
+        }
+
+        assertTrue(SnapshotReader.openEncrypted(snapshotFile, CIPHER).isFullyRead());
+    }
+
+    @Test
+    void testOpenEncryptedThrowsWhenASegmentWasModified() throws IOException {
+        writeEncryptedSnapshot();
+        byte[] snapshot = Files.readAllBytes(snapshotFile);
+        snapshot[snapshot.length / 2] ^= 1;
+        Files.write(snapshotFile, snapshot);
+
+        assertThrows(SnapshotException.class, () -> SnapshotReader.openEncrypted(snapshotFile, CIPHER));
+    }
+
+    @Test
+    void testOpenEncryptedThrowsWhenTheLastSegmentWasDropped() throws IOException {
+        writeEncryptedSnapshot();
+        byte[] snapshot = Files.readAllBytes(snapshotFile);
+        int encryptedSegmentSize = SegmentEncryptingChannel.SEGMENT_SIZE + CIPHER.segmentOverhead();
+        int headerSize = SegmentEncryptingChannel.headerSize(SegmentEncryptingChannel.noncePrefixLength(CIPHER));
+        int segmentsCount = (snapshot.length - headerSize - 1) / encryptedSegmentSize + 1;
+        Files.write(snapshotFile, Arrays.copyOf(snapshot, headerSize + (segmentsCount - 1) * encryptedSegmentSize));
+
+        assertThrows(SnapshotException.class, () -> SnapshotReader.openEncrypted(snapshotFile, CIPHER));
+    }
+
+    @Test
+    void testOpenEncryptedThrowsWhenTheSegmentSizeIsTooLarge() throws IOException {
+        int segmentSizePosition = 2 * Integer.BYTES;
+        for (int segmentSize : new int[] {Integer.MAX_VALUE, Integer.MAX_VALUE - CIPHER.segmentOverhead(),
+            SegmentEncryptingChannel.SEGMENT_SIZE * 1000}) {
+            writeEncryptedSnapshot();
+            overwrite(segmentSizePosition, segmentSize);
+
+            assertThrows(SnapshotException.class, () -> SnapshotReader.openEncrypted(snapshotFile, CIPHER));
+        }
+    }
+
+    @Test
+    void testOpenEncryptedThrowsWhenTheKeyIsDifferent() throws IOException {
+        writeEncryptedSnapshot();
+        byte[] otherKey = new byte[16];
+        otherKey[0] = 1;
+
+        assertThrows(SnapshotException.class,
+            () -> SnapshotReader.openEncrypted(snapshotFile, new Rijndael(new SecretKeySpec(otherKey, "AES"))));
+    }
+
+    @Test
+    void testOpenEncryptedThrowsWhenTheSnapshotIsNotEncrypted() throws IOException {
+        writeSnapshot();
+
+        assertThrows(SnapshotException.class, () -> SnapshotReader.openEncrypted(snapshotFile, CIPHER));
+    }
+}
@@ -0,0 +1,90 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CostIndexTest {
+    private static MissionStore createStore() {
+        return MissionStore.builder()
+            .add(Mission.of("0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Fri Aug 07, 2020\"," +
+                "Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Success"))
+            .add(Mission.of("1,CASC,\"Site 9401 (SLS-2), Jiuquan Satellite Launch Center, China\"," +
+                "\"Thu Aug 06, 2020\",Long March 2D | Gaofen-9 04 & Q-SAT,StatusActive,\"29.75 \",Success"))
+            .add(Mission.of("2,SpaceX,\"Pad A, Boca Chica, Texas, USA\",\"Tue Aug 04, 2020\"," +
+                "Starship Prototype | 150 Meter Hop,StatusActive,,Failure"))
+            .add(Mission.of("246,ULA,\"SLC-3E, Vandenberg AFB, California, USA\",\"Sat May 05, 2018\"," +
+                "Atlas V 401 | InSight,StatusActive,\"109.0 \",Success"))
+            .add(Mission.of("62,SpaceX,\"SLC-40, Cape Canaveral AFS, Florida, USA\",\"Tue Jan 07, 2020\"," +
+                "Falcon 9 Block 5 | Starlink V1 L2,StatusActive,\"50.0 \",Success"))
+            .add(Mission.of("14,VKS RF,\"Site 43/4, Plesetsk Cosmodrome, Russia\",\"Fri Jul 03, 2020\"," +
+                "Soyuz 2.1a | Cosmos 2546,StatusActive,\"48.5 \",Failure"))
+            .build();
+    }
+
+    private static CostIndex createIndex(MissionStore store) {
+        return CostIndex.of(store, row -> store.missionStatus(row).ordinal(), MissionStatus.values().length);
+    }
+
+    @Test
+    void testCheapestRowsAreAPrefixOfThePartition() {
+        MissionStore store = createStore();
+        CostIndex index = createIndex(store);
+        int success = MissionStatus.SUCCESS.ordinal();
+
+        int[] cheapest = Arrays.copyOfRange(index.rows(), index.start(success), index.cheapestEnd(success, 3));
+
+        assertArrayEquals(new int[] {1, 0, 4}, cheapest);
+    }
+
+    @Test
+    void testCheapestEndDoesNotGoPastThePartition() {
+        MissionStore store = createStore();
+        CostIndex index = createIndex(store);
+        int failure = MissionStatus.FAILURE.ordinal();
+
+        assertEquals(1, index.size(failure));
+        assertEquals(index.start(failure) + 1, index.cheapestEnd(failure, 10));
+    }
+
+    @Test
+    void testMostExpensiveKeepsRowOrderForEqualCosts() {
+        MissionStore store = createStore();
+        CostIndex index = createIndex(store);
+        int success = MissionStatus.SUCCESS.ordinal();
+
+        assertArrayEquals(new int[] {3, 0, 4}, index.mostExpensive(success, 3));
+        assertArrayEquals(new int[] {3, 0}, index.mostExpensive(success, 2));
+        assertArrayEquals(new int[] {3, 0, 4, 1}, index.mostExpensive(success, 10));
+    }
+
+    @Test
+    void testRowsWithoutCostAreNotIndexed() {
+        MissionStore store = createStore();
+        CostIndex index = createIndex(store);
+
+        assertEquals(MissionStatus.values().length, index.partitionsCount());
+        assertArrayEquals(new int[] {5}, index.mostExpensive(MissionStatus.FAILURE.ordinal(), 10));
+        assertArrayEquals(new int[0], index.mostExpensive(MissionStatus.PRELAUNCH_FAILURE.ordinal(), 10));
+    }
+
+    @Test
+    void testMergeOfConsecutiveRangesEqualsTheIndexOfAllRows() {
+        MissionStore store = createStore();
+        int success = MissionStatus.SUCCESS.ordinal();
+        int partitionsCount = MissionStatus.values().length;
+
+        CostIndex merged = CostIndex.merge(
+            CostIndex.of(store, 0, 2, row -> store.missionStatus(row).ordinal(), partitionsCount),
+            CostIndex.of(store, 2, store.size(), row -> store.missionStatus(row).ordinal(), partitionsCount));
+        CostIndex index = createIndex(store);
+
+        assertArrayEquals(index.rows(), merged.rows());
+        assertArrayEquals(index.mostExpensive(success, 3), merged.mostExpensive(success, 3));
+    }
+}
@@ -0,0 +1,106 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CumulativeCountsTest {
+    private static final long JAN_2020 = LocalDate.of(2020, 1, 1).toEpochDay();
+    private static final long DEC_2020 = LocalDate.of(2020, 12, 31).toEpochDay();
+
+    private static MissionStore createStore() {
+        return MissionStore.builder()
+            .add(Mission.of("0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Fri Aug 07, 2020\"," +
+                "Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Success"))
+            .add(Mission.of("1,CASC,\"Site 9401 (SLS-2), Jiuquan Satellite Launch Center, China\"," +
+                "\"Thu Aug 06, 2020\",Long March 2D | Gaofen-9 04 & Q-SAT,StatusActive,\"29.75 \",Success"))
+            .add(Mission.of("2,SpaceX,\"Pad A, Boca Chica, Texas, USA\",\"Tue Aug 04, 2020\"," +
+                "Starship Prototype | 150 Meter Hop,StatusActive,,Failure"))
+            .add(Mission.of("246,ULA,\"SLC-3E, Vandenberg AFB, California, USA\",\"Sat May 05, 2018\"," +
+                "Atlas V 401 | InSight,StatusActive,\"109.0 \",Success"))
+            .add(Mission.of("62,SpaceX,\"SLC-40, Cape Canaveral AFS, Florida, USA\",\"Tue Jan 07, 2020\"," +
+                "Falcon 9 Block 5 | Starlink V1 L2,StatusActive,\"51.0 \",Success"))
+            .build();
+    }
+
+    @Test
+    void testCountReturnsTheRowsOfTheKeyInTheTimeFrame() {
+        MissionStore store = createStore();
+        int spaceX = store.companyNames().find("SpaceX");
+        int ula = store.companyNames().find("ULA");
+
+        CumulativeCounts counts = CumulativeCounts.of(DateIndex.of(store), store, store::company,
+            store.companyNames().size());
+
+        assertEquals(3, counts.count(spaceX, JAN_2020, DEC_2020));
+        assertEquals(3, counts.count(spaceX));
+        assertEquals(0, counts.count(ula, JAN_2020, DEC_2020));
+        assertEquals(1, counts.count(ula, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void testCountIncludesBothEndsOfTheTimeFrame() {
+        MissionStore store = createStore();
+        int spaceX = store.companyNames().find("SpaceX");
+        long firstDay = LocalDate.of(2020, 1, 7).toEpochDay();
+        long lastDay = LocalDate.of(2020, 8, 7).toEpochDay();
+
+        CumulativeCounts counts = CumulativeCounts.of(DateIndex.of(store), store, store::company,
+            store.companyNames().size());
+
+        assertEquals(3, counts.count(spaceX, firstDay, lastDay));
+        assertEquals(1, counts.count(spaceX, firstDay, firstDay));
+        assertEquals(1, counts.count(spaceX, lastDay, lastDay));
+        assertEquals(1, counts.count(spaceX, firstDay + 1, lastDay - 1));
+    }
+
+    @Test
+    void testCountReturnsZeroForUnknownKeys() {
+        MissionStore store = createStore();
+
+        CumulativeCounts counts = CumulativeCounts.of(DateIndex.of(store), store, store::rocket,
+            store.rocketNames().size());
+
+        assertEquals(0, counts.count(counts.keysCount(), JAN_2020, DEC_2020));
+        assertEquals(0, counts.count(-1));
+    }
+
+    @Test
+    void testCountBeforeCountsTheRowsLaunchedBeforeEveryDay() {
+        MissionStore store = createStore();
+        int spaceX = store.companyNames().find("SpaceX");
+        long[] days = {JAN_2020, LocalDate.of(2020, 1, 8).toEpochDay(), LocalDate.of(2020, 8, 7).toEpochDay(),
+            DEC_2020};
+        int[] counts = new int[days.length];
+
+        CumulativeCounts companies = CumulativeCounts.of(DateIndex.of(store), store, store::company,
+            store.companyNames().size());
+
+        companies.countBefore(spaceX, days, counts);
+        assertArrayEquals(new int[] {0, 1, 2, 3}, counts);
+        companies.countBefore(-1, days, counts);
+        assertArrayEquals(new int[] {0, 0, 0, 0}, counts);
+    }
+
+    @Test
+    void testMergeAddsTheCountsOfKeysKnownToEitherRange() {
+        MissionStore store = createStore();
+        int spaceX = store.companyNames().find("SpaceX");
+        int ula = store.companyNames().find("ULA");
+
+        // ULA is not known yet when the first range is counted
+        CumulativeCounts older = CumulativeCounts.of(DateIndex.of(store, 0, 3), store, store::company, ula);
+        CumulativeCounts newer = CumulativeCounts.of(DateIndex.of(store, 3, store.size()), store, store::company,
+            store.companyNames().size());
+        CumulativeCounts merged = CumulativeCounts.merge(older, newer);
+
+        assertEquals(store.companyNames().size(), merged.keysCount());
+        assertEquals(3, merged.count(spaceX, JAN_2020, DEC_2020));
+        assertEquals(1, merged.count(ula));
+        assertEquals(2, merged.count(spaceX, JAN_2020, LocalDate.of(2020, 8, 4).toEpochDay()));
+    }
+}
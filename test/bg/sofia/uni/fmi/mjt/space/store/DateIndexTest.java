@@ -0,0 +1,66 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DateIndexTest {
+    private static MissionStore createStore() {
+        return MissionStore.builder()
+            .add(Mission.of("0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Fri Aug 07, 2020\"," +
+                "Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Success"))
+            .add(Mission.of("2,SpaceX,\"Pad A, Boca Chica, Texas, USA\",\"Tue Aug 04, 2020\"," +
+                "Starship Prototype | 150 Meter Hop,StatusActive,,Failure"))
+            .add(Mission.of("2430,RVSN USSR,\"Site 132/1, Plesetsk Cosmodrome, Russia\",\"Fri Jan 16, 1981\"," +
+                "Cosmos-3M (11K65M) | Cosmos 1238,StatusRetired,,Success"))
+            .add(Mission.of("62,SpaceX,\"SLC-40, Cape Canaveral AFS, Florida, USA\",\"Tue Aug 04, 2020\"," +
+                "Falcon 9 Block 5 | Starlink V1 L2,StatusActive,\"51.0 \",Success"))
+            .build();
+    }
+
+    @Test
+    void testOfOrdersRowsByDateAndThenByRow() {
+        DateIndex index = DateIndex.of(createStore());
+
+        assertArrayEquals(new int[] {2, 1, 3, 0}, index.rows());
+    }
+
+    @Test
+    void testRowsReturnsOnlyTheRowsInTheInclusiveTimeFrame() {
+        DateIndex index = DateIndex.of(createStore());
+
+        long from = LocalDate.of(2020, 8, 4).toEpochDay();
+        long to = LocalDate.of(2020, 8, 7).toEpochDay();
+
+        assertArrayEquals(new int[] {1, 3, 0}, index.rows(from, to).toArray());
+        assertArrayEquals(new int[] {1, 3}, index.rows(from, from).toArray());
+        assertEquals(0, index.rows(to + 1, Long.MAX_VALUE).count());
+        assertEquals(4, index.rows(Long.MIN_VALUE, Long.MAX_VALUE).count());
+    }
+
+    @Test
+    void testFilterKeepsTheDateOrder() {
+        MissionStore store = createStore();
+
+        DateIndex successful = DateIndex.of(store).filter(row -> store.missionStatus(row) == MissionStatus.SUCCESS);
+
+        assertArrayEquals(new int[] {2, 3, 0}, successful.rows());
+        assertEquals(1, successful.from(LocalDate.of(2000, 1, 1).toEpochDay()));
+    }
+
+    @Test
+    void testMergeOfConsecutiveRangesEqualsTheIndexOfAllRows() {
+        MissionStore store = createStore();
+
+        DateIndex merged = DateIndex.merge(DateIndex.of(store, 0, 1), DateIndex.of(store, 1, store.size()));
+
+        assertArrayEquals(DateIndex.of(store).rows(), merged.rows());
+        assertArrayEquals(new int[] {1, 3}, merged.rows(LocalDate.of(2020, 8, 4).toEpochDay(),
+            LocalDate.of(2020, 8, 4).toEpochDay()).toArray());
+    }
+}
@@ -0,0 +1,96 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MaterializedViewsTest {
+    private static final Mission KENNEDY = Mission.of("0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\"," +
+        "\"Fri Aug 07, 2020\",Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Success");
+    private static final Mission BOCA_CHICA = Mission.of("2,SpaceX,\"Pad A, Boca Chica, Texas, USA\"," +
+        "\"Tue Aug 04, 2020\",Starship Prototype | 150 Meter Hop,StatusActive,,Failure");
+    private static final Mission JIUQUAN = Mission.of("1,CASC,\"Site 9401 (SLS-2), Jiuquan Satellite Launch " +
+        "Center, China\",\"Thu Aug 06, 2020\",Long March 2D | Gaofen-9 04 & Q-SAT,StatusActive,\"29.75 \",Success");
+    private static final Mission KENNEDY_AGAIN = Mission.of("62,SpaceX,\"LC-39A, Kennedy Space Center, Florida, " +
+        "USA\",\"Tue Jan 07, 2020\",Falcon 9 Block 5 | Starlink V1 L2,StatusActive,\"50.0 \",Success");
+
+    private static MissionStore createStore() {
+        return MissionStore.builder()
+            .add(KENNEDY)
+            .add(BOCA_CHICA)
+            .add(JIUQUAN)
+            .add(KENNEDY_AGAIN)
+            .build();
+    }
+
+    @Test
+    void testMissionsPerCountryGroupsTheMissionsInRowOrder() {
+        MaterializedViews views = MaterializedViews.of(createStore(), MaterializedViews.Mode.LAZY);
+
+        Map<String, Collection<Mission>> missionsPerCountry = views.missionsPerCountry();
+
+        assertEquals(List.of(KENNEDY, BOCA_CHICA, KENNEDY_AGAIN), missionsPerCountry.get("USA"));
+        assertEquals(List.of(JIUQUAN), missionsPerCountry.get("China"));
+        assertSame(missionsPerCountry, views.missionsPerCountry());
+        assertThrows(UnsupportedOperationException.class, () -> missionsPerCountry.get("USA").clear());
+    }
+
+    @Test
+    void testEagerAndLazyViewsAreEqual() {
+        MissionStore store = createStore();
+
+        MaterializedViews eager = MaterializedViews.of(store, MaterializedViews.Mode.EAGER);
+        MaterializedViews lazy = MaterializedViews.of(store, MaterializedViews.Mode.LAZY);
+
+        assertEquals(eager.missionsPerCountry(), lazy.missionsPerCountry());
+        assertEquals(eager.mostDesiredLocationPerCompany(), lazy.mostDesiredLocationPerCompany());
+        assertSame(eager.mostDesiredLocationPerCompany(), eager.mostDesiredLocationPerCompany());
+    }
+
+    @Test
+    void testMostDesiredLocationPerCompanyCountsOnlyTheGivenRows() {
+        MissionStore store = createStore();
+
+        assertEquals(Map.of("SpaceX", "LC-39A, Kennedy Space Center, Florida, USA",
+                "CASC", "Site 9401 (SLS-2), Jiuquan Satellite Launch Center, China"),
+            MaterializedViews.of(store, MaterializedViews.Mode.LAZY).mostDesiredLocationPerCompany());
+        assertEquals(Map.of("SpaceX", "Pad A, Boca Chica, Texas, USA"),
+            MaterializedViews.mostDesiredLocationPerCompany(store, IntStream.of(1), 1, QueryParallelism.sequential()));
+    }
+
+    @Test
+    void testParallelViewsAreEqualToSequentialViews() {
+        MissionStore.Builder builder = MissionStore.builder();
+        for (int copy = 0; copy < 50; copy++) {
+            builder.add(KENNEDY).add(BOCA_CHICA).add(JIUQUAN);
+        }
+        builder.add(KENNEDY_AGAIN);
+        MissionStore store = builder.build();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            MaterializedViews sequential = MaterializedViews.of(store, MaterializedViews.Mode.LAZY);
+            MaterializedViews parallel = MaterializedViews.of(store, MaterializedViews.Mode.LAZY,
+                QueryParallelism.parallel(pool, 1));
+
+            assertEquals(sequential.missionsPerCountry(), parallel.missionsPerCountry());
+            assertEquals(sequential.mostDesiredLocationPerCompany(), parallel.mostDesiredLocationPerCompany());
+            assertEquals(Map.of("SpaceX", "Pad A, Boca Chica, Texas, USA"),
+                MaterializedViews.mostDesiredLocationPerCompany(store, IntStream.range(0, 4).map(row -> 3 * row + 1),
+                    4, QueryParallelism.parallel(pool, 1)));
+            assertFalse(parallel.missionsPerCountry().get("USA").isEmpty());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
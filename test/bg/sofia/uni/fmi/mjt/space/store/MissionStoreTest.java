@@ -0,0 +1,150 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.csv.CsvFieldScanner;
+import bg.sofia.uni.fmi.mjt.space.csv.LaunchDateParser;
+import bg.sofia.uni.fmi.mjt.space.dictionary.StringDictionary;
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MissionStoreTest {
+    private static final Mission FIRST = Mission.of("0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\"," +
+        "\"Fri Aug 07, 2020\",Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Success");
+    private static final Mission SECOND = Mission.of("2,SpaceX,\"Pad A, Boca Chica, Texas, USA\"," +
+        "\"Tue Aug 04, 2020\",Starship Prototype | 150 Meter Hop,StatusActive,,Failure");
+    private static final Mission THIRD = Mission.of("62,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\"," +
+        "\"Tue Jan 07, 2020\",Falcon 9 Block 5 | Starlink V1 L2,StatusActive,\"50.0 \",Success");
+
+    private static MissionStore createStore() {
+        return MissionStore.builder()
+            .add(FIRST)
+            .add(SECOND)
+            .add(THIRD)
+            .build();
+    }
+
+    @Test
+    void testMissionRecreatesTheStoredMission() {
+        MissionStore store = createStore();
+
+        assertEquals(3, store.size());
+        assertEquals(FIRST, store.mission(0));
+        assertEquals(SECOND, store.mission(1));
+        assertEquals(THIRD, store.mission(2));
+    }
+
+    @Test
+    void testAddOfScannedLineDecodesTheSameMissionAsMissionOf() {
+        String[] lines = {
+            "0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Fri Aug 07, 2020\"," +
+                "Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Success",
+            "2,SpaceX,\"Pad A, Boca Chica, Texas, USA\",\"Tue Aug 04, 2020\"," +
+                "Starship Prototype | 150 Meter Hop,StatusActive,,Failure",
+            "5,RVSN USSR,\"Site 1/5, Baikonur Cosmodrome, Kazakhstan\",\"Fri Oct 04, 1957\"," +
+                "Sputnik 8K71PS | Sputnik-1,StatusRetired,\"1,160.0 \",Partial Failure",
+            "7,\"Rocket \"\"Lab\"\"\",\"LC-1A, Rocket Lab LC-1, New Zealand\",\"Sat Jul 04, 2020\"," +
+                "\"Electron | \"\"Pics Or It Didn't Happen\"\"\",StatusActive,\"7.5 \",Prelaunch Failure"
+        };
+
+        MissionStore.Builder builder = MissionStore.builder();
+        CsvFieldScanner fields = new CsvFieldScanner();
+        for (String line : lines) {
+            builder.add(fields.scan(line), LaunchDateParser.lenient());
+        }
+        MissionStore store = builder.build();
+
+        assertEquals(lines.length, store.size());
+        for (int row = 0; row < lines.length; row++) {
+            assertEquals(Mission.of(lines[row]), store.mission(row));
+        }
+    }
+
+    @Test
+    void testAddAllAppendsTheMissionsOfAStoreWithADictionaryOfItsOwn() {
+        Mission sputnik = Mission.of("5,RVSN USSR,\"Site 1/5, Baikonur Cosmodrome, Kazakhstan\",\"Fri Oct 04, 1957\"," +
+            "Sputnik 8K71PS | Sputnik-1,StatusRetired,\"1,160.0 \",Partial Failure");
+        MissionStore chunk = MissionStore.builder().add(sputnik).add(THIRD).add(SECOND).build();
+
+        MissionStore store = createStore().toBuilder().addAll(chunk).build();
+
+        assertEquals(List.of(FIRST, SECOND, THIRD, sputnik, THIRD, SECOND), store.missions());
+        assertEquals(2, store.companyNames().size());
+        assertEquals(store.location(0), store.location(4));
+        assertEquals(store.rocket(2), store.rocket(4));
+    }
+
+    @Test
+    void testColumnsAreDictionaryEncoded() {
+        MissionStore store = createStore();
+
+        assertEquals(1, store.companyNames().size());
+        assertEquals(2, store.locationNames().size());
+        assertEquals(2, store.rocketNames().size());
+        assertEquals(store.location(0), store.location(2));
+        assertEquals(store.rocket(0), store.rocket(2));
+        assertEquals(FIRST.date().toEpochDay(), store.date(0));
+        assertEquals(MissionStatus.FAILURE, store.missionStatus(1));
+    }
+
+    @Test
+    void testMissingCostIsStoredAsNaN() {
+        MissionStore store = createStore();
+
+        assertTrue(store.hasCost(0));
+        assertEquals(50.0, store.cost(0), 0.0001);
+        assertFalse(store.hasCost(1));
+        assertTrue(Double.isNaN(store.cost(1)));
+    }
+
+    @Test
+    void testMissionsReturnsViewOverTheGivenRows() {
+        MissionStore store = createStore();
+
+        List<Mission> missions = store.missions(new int[] {2, 1, 0}, 1, 3);
+
+        assertEquals(List.of(SECOND, FIRST), missions);
+        assertThrows(UnsupportedOperationException.class, () -> missions.add(THIRD));
+    }
+
+    @Test
+    void testMissionThrowsWhenRowIsOutOfBounds() {
+        MissionStore store = createStore();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> store.mission(3));
+    }
+
+    @Test
+    void testSnapshotOfABuilderDoesNotSeeRowsAddedAfterIt() {
+        MissionStore.Builder builder = createStore().toBuilder();
+        MissionStore before = builder.snapshot();
+
+        builder.add(Mission.of("5,RVSN USSR,\"Site 1/5, Baikonur Cosmodrome, Kazakhstan\",\"Fri Oct 04, 1957\"," +
+            "Sputnik 8K71PS | Sputnik-1,StatusRetired,\"1,160.0 \",Partial Failure"));
+        MissionStore after = builder.snapshot();
+
+        assertEquals(3, before.size());
+        assertEquals(List.of(FIRST, SECOND, THIRD), before.missions());
+        assertEquals(1, before.companyNames().size());
+        assertEquals(4, after.size());
+        assertEquals(2, after.companyNames().size());
+        assertEquals(THIRD, after.mission(2));
+    }
+
+    @Test
+    void testToBuilderDoesNotChangeTheStore() {
+        MissionStore store = createStore();
+
+        store.toBuilder().add(Mission.of("4,ULA,\"SLC-41, Cape Canaveral AFS, Florida, USA\",\"Thu Jul 30, 2020\"," +
+            "Atlas V 541 | Perseverance,StatusActive,\"145.0 \",Success"));
+
+        assertEquals(3, store.size());
+        assertEquals(StringDictionary.ABSENT, store.companyNames().find("ULA"));
+    }
+}
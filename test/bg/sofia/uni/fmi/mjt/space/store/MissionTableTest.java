@@ -0,0 +1,126 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.mission.Mission;
+import bg.sofia.uni.fmi.mjt.space.mission.MissionStatus;
+import bg.sofia.uni.fmi.mjt.space.rocket.RocketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MissionTableTest {
+    private static final long JAN_2020 = LocalDate.of(2020, 1, 1).toEpochDay();
+    private static final long DEC_2020 = LocalDate.of(2020, 12, 31).toEpochDay();
+    private static final List<Mission> MISSIONS = List.of(
+        Mission.of("0,SpaceX,\"LC-39A, Kennedy Space Center, Florida, USA\",\"Fri Aug 07, 2020\"," +
+            "Falcon 9 Block 5 | Starlink V1 L9 & BlackSky,StatusActive,\"50.0 \",Success"),
+        Mission.of("1,CASC,\"Site 9401 (SLS-2), Jiuquan Satellite Launch Center, China\"," +
+            "\"Thu Aug 06, 2020\",Long March 2D | Gaofen-9 04 & Q-SAT,StatusActive,\"29.75 \",Success"),
+        Mission.of("2,SpaceX,\"Pad A, Boca Chica, Texas, USA\",\"Tue Aug 04, 2020\"," +
+            "Starship Prototype | 150 Meter Hop,StatusActive,,Failure"),
+        Mission.of("246,ULA,\"SLC-3E, Vandenberg AFB, California, USA\",\"Sat May 05, 2018\"," +
+            "Atlas V 401 | InSight,StatusActive,\"109.0 \",Success"),
+        Mission.of("62,SpaceX,\"SLC-40, Cape Canaveral AFS, Florida, USA\",\"Tue Jan 07, 2020\"," +
+            "Falcon 9 Block 5 | Starlink V1 L2,StatusActive,\"50.0 \",Success"),
+        Mission.of("14,VKS RF,\"Site 43/4, Plesetsk Cosmodrome, Russia\",\"Fri Jul 03, 2020\"," +
+            "Soyuz 2.1a | Cosmos 2546,StatusActive,\"48.5 \",Failure"),
+        Mission.of("5,RVSN USSR,\"Site 1/5, Baikonur Cosmodrome, Kazakhstan\",\"Fri Oct 04, 1957\"," +
+            "Sputnik 8K71PS | Sputnik-1,StatusRetired,\"1,160.0 \",Partial Failure"),
+        Mission.of("4,ULA,\"SLC-41, Cape Canaveral AFS, Florida, USA\",\"Thu Jul 30, 2020\"," +
+            "Atlas V 541 | Perseverance,StatusActive,\"145.0 \",Success"),
+        Mission.of("63,SpaceX,\"SLC-40, Cape Canaveral AFS, Florida, USA\",\"Tue Jan 07, 2020\"," +
+            "Falcon 9 Block 5 | Starlink V1 L3,StatusActive,\"50.0 \",Success"));
+
+    private static MissionTable appendOneByOne() {
+        MissionStore.Builder builder = MissionStore.builder();
+        MissionTable table = MissionTable.of(builder.snapshot());
+        for (Mission mission : MISSIONS) {
+            builder.add(mission);
+            table = table.append(builder.snapshot());
+        }
+
+        return table;
+    }
+
+    private static MissionTable buildAtOnce() {
+        MissionStore.Builder builder = MissionStore.builder();
+        MISSIONS.forEach(builder::add);
+
+        return MissionTable.of(builder.build());
+    }
+
+    @Test
+    void testAppendKeepsALogarithmicNumberOfSegments() {
+        MissionTable table = appendOneByOne();
+
+        assertEquals(MISSIONS, table.missions().missions());
+        assertTrue(table.segmentsCount() > 1);
+        assertTrue(table.segmentsCount() <= Integer.SIZE - Integer.numberOfLeadingZeros(MISSIONS.size()));
+    }
+
+    @Test
+    void testIndexesOfAppendedRowsEqualTheIndexesOfAllRows() {
+        MissionIndexes appended = appendOneByOne().indexes();
+        MissionIndexes built = buildAtOnce().indexes();
+
+        for (MissionStatus missionStatus : MissionStatus.values()) {
+            assertArrayEquals(built.missionsByDate(missionStatus).rows(),
+                appended.missionsByDate(missionStatus).rows());
+        }
+        assertArrayEquals(built.missionsByCostPerStatuses().rows(), appended.missionsByCostPerStatuses().rows());
+    }
+
+    @Test
+    void testQueriesOverSegmentsAnswerLikeASingleSegment() {
+        MissionTable appended = appendOneByOne();
+        MissionTable built = buildAtOnce();
+        int spaceX = built.missions().companyNames().find("SpaceX");
+        int falcon = built.missions().rocketNames().find("Falcon 9 Block 5");
+        int partition = MissionIndexes.statusesPartition(MissionStatus.SUCCESS, RocketStatus.STATUS_ACTIVE);
+
+        assertEquals(built.missions(MissionStatus.SUCCESS), appended.missions(MissionStatus.SUCCESS));
+        assertEquals(built.count(MissionIndexes::successfulMissionsPerCompany, spaceX, JAN_2020, DEC_2020),
+            appended.count(MissionIndexes::successfulMissionsPerCompany, spaceX, JAN_2020, DEC_2020));
+        assertEquals(3, appended.count(MissionIndexes::missionsPerRocket, falcon));
+        assertEquals(built.cheapest(partition, 3), appended.cheapest(partition, 3));
+        assertArrayEquals(built.mostExpensive(partition, 4), appended.mostExpensive(partition, 4));
+        assertArrayEquals(built.rows(MissionStatus.FAILURE, JAN_2020, DEC_2020).sorted().toArray(),
+            appended.rows(MissionStatus.FAILURE, JAN_2020, DEC_2020).sorted().toArray());
+        assertEquals(appended.rows(MissionStatus.SUCCESS, JAN_2020, DEC_2020).count(),
+            appended.rowsCount(MissionStatus.SUCCESS, JAN_2020, DEC_2020));
+
+        long[] days = {JAN_2020, LocalDate.of(2020, 8, 1).toEpochDay(), DEC_2020};
+        int[] builtCounts = new int[days.length];
+        int[] appendedCounts = new int[days.length];
+        built.countBefore(MissionIndexes::missionsPerRocket, falcon, days, builtCounts);
+        appended.countBefore(MissionIndexes::missionsPerRocket, falcon, days, appendedCounts);
+        assertArrayEquals(builtCounts, appendedCounts);
+    }
+
+    @Test
+    void testAppendDoesNotChangeTheTable() {
+        MissionStore.Builder builder = MissionStore.builder();
+        builder.add(MISSIONS.get(0));
+        MissionTable table = MissionTable.of(builder.snapshot());
+
+        builder.add(MISSIONS.get(1));
+        MissionTable appended = table.append(builder.snapshot());
+
+        assertEquals(1, table.missions().size());
+        assertEquals(List.of(MISSIONS.get(0)), table.missions(MissionStatus.SUCCESS));
+        assertEquals(2, appended.missions(MissionStatus.SUCCESS).size());
+    }
+
+    @Test
+    void testAppendThrowsWhenTheStoreHasLessRows() {
+        MissionTable table = buildAtOnce();
+
+        assertThrows(IllegalArgumentException.class, () -> table.append(null));
+        assertThrows(IllegalArgumentException.class, () -> table.append(MissionStore.builder().build()));
+    }
+}
@@ -0,0 +1,67 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryParallelismTest {
+    private static final int THRESHOLD = 100;
+
+    @Test
+    void testSequentialExecutesOnTheCallingThread() {
+        QueryParallelism sequential = QueryParallelism.sequential();
+
+        assertFalse(sequential.isParallel(Integer.MAX_VALUE));
+        assertFalse(sequential.execute(Integer.MAX_VALUE, IntStream.range(0, 10), IntStream::isParallel));
+        assertArrayEquals(new int[] {0, 1000}, sequential.chunks(1000));
+    }
+
+    @Test
+    void testQueriesBelowTheThresholdAreSequential() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            QueryParallelism parallelism = QueryParallelism.parallel(pool, THRESHOLD);
+
+            assertFalse(parallelism.execute(THRESHOLD - 1, IntStream.range(0, 10), IntStream::isParallel));
+            assertTrue(parallelism.execute(THRESHOLD, IntStream.range(0, 10), IntStream::isParallel));
+            assertEquals(2, parallelism.chunks(THRESHOLD - 1).length);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testChunksCoverTheRangeAndRunOnThePool() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            QueryParallelism parallelism = QueryParallelism.parallel(pool, THRESHOLD);
+            int[] chunks = parallelism.chunks(THRESHOLD * 10 + 7);
+            AtomicInteger covered = new AtomicInteger();
+            parallelism.forEachChunk(chunks, chunk -> covered.addAndGet(chunks[chunk + 1] - chunks[chunk]));
+
+            assertEquals(11, chunks.length);
+            assertEquals(0, chunks[0]);
+            assertEquals(THRESHOLD * 10 + 7, covered.get());
+            assertEquals(IntStream.range(0, 10_000).sum(),
+                parallelism.execute(10_000, IntStream.range(0, 10_000), IntStream::sum));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> QueryParallelism.parallel(null));
+        assertThrows(IllegalArgumentException.class, () -> QueryParallelism.parallel(ForkJoinPool.commonPool(), 0));
+    }
+}
@@ -0,0 +1,66 @@
+package bg.sofia.uni.fmi.mjt.space.store;
+
+import bg.sofia.uni.fmi.mjt.space.rocket.Rocket;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RocketStoreTest {
+    private static final Rocket TSYKLON = Rocket.of("0,Tsyklon-3,https://en.wikipedia.org/wiki/Tsyklon-3,39.0 m");
+    private static final Rocket UNHA = Rocket.of("1,Unha-2,https://en.wikipedia.org/wiki/Unha,28.0 m");
+    private static final Rocket VEGA = Rocket.of("2,Vega,,");
+    private static final Rocket ANTARES = Rocket.of("3,Antares 110,,39.0 m");
+    private static final Rocket ATLAS = Rocket.of("4,Atlas V 401,,58.3 m");
+
+    private static RocketStore createStore() {
+        return RocketStore.of(new LinkedHashSet<>(List.of(TSYKLON, UNHA, VEGA, ANTARES, ATLAS)));
+    }
+
+    @Test
+    void testTallestReturnsTheRocketsWithKnownHeightsFromTheTallest() {
+        RocketStore store = createStore();
+
+        assertEquals(4, store.measuredCount());
+        assertEquals(List.of(ATLAS, TSYKLON), store.tallest(2));
+        assertEquals(List.of(ATLAS, TSYKLON, ANTARES, UNHA), store.tallest(10));
+        assertArrayEquals(new double[] {58.3, 39.0, 39.0}, store.tallestHeights(3));
+    }
+
+    @Test
+    void testRocketsOfEqualHeightsStayInIterationOrder() {
+        Set<Rocket> rockets = new LinkedHashSet<>();
+        for (int i = 0; i < 30; i++) {
+            rockets.add(Rocket.of(i + ",Rocket " + i + ",," + (i % 3) * 10 + ".0 m"));
+        }
+
+        List<Rocket> tallest = RocketStore.of(rockets).tallest(30);
+
+        for (int rank = 0; rank < 10; rank++) {
+            assertEquals("Rocket " + (3 * rank + 2), tallest.get(rank).name());
+            assertEquals("Rocket " + (3 * rank), tallest.get(20 + rank).name());
+        }
+    }
+
+    @Test
+    void testResultsCannotBeModified() {
+        RocketStore store = createStore();
+
+        assertThrows(UnsupportedOperationException.class, () -> store.tallest(2).clear());
+        assertThrows(UnsupportedOperationException.class, () -> store.rockets().add(VEGA));
+        assertEquals(5, store.rockets().size());
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RocketStore.of(null));
+        assertThrows(IllegalArgumentException.class, () -> createStore().tallest(0));
+        assertThrows(IllegalArgumentException.class, () -> createStore().tallestHeights(-1));
+        assertEquals(List.of(), RocketStore.of(Set.of(VEGA)).tallest(1));
+    }
+}